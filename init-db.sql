@@ -4,42 +4,48 @@
 -- Create hotels table if not exists (JPA will create it, this is backup)
 CREATE TABLE IF NOT EXISTS hotels (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    supplier_ref VARCHAR(100),
     name VARCHAR(200) NOT NULL,
     city VARCHAR(100) NOT NULL,
+    city_key VARCHAR(100) NOT NULL,
     price_per_night DECIMAL(10, 2) NOT NULL,
     rating DOUBLE NOT NULL,
     description VARCHAR(1000),
     total_rooms INT,
     available_rooms INT,
-    INDEX idx_city (city),
-    INDEX idx_price (price_per_night)
+    max_occupancy INT,
+    INDEX idx_city_key_price (city_key, price_per_night, id, available_rooms),
+    INDEX idx_city_key_rating (city_key, rating DESC, price_per_night, id, available_rooms),
+    INDEX idx_price (price_per_night),
+    UNIQUE KEY uk_supplier_ref (supplier_ref)
 );
 
 -- Insert sample hotel data for Tokyo
-INSERT INTO hotels (name, city, price_per_night, rating, description, total_rooms, available_rooms) VALUES
-('Grand Hotel Tokyo', 'Tokyo', 15000.00, 4.5, 'Luxury hotel in the heart of Tokyo with stunning city views', 100, 50),
-('Business Inn Tokyo', 'Tokyo', 8000.00, 4.0, 'Affordable business hotel near Tokyo Station', 80, 40),
-('Sakura Resort Tokyo', 'Tokyo', 20000.00, 4.8, 'Premium resort with traditional Japanese hospitality', 60, 30),
-('Budget Stay Tokyo', 'Tokyo', 5000.00, 3.5, 'Clean and comfortable budget accommodation', 120, 80),
-('Executive Suites Tokyo', 'Tokyo', 18000.00, 4.6, 'Modern executive suites for business travelers', 70, 35);
+INSERT INTO hotels (name, city, city_key, price_per_night, rating, description, total_rooms, available_rooms, max_occupancy) VALUES
+('Grand Hotel Tokyo', 'Tokyo', 'tokyo', 15000.00, 4.5, 'Luxury hotel in the heart of Tokyo with stunning city views', 100, 50, 4),
+('Business Inn Tokyo', 'Tokyo', 'tokyo', 8000.00, 4.0, 'Affordable business hotel near Tokyo Station', 80, 40, 2),
+('Sakura Resort Tokyo', 'Tokyo', 'tokyo', 20000.00, 4.8, 'Premium resort with traditional Japanese hospitality', 60, 30, 4),
+('Budget Stay Tokyo', 'Tokyo', 'tokyo', 5000.00, 3.5, 'Clean and comfortable budget accommodation', 120, 80, 2),
+('Executive Suites Tokyo', 'Tokyo', 'tokyo', 18000.00, 4.6, 'Modern executive suites for business travelers', 70, 35, 2);
 
 -- Insert sample hotel data for Osaka
-INSERT INTO hotels (name, city, price_per_night, rating, description, total_rooms, available_rooms) VALUES
-('Osaka Castle Hotel', 'Osaka', 12000.00, 4.4, 'Historic hotel with views of Osaka Castle', 90, 45),
-('Namba Business Hotel', 'Osaka', 7000.00, 4.1, 'Convenient location in Namba district', 100, 60),
-('Umeda Grand Hotel', 'Osaka', 16000.00, 4.7, 'Luxurious accommodation in Umeda area', 80, 40),
-('Osaka Bay Resort', 'Osaka', 14000.00, 4.5, 'Beautiful resort near Osaka Bay', 75, 35);
+INSERT INTO hotels (name, city, city_key, price_per_night, rating, description, total_rooms, available_rooms, max_occupancy) VALUES
+('Osaka Castle Hotel', 'Osaka', 'osaka', 12000.00, 4.4, 'Historic hotel with views of Osaka Castle', 90, 45, 2),
+('Namba Business Hotel', 'Osaka', 'osaka', 7000.00, 4.1, 'Convenient location in Namba district', 100, 60, 2),
+('Umeda Grand Hotel', 'Osaka', 'osaka', 16000.00, 4.7, 'Luxurious accommodation in Umeda area', 80, 40, 2),
+('Osaka Bay Resort', 'Osaka', 'osaka', 14000.00, 4.5, 'Beautiful resort near Osaka Bay', 75, 35, 4);
 
 -- Insert sample hotel data for Kyoto
-INSERT INTO hotels (name, city, price_per_night, rating, description, total_rooms, available_rooms) VALUES
-('Kyoto Traditional Inn', 'Kyoto', 25000.00, 4.9, 'Authentic Japanese ryokan experience', 30, 10),
-('Kyoto Station Hotel', 'Kyoto', 11000.00, 4.3, 'Modern hotel near Kyoto Station', 95, 50),
-('Gion Luxury Suites', 'Kyoto', 30000.00, 5.0, 'Premium suites in the historic Gion district', 40, 15),
-('Arashiyama Resort', 'Kyoto', 18000.00, 4.6, 'Peaceful resort in Arashiyama bamboo grove area', 50, 25);
+INSERT INTO hotels (name, city, city_key, price_per_night, rating, description, total_rooms, available_rooms, max_occupancy) VALUES
+('Kyoto Traditional Inn', 'Kyoto', 'kyoto', 25000.00, 4.9, 'Authentic Japanese ryokan experience', 30, 10, 3),
+('Kyoto Station Hotel', 'Kyoto', 'kyoto', 11000.00, 4.3, 'Modern hotel near Kyoto Station', 95, 50, 2),
+('Gion Luxury Suites', 'Kyoto', 'kyoto', 30000.00, 5.0, 'Premium suites in the historic Gion district', 40, 15, 4),
+('Arashiyama Resort', 'Kyoto', 'kyoto', 18000.00, 4.6, 'Peaceful resort in Arashiyama bamboo grove area', 50, 25, 4);
 
 -- Create reservations table (JPA will handle this, but backup structure)
+-- Shard 0 of the reservations; ids are Snowflake ids, see src/main/resources/db/reservation-shard.sql
 CREATE TABLE IF NOT EXISTS reservations (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     hotel_id BIGINT NOT NULL,
     guest_name VARCHAR(200) NOT NULL,
     guest_email VARCHAR(200) NOT NULL,
@@ -49,5 +55,34 @@ CREATE TABLE IF NOT EXISTS reservations (
     created_at TIMESTAMP NOT NULL,
     version BIGINT,
     INDEX idx_hotel_id (hotel_id),
-    INDEX idx_check_in_out (check_in, check_out)
+    INDEX idx_check_in_out (check_in, check_out),
+    INDEX idx_guest_email (guest_email)
+);
+
+-- Reservations to remove from other shards after a failed compensating DELETE,
+-- see src/main/resources/db/reservation-compensation.sql
+CREATE TABLE IF NOT EXISTS reservation_compensations (
+    reservation_id BIGINT PRIMARY KEY,
+    shard INT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Per-night room inventory (JPA will handle this, but backup structure)
+-- Rows are created on the first booking of a night, seeded from hotels.available_rooms
+CREATE TABLE IF NOT EXISTS room_inventory (
+    hotel_id BIGINT NOT NULL,
+    stay_date DATE NOT NULL,
+    available_rooms INT NOT NULL,
+    PRIMARY KEY (hotel_id, stay_date)
+);
+
+-- Idempotency-Keys of reservation requests (JPA will handle this, but backup structure)
+-- Claimed before booking; response holds the reservation as JSON once booked
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    reservation_id BIGINT,
+    response VARCHAR(2000),
+    created_at TIMESTAMP NOT NULL,
+    INDEX idx_idempotency_created_at (created_at)
 );
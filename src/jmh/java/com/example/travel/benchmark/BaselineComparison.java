@@ -0,0 +1,110 @@
+package com.example.travel.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result (-rf json) with the checked-in baseline and prints the change
+ * of every benchmark both contain. Exits with status 1 when one got slower by more than
+ * the threshold (default 10%) and its confidence interval (score ± scoreError) no longer
+ * overlaps the baseline's, so noise within the error of either run is not reported;
+ * throughput scores regress downwards, times upwards.
+ *
+ * Usage: {@code BaselineComparison <baseline.json> <result.json> [thresholdPercent]}
+ */
+public final class BaselineComparison {
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <result.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> result = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %24s %24s %9s%n", "Benchmark", "Baseline", "Result", "Change");
+        for (Map.Entry<String, JsonNode> entry : result.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue().get("primaryMetric");
+            if (before == null) {
+                System.out.printf("%-90s %24s %24s %9s%n", entry.getKey(), "-", format(after), "new");
+                continue;
+            }
+            JsonNode beforeMetric = before.get("primaryMetric");
+            String unit = after.get("scoreUnit").asText();
+            if (!unit.equals(beforeMetric.get("scoreUnit").asText())) {
+                System.out.printf("%-90s %24s %24s %9s%n", entry.getKey(),
+                        beforeMetric.get("scoreUnit").asText(), unit, "unit");
+                continue;
+            }
+            double old = beforeMetric.get("score").asDouble();
+            double current = after.get("score").asDouble();
+            double change = old == 0 ? 0 : (current - old) / old * 100;
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().get("mode").asText());
+            boolean slower = higherIsBetter ? change < -threshold : change > threshold;
+            boolean disjoint = higherIsBetter
+                    ? current + error(after) < old - error(beforeMetric)
+                    : current - error(after) > old + error(beforeMetric);
+            boolean regressed = slower && disjoint;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %24s %24s %+8.1f%%%s%n", entry.getKey(), format(beforeMetric), format(after),
+                    change, regressed ? "  REGRESSION" : slower ? "  (within error)" : "");
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%% beyond their error%n",
+                    regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Half-width of the 99.9% confidence interval JMH reports; NaN (a single iteration) counts as 0.
+     */
+    private static double error(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static String format(JsonNode metric) {
+        return String.format("%.3f +- %.3f", metric.get("score").asDouble(), error(metric));
+    }
+
+    /**
+     * Results by benchmark, mode and parameters, e.g.
+     * {@code c.e.t.b.HotelPageSerializerBenchmark.jsonSerialize avgt pageSize=10}.
+     */
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.get("benchmark").asText()
+                    .replace("com.example.travel.", "c.e.t."))
+                    .append(' ').append(run.get("mode").asText());
+            Map<String, String> params = new LinkedHashMap<>();
+            JsonNode runParams = run.get("params");
+            if (runParams != null) {
+                for (Iterator<Map.Entry<String, JsonNode>> it = runParams.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> param = it.next();
+                    params.put(param.getKey(), param.getValue().asText());
+                }
+            }
+            params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+            results.put(key.toString(), run);
+        }
+        return results;
+    }
+}
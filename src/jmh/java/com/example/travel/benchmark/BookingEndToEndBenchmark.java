@@ -0,0 +1,90 @@
+package com.example.travel.benchmark;
+
+import com.example.travel.TravelApplication;
+import com.example.travel.entity.Hotel;
+import com.example.travel.repository.HotelRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One client booking over HTTP against embedded H2 (test profile): JSON binding,
+ * validation, inventory admission, the sharded insert and the response, without the
+ * contention ThreadingModelBenchmark adds. Every booking must succeed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BookingEndToEndBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI reservationsUri;
+    private Long hotelId;
+    private LocalDate checkIn;
+    private long bookings;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(TravelApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--travel.logging.requests.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.travel=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        reservationsUri = URI.create("http://localhost:"
+                + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/v1/reservations");
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+        hotelId = context.getBean(HotelRepository.class).save(Hotel.builder()
+                .name("Benchmark Hotel")
+                .city("Benchmark City")
+                .pricePerNight(new BigDecimal("12000.00"))
+                .rating(4.0)
+                .totalRooms(Integer.MAX_VALUE)
+                .availableRooms(Integer.MAX_VALUE)
+                .build()).getId();
+        checkIn = LocalDate.now().plusDays(30);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int book() throws IOException, InterruptedException {
+        long booking = ++bookings;
+        String body = "{\"hotelId\":" + hotelId
+                + ",\"guestName\":\"Guest " + booking + "\""
+                + ",\"guestEmail\":\"guest" + booking + "@example.com\""
+                + ",\"checkIn\":\"" + checkIn + "\",\"checkOut\":\"" + checkIn.plusDays(2) + "\""
+                + ",\"guests\":2}";
+        HttpRequest request = HttpRequest.newBuilder(reservationsUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 201) {
+            throw new IllegalStateException("HTTP " + status + " for booking " + booking);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.travel.benchmark;
+
+import com.example.travel.config.HotelPageSerializer;
+import com.example.travel.dto.HotelResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes one cached search page with the JSON serializer the other caches use
+ * and with the binary search-page codec. Encoded sizes are printed once per trial.
+ *
+ * GenericJackson2JsonRedisSerializer cannot read a PageImpl back (no creator), so the JSON
+ * decode side is measured as a plain tree parse, a lower bound for any JSON decoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HotelPageSerializerBenchmark {
+
+    @Param({"10", "50"})
+    private int pageSize;
+
+    private GenericJackson2JsonRedisSerializer json;
+    private ObjectMapper objectMapper;
+    private HotelPageSerializer binary;
+    private Page<HotelResponse> page;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        json = new GenericJackson2JsonRedisSerializer();
+        objectMapper = new ObjectMapper();
+        binary = new HotelPageSerializer(1024);
+
+        List<HotelResponse> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(HotelResponse.builder()
+                    .id(1_000L + i)
+                    .name("Shinjuku Grand Hotel " + i)
+                    .city("Tokyo")
+                    .pricePerNight(new BigDecimal("15000.00").add(BigDecimal.valueOf(i * 250L, 2)))
+                    .rating(3.5 + (i % 15) / 10.0)
+                    .description("Modern hotel a short walk from Shinjuku station, with city views, "
+                            + "free Wi-Fi and a rooftop bar open until midnight.")
+                    .availableRooms(5 + i % 40)
+                    .build());
+        }
+        page = new PageImpl<>(content,
+                PageRequest.of(0, pageSize, Sort.by(Sort.Direction.ASC, "pricePerNight")), 1_000);
+
+        jsonBytes = json.serialize(page);
+        binaryBytes = binary.serialize(page);
+        System.out.printf("%nbytes per entry (pageSize=%d): json=%d binary=%d%n",
+                pageSize, jsonBytes.length, binaryBytes.length);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return json.serialize(page);
+    }
+
+    @Benchmark
+    public JsonNode jsonDeserialize() throws IOException {
+        return objectMapper.readTree(jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize() {
+        return binary.serialize(page);
+    }
+
+    @Benchmark
+    public Page<HotelResponse> binaryDeserialize() {
+        return binary.deserialize(binaryBytes);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.travel.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost per request as seen by request threads, for the old and new logging setups:
+ *
+ * - sync-per-layer: two INFO lines per request (controller and service) written in the
+ *   calling thread, as before the prod profile
+ * - async-summary: one key=value summary line per request through an AsyncAppender
+ * - async-sampled: the summary for 1% of requests, as the prod profile logs them
+ *
+ * Lines go to a temporary file flushed per event, like the console appender. The async
+ * appender drops INFO events when its queue is 80% full (as configured in
+ * logback-spring.xml), so under sustained overload it trades completeness for latency;
+ * the file size printed after each trial shows how much was written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RequestLoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n";
+
+    @Param({"sync-per-layer", "async-summary", "async-sampled"})
+    private String setup;
+
+    private LoggerContext context;
+    private Logger controllerLog;
+    private Logger serviceLog;
+    private Logger requestLog;
+    private double sampleRate;
+    private File file;
+    private final LocalDate checkIn = LocalDate.of(2030, 1, 20);
+    private final LocalDate checkOut = LocalDate.of(2030, 1, 23);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("request-logging", ".log").toFile();
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        context.start();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.getAbsolutePath());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> appender = fileAppender;
+        if (setup.startsWith("async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(fileAppender);
+            async.start();
+            appender = async;
+        }
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(appender);
+
+        controllerLog = context.getLogger("com.example.travel.controller.HotelSearchController");
+        serviceLog = context.getLogger("com.example.travel.service.HotelSearchService");
+        requestLog = context.getLogger("travel.requests");
+        sampleRate = setup.equals("async-sampled") ? 0.01 : 1.0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.stop();
+        System.out.printf("%n%s: %,d bytes logged%n", setup, file.length());
+        file.delete();
+    }
+
+    @Benchmark
+    public void logRequest() {
+        if (setup.equals("sync-per-layer")) {
+            controllerLog.info("Received hotel search request: city={}, checkIn={}, checkOut={}, guests={}, page={}, size={}",
+                    "Tokyo", checkIn, checkOut, 2, 0, 20);
+            serviceLog.info("Searching hotels in city: {}, checkIn: {}, checkOut: {}, guests: {}, page: {}, size: {}",
+                    "tokyo", checkIn, checkOut, 2, 0, 20);
+            return;
+        }
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        requestLog.info("method={} route={} status={} duration_ms={}", "GET", "/api/v1/hotels/search", 200, 12);
+    }
+}
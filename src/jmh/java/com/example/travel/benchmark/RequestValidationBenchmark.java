@@ -0,0 +1,86 @@
+package com.example.travel.benchmark;
+
+import com.example.travel.dto.HotelSearchRequest;
+import com.example.travel.dto.ReservationRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean validation of the search and reservation requests, as @Valid runs it on every call:
+ * a valid request, and one that breaks most constraints (building the violations and
+ * interpolating their messages is the expensive part of a rejected request).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RequestValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private HotelSearchRequest search;
+    private ReservationRequest reservation;
+    private ReservationRequest invalidReservation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        search = HotelSearchRequest.builder()
+                .city("Tokyo")
+                .checkIn(checkIn)
+                .checkOut(checkIn.plusDays(2))
+                .guests(2)
+                .size(20)
+                .minPrice(new BigDecimal("10000"))
+                .minRating(3.5)
+                .build();
+        reservation = ReservationRequest.builder()
+                .hotelId(1L)
+                .guestName("Taro Yamada")
+                .guestEmail("taro.yamada@example.com")
+                .checkIn(checkIn)
+                .checkOut(checkIn.plusDays(2))
+                .guests(2)
+                .build();
+        invalidReservation = ReservationRequest.builder()
+                .guestName("T")
+                .guestEmail("not-an-email")
+                .checkIn(LocalDate.now().minusDays(1))
+                .checkOut(LocalDate.now().minusDays(1))
+                .guests(11)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<HotelSearchRequest>> searchRequest() {
+        return validator.validate(search);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ReservationRequest>> reservationRequest() {
+        return validator.validate(reservation);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ReservationRequest>> invalidReservationRequest() {
+        return validator.validate(invalidReservation);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.travel.benchmark;
+
+import com.example.travel.TravelApplication;
+import com.example.travel.dto.BatchReservationResponse;
+import com.example.travel.dto.ReservationRequest;
+import com.example.travel.entity.Hotel;
+import com.example.travel.repository.HotelRepository;
+import com.example.travel.service.ReservationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Books the same set of reservations one request at a time and as one batch,
+ * against embedded H2 (test profile). Each operation books {@code items} stays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReservationBatchBenchmark {
+
+    @Param({"50"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+    private List<ReservationRequest> requests;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(TravelApplication.class)
+                .profiles("test")
+                .run("--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.travel=WARN");
+        reservationService = context.getBean(ReservationService.class);
+
+        Hotel hotel = context.getBean(HotelRepository.class).save(Hotel.builder()
+                .name("Benchmark Hotel")
+                .city("Tokyo")
+                .pricePerNight(new BigDecimal("12000.00"))
+                .rating(4.0)
+                .totalRooms(Integer.MAX_VALUE)
+                .availableRooms(Integer.MAX_VALUE)
+                .build());
+
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        requests = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            requests.add(ReservationRequest.builder()
+                    .hotelId(hotel.getId())
+                    .guestName("Guest " + i)
+                    .guestEmail("guest" + i + "@example.com")
+                    .checkIn(checkIn)
+                    .checkOut(checkIn.plusDays(2))
+                    .guests(2)
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int singleItem() {
+        for (ReservationRequest request : requests) {
+            reservationService.createReservation(request);
+        }
+        return requests.size();
+    }
+
+    @Benchmark
+    public BatchReservationResponse batch() {
+        return reservationService.createReservations(requests);
+    }
+}
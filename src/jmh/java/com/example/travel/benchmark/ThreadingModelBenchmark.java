@@ -0,0 +1,126 @@
+package com.example.travel.benchmark;
+
+import com.example.travel.TravelApplication;
+import com.example.travel.entity.Hotel;
+import com.example.travel.repository.HotelRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the search and reservation endpoints over HTTP with many concurrent clients,
+ * with the server on platform (Tomcat pool) or virtual threads. Throughput gives
+ * requests/s; sample time gives the p50/p99/p99.9 latencies.
+ *
+ * Virtual threads need Java 21+: on an older JDK run only {@code -p threads=platform}, or
+ * fork the benchmark JVMs on a Java 21 runtime with {@code -jvm <jdk21>/bin/java} (the
+ * classes are Java 17 bytecode). The default profile (test) runs on embedded H2, which
+ * does no network I/O; for representative numbers point it at MySQL and Redis with
+ * {@code -p profile=default} (docker-compose up mysql redis). Client concurrency is
+ * JMH's thread count, e.g. {@code -t 400}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(400)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ThreadingModelBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"test"})
+    private String profile;
+
+    private final AtomicLong bookings = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private Long hotelId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        boolean virtual = threads.equals("virtual");
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later; run with -p threads=platform "
+                    + "or fork on a Java 21 runtime with -jvm <jdk21>/bin/java");
+        }
+        context = new SpringApplicationBuilder(TravelApplication.class)
+                .profiles(profile)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--travel.datasource.admission.enabled=" + virtual,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.travel=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--logging.level.org.springframework.cache=WARN");
+        baseUrl = "http://localhost:"
+                + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/v1";
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+        hotelId = context.getBean(HotelRepository.class).save(Hotel.builder()
+                .name("Benchmark Hotel")
+                .city("Benchmark City")
+                .pricePerNight(new BigDecimal("12000.00"))
+                .rating(4.0)
+                .totalRooms(Integer.MAX_VALUE)
+                .availableRooms(Integer.MAX_VALUE)
+                .build()).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int search() throws IOException, InterruptedException {
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/hotels/search?city=Benchmark%20City"
+                        + "&checkIn=" + checkIn + "&checkOut=" + checkIn.plusDays(2) + "&guests=2"))
+                .GET()
+                .build());
+    }
+
+    @Benchmark
+    public int reserve() throws IOException, InterruptedException {
+        long booking = bookings.incrementAndGet();
+        // Spread bookings over a year of nights so they do not all queue on one inventory row
+        LocalDate checkIn = LocalDate.now().plusDays(30 + booking % 365);
+        String body = "{\"hotelId\":" + hotelId
+                + ",\"guestName\":\"Guest " + booking + "\""
+                + ",\"guestEmail\":\"guest" + booking + "@example.com\""
+                + ",\"checkIn\":\"" + checkIn + "\",\"checkOut\":\"" + checkIn.plusDays(2) + "\""
+                + ",\"guests\":2}";
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/reservations"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        // 503 is load shedding by connection admission and part of the result; 500 is a bug
+        if (status == 500) {
+            throw new IllegalStateException("HTTP " + status + " from " + request.uri());
+        }
+        return status;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.travel.loadtest;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Synthetic search and reservation traffic over a set of hotels, the same for the same seed.
+ *
+ * Cities are picked with a Zipf-like skew (the first city of the list gets the most
+ * traffic), stays start within the next weeks and last one to three nights, so searches
+ * repeat the way real ones do and reservations pile up on the popular hotels and nights.
+ * Arrivals are a Poisson process at the given rate.
+ */
+public class TrafficGenerator {
+
+    /**
+     * A bookable hotel: id, city as stored, and per-night allotment.
+     */
+    public record HotelRef(long id, String city, int rooms) {
+    }
+
+    private static final String[] SORTS = {"PRICE_ASC", "PRICE_ASC", "PRICE_ASC", "PRICE_DESC", "RATING_DESC"};
+
+    private final Random random;
+    private final List<String> cities;
+    private final Map<String, List<HotelRef>> hotelsByCity = new LinkedHashMap<>();
+    private final double[] cityWeights;
+    private final LocalDate firstCheckIn;
+    private final int checkInDays;
+
+    /**
+     * @param firstCheckIn earliest check-in; stays start within checkInDays of it
+     */
+    public TrafficGenerator(List<HotelRef> hotels, long seed, LocalDate firstCheckIn, int checkInDays) {
+        if (hotels.isEmpty()) {
+            throw new IllegalArgumentException("No hotels to generate traffic for");
+        }
+        this.random = new Random(seed);
+        this.firstCheckIn = firstCheckIn;
+        this.checkInDays = checkInDays;
+        for (HotelRef hotel : hotels) {
+            hotelsByCity.computeIfAbsent(hotel.city(), city -> new ArrayList<>()).add(hotel);
+        }
+        this.cities = List.copyOf(hotelsByCity.keySet());
+        this.cityWeights = new double[cities.size()];
+        double total = 0;
+        for (int i = 0; i < cityWeights.length; i++) {
+            total += 1.0 / (i + 1);
+            cityWeights[i] = total;
+        }
+        for (int i = 0; i < cityWeights.length; i++) {
+            cityWeights[i] /= total;
+        }
+    }
+
+    /**
+     * @param requests     number of requests
+     * @param ratePerSecond mean arrival rate
+     * @param searchShare  fraction of requests that are searches; the rest are reservations
+     */
+    public List<TrafficRequest> generate(int requests, double ratePerSecond, double searchShare) {
+        List<TrafficRequest> traffic = new ArrayList<>(requests);
+        double offsetMillis = 0;
+        for (int i = 0; i < requests; i++) {
+            long offset = (long) offsetMillis;
+            traffic.add(random.nextDouble() < searchShare ? search(offset) : reservation(offset, i));
+            offsetMillis += -Math.log(1 - random.nextDouble()) / ratePerSecond * 1000;
+        }
+        return traffic;
+    }
+
+    private TrafficRequest search(long offset) {
+        String city = pickCity();
+        LocalDate checkIn = pickCheckIn();
+        StringBuilder path = new StringBuilder("/api/v1/hotels/search?city=")
+                .append(URLEncoder.encode(city, StandardCharsets.UTF_8))
+                .append("&checkIn=").append(checkIn)
+                .append("&checkOut=").append(checkIn.plusDays(1 + random.nextInt(3)))
+                .append("&guests=").append(1 + random.nextInt(3));
+        // Most users stay on the first page in the default order; some page on or filter
+        double shape = random.nextDouble();
+        if (shape < 0.15) {
+            path.append("&page=").append(1 + random.nextInt(2));
+        } else if (shape < 0.25) {
+            path.append("&maxPrice=").append(10_000 + 5_000 * random.nextInt(4));
+        } else if (shape < 0.35) {
+            path.append("&sort=").append(SORTS[random.nextInt(SORTS.length)]);
+        }
+        return new TrafficRequest(offset, "GET", path.toString(), null);
+    }
+
+    private TrafficRequest reservation(long offset, int sequence) {
+        List<HotelRef> hotels = hotelsByCity.get(pickCity());
+        HotelRef hotel = hotels.get(random.nextInt(hotels.size()));
+        LocalDate checkIn = pickCheckIn();
+        String body = "{\"hotelId\":" + hotel.id()
+                + ",\"guestName\":\"Load Guest " + sequence + "\""
+                + ",\"guestEmail\":\"guest" + sequence + "@loadtest.example.com\""
+                + ",\"checkIn\":\"" + checkIn + "\""
+                + ",\"checkOut\":\"" + checkIn.plusDays(1 + random.nextInt(3)) + "\""
+                + ",\"guests\":" + (1 + random.nextInt(2)) + "}";
+        return new TrafficRequest(offset, "POST", "/api/v1/reservations", body);
+    }
+
+    private String pickCity() {
+        double pick = random.nextDouble();
+        for (int i = 0; i < cityWeights.length; i++) {
+            if (pick < cityWeights[i]) {
+                return cities.get(i);
+            }
+        }
+        return cities.get(cities.size() - 1);
+    }
+
+    private LocalDate pickCheckIn() {
+        return firstCheckIn.plusDays(random.nextInt(checkInDays));
+    }
+}
@@ -0,0 +1,370 @@
+package com.example.travel.loadtest;
+
+import com.example.travel.TravelApplication;
+import com.example.travel.entity.Hotel;
+import com.example.travel.repository.HotelRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays search and reservation traffic against the application and reports throughput,
+ * latency percentiles per kind of request, the search cache hit ratio and overbooked nights.
+ *
+ * Traffic is either a recording (--traffic, see {@link TrafficRequest}) or generated from a
+ * seed over the hotels in the database ({@link TrafficGenerator}). Requests are sent at
+ * their recorded arrival times (scaled by --speed) by up to --concurrency clients; a
+ * request that has to wait for a free client counts the wait in its latency, so an
+ * overloaded server is not hidden by the load generator slowing down. With --speed 0 the
+ * clients send back to back instead.
+ *
+ * Without --target the application is started in-process: the test profile runs on
+ * embedded H2 with an in-memory cache, the default profile on the MySQL and Redis of
+ * docker-compose. Seeded hotels (--hotels) are added to that database.
+ *
+ * Cache hits come from the travel.search metric; the overbooking check counts the exported
+ * reservations of every night against the hotel's per-night allotment. Exits with status 1
+ * when a night is overbooked.
+ */
+public final class TrafficReplay {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, String> options;
+    private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, LongAdder>> statuses = new ConcurrentHashMap<>();
+    private HttpClient client;
+    private String baseUrl;
+
+    private TrafficReplay(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value pairs, got: " + String.join(" ", args));
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        System.exit(new TrafficReplay(options).run());
+    }
+
+    private int run() throws Exception {
+        ConfigurableApplicationContext context = null;
+        try {
+            if (options.containsKey("target")) {
+                baseUrl = option("target", "");
+            } else {
+                context = startApplication(option("profile", "test"));
+                baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+                seedHotels(context, intOption("hotels", 200), intOption("cities", 20), longOption("seed", 42));
+            }
+            client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            List<TrafficRequest> traffic = loadTraffic();
+            if (options.containsKey("record")) {
+                write(traffic, Path.of(options.get("record")));
+            }
+
+            double hitsBefore = searchCount("cache_hit");
+            double missesBefore = searchCount("cache_miss");
+            long elapsedNanos = replay(traffic, intOption("concurrency", 64), doubleOption("speed", 1.0));
+            double hits = searchCount("cache_hit") - hitsBefore;
+            double misses = searchCount("cache_miss") - missesBefore;
+
+            report(traffic.size(), elapsedNanos, hits, misses);
+            boolean overbooked = Boolean.parseBoolean(option("check-overbooking", "true")) && checkOverbooking();
+            return overbooked ? 1 : 0;
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(String profile) {
+        List<String> args = new ArrayList<>(List.of("--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--travel.logging.requests.enabled=false",
+                "--travel.export.enabled=true",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.travel=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--logging.level.org.springframework.cache=WARN"));
+        if (profile.equals("test")) {
+            // Stand-in for Redis, so cache hits are part of the run
+            args.add("--spring.cache.type=simple");
+        }
+        return new SpringApplicationBuilder(TravelApplication.class)
+                .profiles(profile)
+                .run(args.toArray(String[]::new));
+    }
+
+    private static void seedHotels(ConfigurableApplicationContext context, int hotels, int cities, long seed) {
+        Random random = new Random(seed);
+        List<Hotel> seeded = new ArrayList<>(hotels);
+        for (int i = 0; i < hotels; i++) {
+            int rooms = 5 + random.nextInt(16);
+            seeded.add(Hotel.builder()
+                    .name("Load Test Hotel " + i)
+                    .city("Load City " + i % cities)
+                    .pricePerNight(BigDecimal.valueOf(6_000 + random.nextInt(30_000)))
+                    .rating(2.5 + random.nextInt(26) / 10.0)
+                    .description("Seeded by TrafficReplay")
+                    .totalRooms(rooms)
+                    .availableRooms(rooms)
+                    .maxOccupancy(2 + random.nextInt(3))
+                    .build());
+        }
+        context.getBean(HotelRepository.class).saveAll(seeded);
+    }
+
+    private List<TrafficRequest> loadTraffic() throws IOException, InterruptedException {
+        if (options.containsKey("traffic")) {
+            List<TrafficRequest> traffic = new ArrayList<>();
+            try (BufferedReader reader = Files.newBufferedReader(Path.of(options.get("traffic")))) {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    if (!line.isBlank()) {
+                        traffic.add(MAPPER.readValue(line, TrafficRequest.class));
+                    }
+                }
+            }
+            return traffic;
+        }
+        List<TrafficGenerator.HotelRef> hotels = new ArrayList<>();
+        for (JsonNode hotel : export("hotels")) {
+            if (hotel.hasNonNull("availableRooms")) {
+                hotels.add(new TrafficGenerator.HotelRef(hotel.get("id").asLong(), hotel.get("city").asText(),
+                        hotel.get("availableRooms").asInt()));
+            }
+        }
+        return new TrafficGenerator(hotels, longOption("seed", 42), LocalDate.now().plusDays(7), 30)
+                .generate(intOption("requests", 20_000), doubleOption("rate", 200),
+                        doubleOption("search-share", 0.9));
+    }
+
+    private static void write(List<TrafficRequest> traffic, Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (TrafficRequest request : traffic) {
+                writer.write(MAPPER.writeValueAsString(request));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * @return wall time from the first send until the last response
+     */
+    private long replay(List<TrafficRequest> traffic, int concurrency, double speed) throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "replay-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Back to back: each client takes the next request as soon as it is done
+        Semaphore free = speed > 0 ? null : new Semaphore(concurrency);
+        long start = System.nanoTime();
+        for (TrafficRequest request : traffic) {
+            long intended;
+            if (free != null) {
+                free.acquire();
+                intended = System.nanoTime();
+            } else {
+                intended = start + (long) (request.offsetMillis() * 1_000_000 / speed);
+                for (long wait = intended - System.nanoTime(); wait > 0; wait = intended - System.nanoTime()) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            clients.execute(() -> {
+                try {
+                    send(request, intended);
+                } finally {
+                    if (free != null) {
+                        free.release();
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.HOURS);
+        return System.nanoTime() - start;
+    }
+
+    private void send(TrafficRequest request, long intendedNanos) {
+        String status;
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + request.path()))
+                    .timeout(Duration.ofSeconds(30));
+            if (request.body() != null) {
+                builder.header("Content-Type", "application/json")
+                        .method(request.method(), HttpRequest.BodyPublishers.ofString(request.body()));
+            } else {
+                builder.method(request.method(), HttpRequest.BodyPublishers.noBody());
+            }
+            status = String.valueOf(client.send(builder.build(), HttpResponse.BodyHandlers.discarding()).statusCode());
+        } catch (IOException e) {
+            status = e.getClass().getSimpleName();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long micros = (System.nanoTime() - intendedNanos) / 1_000;
+        String kind = request.kind();
+        latencies.computeIfAbsent(kind, k -> new ConcurrentHistogram(3)).recordValue(Math.max(1, micros));
+        statuses.computeIfAbsent(kind, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(status, s -> new LongAdder())
+                .increment();
+    }
+
+    private void report(int requests, long elapsedNanos, double hits, double misses) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%nReplayed %d requests in %.1f s: %.1f requests/s%n", requests, seconds, requests / seconds);
+        System.out.printf("%-28s %8s %9s %9s %9s %9s %9s  %s%n",
+                "Kind", "Count", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "Statuses");
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(latencies).entrySet()) {
+            Histogram histogram = entry.getValue();
+            System.out.printf("%-28s %8d %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n", entry.getKey(),
+                    histogram.getTotalCount(),
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(90) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0,
+                    new TreeMap<>(statuses.get(entry.getKey())));
+        }
+        if (hits + misses > 0) {
+            System.out.printf("Search cache: %.0f hits, %.0f misses, %.1f%% hit ratio%n",
+                    hits, misses, hits * 100 / (hits + misses));
+        } else {
+            System.out.println("Search cache: no cached searches recorded (cache disabled or catalogue enabled)");
+        }
+    }
+
+    /**
+     * Count the reservations of every hotel night and compare them with the hotel's
+     * per-night allotment (hotels.available_rooms, which seeds room_inventory).
+     *
+     * @return whether a night is overbooked
+     */
+    private boolean checkOverbooking() throws IOException, InterruptedException {
+        Map<Long, Integer> allotments = new HashMap<>();
+        for (JsonNode hotel : export("hotels")) {
+            if (hotel.hasNonNull("availableRooms")) {
+                allotments.put(hotel.get("id").asLong(), hotel.get("availableRooms").asInt());
+            }
+        }
+        Map<String, Integer> booked = new HashMap<>();
+        for (JsonNode reservation : export("reservations")) {
+            long hotelId = reservation.get("hotelId").asLong();
+            LocalDate checkOut = LocalDate.parse(reservation.get("checkOut").asText());
+            for (LocalDate night = LocalDate.parse(reservation.get("checkIn").asText());
+                 night.isBefore(checkOut); night = night.plusDays(1)) {
+                booked.merge(hotelId + " " + night, 1, Integer::sum);
+            }
+        }
+
+        List<String> overbooked = new ArrayList<>();
+        booked.forEach((hotelNight, count) -> {
+            Integer allotment = allotments.get(Long.parseLong(hotelNight.substring(0, hotelNight.indexOf(' '))));
+            if (allotment != null && count > allotment) {
+                overbooked.add("hotel " + hotelNight + ": " + count + " booked of " + allotment);
+            }
+        });
+        if (overbooked.isEmpty()) {
+            System.out.printf("Overbooking: none in %d booked hotel nights%n", booked.size());
+            return false;
+        }
+        System.out.printf("Overbooking: %d of %d booked hotel nights overbooked%n", overbooked.size(), booked.size());
+        overbooked.stream().sorted().limit(20).forEach(line -> System.out.println("  " + line));
+        return true;
+    }
+
+    private List<JsonNode> export(String what) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/export/" + what)).GET().build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != 200) {
+            throw new IOException("Export of " + what + " failed: HTTP " + response.statusCode());
+        }
+        List<JsonNode> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                rows.add(MAPPER.readTree(line));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Searches recorded under travel.search with the given source tag, 0 before the first.
+     */
+    private double searchCount(String source) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/actuator/metrics/travel.search?tag=source:" + source)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return 0;
+        }
+        for (JsonNode measurement : MAPPER.readTree(response.body()).path("measurements")) {
+            if ("COUNT".equals(measurement.path("statistic").asText())) {
+                return measurement.path("value").asDouble();
+            }
+        }
+        return 0;
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+    }
+
+    private long longOption(String name, long defaultValue) {
+        return options.containsKey(name) ? Long.parseLong(options.get(name)) : defaultValue;
+    }
+
+    private double doubleOption(String name, double defaultValue) {
+        return options.containsKey(name) ? Double.parseDouble(options.get(name)) : defaultValue;
+    }
+}
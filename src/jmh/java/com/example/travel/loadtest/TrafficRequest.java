@@ -0,0 +1,24 @@
+package com.example.travel.loadtest;
+
+/**
+ * One recorded request: when it arrived (milliseconds after the first one), its method,
+ * path with query string, and JSON body (null for GETs). A recording is one request per
+ * line (JSON lines), e.g.
+ * {@code {"offsetMillis":12,"method":"GET","path":"/api/v1/hotels/search?city=Tokyo&...","body":null}}
+ */
+public record TrafficRequest(long offsetMillis, String method, String path, String body) {
+
+    /**
+     * Reporting group: search, reserve, or the method and path of anything else.
+     */
+    public String kind() {
+        if (path.startsWith("/api/v1/hotels/search") || path.startsWith("/api/v2/hotels/search")) {
+            return "search";
+        }
+        if ("POST".equals(method) && path.startsWith("/api/v1/reservations")) {
+            return "reserve";
+        }
+        int query = path.indexOf('?');
+        return method + " " + (query < 0 ? path : path.substring(0, query));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.travel.service;
+
+import com.example.travel.dto.HotelResponse;
+import com.example.travel.dto.HotelSearchRequest;
+import com.example.travel.dto.HotelSearchSort;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory part of a cached hotel search: building the cache keys of a request, and
+ * cutting a result page from a shared city list (HotelSearchService.slice), unfiltered and
+ * with filters and another order. Search results are projected into HotelResponse by the
+ * queries, so this is where a cached search spends its time besides the cache itself.
+ *
+ * Lives in the service package to reach the package-private search internals.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HotelSearchPathBenchmark {
+
+    @Param({"200"})
+    private int cityHotels;
+
+    private HotelSearchRequest request;
+    private HotelSearchFilter filter;
+    private Page<HotelResponse> cityResults;
+    private Pageable firstPage;
+    private Pageable filteredPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        request = HotelSearchRequest.builder()
+                .city(" Tokyo ")
+                .checkIn(checkIn)
+                .checkOut(checkIn.plusDays(2))
+                .guests(2)
+                .page(1)
+                .size(20)
+                .minPrice(new BigDecimal("10000"))
+                .maxPrice(new BigDecimal("30000.00"))
+                .minRating(3.5)
+                .sort(HotelSearchSort.RATING_DESC)
+                .build();
+        filter = HotelSearchFilter.of(request);
+
+        List<HotelResponse> hotels = new ArrayList<>(cityHotels);
+        for (int i = 0; i < cityHotels; i++) {
+            hotels.add(HotelResponse.builder()
+                    .id(1_000L + i)
+                    .name("Shinjuku Grand Hotel " + i)
+                    .city("Tokyo")
+                    .pricePerNight(new BigDecimal("8000.00").add(BigDecimal.valueOf(i * 12_500L, 2)))
+                    .rating(3.0 + (i * 7 % 20) / 10.0)
+                    .availableRooms(5 + i % 40)
+                    .maxOccupancy(1 + i % 4)
+                    .build());
+        }
+        // Shared city lists hold every hotel of the city in price order
+        cityResults = new PageImpl<>(hotels, PageRequest.of(0, cityHotels, HotelSearchService.PRICE_ORDER),
+                cityHotels);
+        firstPage = PageRequest.of(0, 20, HotelSearchService.PRICE_ORDER);
+        filteredPage = PageRequest.of(request.getPage(), request.getSize(), filter.sort().getSort());
+    }
+
+    @Benchmark
+    public String cacheKeys() {
+        String city = HotelSearchKeys.normalizeCity(request.getCity());
+        HotelSearchFilter requestFilter = HotelSearchFilter.of(request);
+        HotelSearchKeys.city(city, request.getCheckIn(), request.getCheckOut(), request.isCompact());
+        return HotelSearchKeys.page(city, request.getCheckIn(), request.getCheckOut(), request.getPage(),
+                request.getSize(), requestFilter.key(), request.isCompact());
+    }
+
+    @Benchmark
+    public Page<HotelResponse> sliceUnfiltered() {
+        return HotelSearchService.slice(cityResults, HotelSearchFilter.NONE, firstPage);
+    }
+
+    @Benchmark
+    public Page<HotelResponse> sliceFiltered() {
+        return HotelSearchService.slice(cityResults, filter, filteredPage);
+    }
+}
@@ -2,12 +2,20 @@ package com.example.travel;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.cache.annotation.EnableCaching;
 
 /**
  * Main application class for Travel Reservation API.
  * Built following Travel engineering standards.
+ *
+ * Transactions are JPA's: R2DBC only serves read-only searches, and a second
+ * (reactive) transaction manager would make @Transactional ambiguous.
  */
-@SpringBootApplication
+@SpringBootApplication(exclude = R2dbcTransactionManagerAutoConfiguration.class)
+@ConfigurationPropertiesScan
+@EnableCaching
 public class TravelApplication {
 
     public static void main(String[] args) {
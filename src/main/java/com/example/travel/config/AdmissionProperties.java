@@ -0,0 +1,31 @@
+package com.example.travel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection admission settings (travel.datasource.admission.*).
+ *
+ * With virtual threads every request gets its own thread, so the number of threads that
+ * want a JDBC connection is no longer capped by the Tomcat pool. Admission lets as many
+ * of them through as the Hikari pool has connections, queues a bounded number and turns
+ * the rest away at once instead of letting them wait out the pool's connection timeout.
+ */
+@Data
+@ConfigurationProperties(prefix = "travel.datasource.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Threads allowed to wait for a connection; beyond this, requests are rejected right away.
+     */
+    private int maxWaiting = 200;
+
+    /**
+     * How long an admitted waiter may wait for a connection before it is rejected.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,43 @@
+package com.example.travel.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.cache.RedisCache;
+
+/**
+ * Evicts every entry whose key starts with a prefix, for the cache types this
+ * application runs with. Unknown cache types are cleared completely.
+ */
+public final class CacheEviction {
+
+    private CacheEviction() {
+    }
+
+    public static void evictByPrefix(Cache cache, String prefix) {
+        if (cache instanceof TwoTierCache twoTierCache) {
+            twoTierCache.evictByPrefix(prefix);
+        } else if (cache instanceof RedisCache redisCache) {
+            // SCAN-based (see RedisConfig), so a large keyspace does not block Redis
+            redisCache.clear(escapeGlob(prefix) + "*");
+        } else if (cache instanceof ConcurrentMapCache mapCache) {
+            mapCache.getNativeCache().keySet().removeIf(key -> String.valueOf(key).startsWith(prefix));
+        } else {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Escape Redis glob metacharacters so a prefix matches literally.
+     */
+    static String escapeGlob(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.travel.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Broadcasts local-copy invalidations between nodes over a Redis pub/sub channel.
+ *
+ * Message format is {@code nodeId \n cacheName \n kind \n value}, where kind is K (evict
+ * the key in value), P (evict keys starting with value) or C (clear). Nodes ignore
+ * their own messages since they already dropped the entries.
+ *
+ * Publishing is best effort: if Redis is unreachable the other nodes' copies still
+ * expire after the local TTL.
+ */
+@Slf4j
+public class CacheInvalidationBus {
+
+    private static final char SEPARATOR = '\n';
+    private static final String EVICT = "K";
+    private static final String EVICT_PREFIX = "P";
+    private static final String CLEAR = "C";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(cacheName, EVICT, key);
+    }
+
+    public void publishEvictByPrefix(String cacheName, String prefix) {
+        publish(cacheName, EVICT_PREFIX, prefix);
+    }
+
+    public void publishClear(String cacheName) {
+        publish(cacheName, CLEAR, "");
+    }
+
+    /**
+     * Listener applying other nodes' invalidations to the given manager's local copies.
+     */
+    public MessageListener listenerFor(TwoTierCacheManager cacheManager) {
+        return (message, pattern) -> {
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8)
+                    .split(String.valueOf(SEPARATOR), 4);
+            if (parts.length < 4 || nodeId.equals(parts[0])) {
+                return;
+            }
+            switch (parts[2]) {
+                case EVICT -> cacheManager.evictLocal(parts[1], parts[3]);
+                case EVICT_PREFIX -> cacheManager.evictLocalByPrefix(parts[1], parts[3]);
+                case CLEAR -> cacheManager.clearLocal(parts[1]);
+                default -> log.warn("Ignoring cache invalidation of unknown kind: {}", parts[2]);
+            }
+        };
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    private void publish(String cacheName, String kind, String value) {
+        String message = nodeId + SEPARATOR + cacheName + SEPARATOR + kind + SEPARATOR + value;
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException e) {
+            log.warn("Could not broadcast cache invalidation on {}: {}", channel, e.getMessage());
+        }
+    }
+}
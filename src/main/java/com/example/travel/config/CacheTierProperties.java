@@ -0,0 +1,87 @@
+package com.example.travel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Two-tier cache settings (travel.cache.*).
+ *
+ * Every Redis cache gets an in-process Caffeine copy in front of it. The local copy is
+ * bounded in size and lives much shorter than the Redis entry; evictions on any node are
+ * broadcast over Redis pub/sub so the other nodes drop their local copy too.
+ */
+@Data
+@ConfigurationProperties(prefix = "travel.cache")
+public class CacheTierProperties {
+
+    /**
+     * Redis entry TTL for caches without their own spec.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * Pub/sub channel carrying local-copy invalidations between nodes.
+     */
+    private String invalidationChannel = "travel:cache:invalidation";
+
+    /**
+     * Cached search pages larger than this many bytes are stored LZ4-compressed.
+     */
+    private int compressionThreshold = 1024;
+
+    private Local local = new Local();
+
+    /**
+     * Per-cache overrides, keyed by cache name.
+     */
+    private Map<String, Spec> caches = new HashMap<>();
+
+    public Duration ttlFor(String cacheName) {
+        Spec spec = caches.get(cacheName);
+        return spec != null && spec.getTtl() != null ? spec.getTtl() : ttl;
+    }
+
+    public Duration localTtlFor(String cacheName) {
+        Spec spec = caches.get(cacheName);
+        return spec != null && spec.getLocalTtl() != null ? spec.getLocalTtl() : local.getTtl();
+    }
+
+    public long localMaximumSizeFor(String cacheName) {
+        Spec spec = caches.get(cacheName);
+        return spec != null && spec.getLocalMaximumSize() != null
+                ? spec.getLocalMaximumSize() : local.getMaximumSize();
+    }
+
+    @Data
+    public static class Local {
+
+        /**
+         * Disable to serve every hit straight from Redis.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Entries kept per cache on each node; least recently used ones go first.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * Upper bound on how long a node serves its local copy without asking Redis.
+         */
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Spec {
+
+        private Duration ttl;
+
+        private Duration localTtl;
+
+        private Long localMaximumSize;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.travel.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Puts connection admission ({@link AdmissionControlledDataSource}) in front of the Hikari
+ * pool, with one permit per pooled connection.
+ *
+ * Enabled with travel.datasource.admission.enabled (DB_ADMISSION_ENABLED). It does not
+ * follow spring.threads.virtual.enabled, which Spring ignores on Java 17; switch both on
+ * together when running on Java 21.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "travel.datasource.admission", name = "enabled", havingValue = "true")
+public class DataSourceAdmissionConfig {
+
+    @Bean
+    static BeanPostProcessor dataSourceAdmissionPostProcessor(ObjectProvider<AdmissionProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                AdmissionProperties admission = properties.getObject();
+                log.info("Connection admission for {}: {} permits, up to {} waiting for {}",
+                        beanName, hikari.getMaximumPoolSize(), admission.getMaxWaiting(), admission.getAcquireTimeout());
+                return new AdmissionControlledDataSource(hikari, hikari.getMaximumPoolSize(),
+                        admission.getMaxWaiting(), admission.getAcquireTimeout());
+            }
+        };
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.travel.config;
+
+import com.example.travel.dto.HotelResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary Redis codec for cached hotel search pages.
+ *
+ * Layout: a format byte, then page number, page size, total, sort orders and the hotels
+ * with a fixed field order. Each hotel starts with a bit mask of its non-null fields;
+ * prices are stored as scale plus unscaled long. Bodies larger than the compression
+ * threshold are LZ4-compressed, prefixed with their raw length.
+ *
+ * Values written in any other format (e.g. JSON, or the format before maxOccupancy was
+ * added) read as a cache miss and are overwritten by the next search.
+ *
+ * Given a MeterRegistry, encoding and decoding are timed (travel.cache.codec) and encoded
+ * sizes recorded (travel.cache.codec.bytes).
+ */
+public class HotelPageSerializer implements RedisSerializer<Page<HotelResponse>> {
+
+    static final byte FORMAT_PLAIN = 3;
+    static final byte FORMAT_LZ4 = 4;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_NAME = 1 << 1;
+    private static final int HAS_CITY = 1 << 2;
+    private static final int HAS_PRICE = 1 << 3;
+    private static final int HAS_RATING = 1 << 4;
+    private static final int HAS_DESCRIPTION = 1 << 5;
+    private static final int HAS_AVAILABLE_ROOMS = 1 << 6;
+    private static final int HAS_MAX_OCCUPANCY = 1 << 7;
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor = LZ4.fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4.fastDecompressor();
+    private final Timer serializeTimer;
+    private final Timer deserializeTimer;
+    private final DistributionSummary encodedBytes;
+
+    /**
+     * @param compressionThreshold body size in bytes above which pages are compressed
+     */
+    public HotelPageSerializer(int compressionThreshold) {
+        this(compressionThreshold, null);
+    }
+
+    /**
+     * @param compressionThreshold body size in bytes above which pages are compressed
+     * @param meterRegistry        registry for codec metrics, or null for none
+     */
+    public HotelPageSerializer(int compressionThreshold, MeterRegistry meterRegistry) {
+        this.compressionThreshold = compressionThreshold;
+        if (meterRegistry == null) {
+            serializeTimer = null;
+            deserializeTimer = null;
+            encodedBytes = null;
+            return;
+        }
+        serializeTimer = codecTimer("serialize", meterRegistry);
+        deserializeTimer = codecTimer("deserialize", meterRegistry);
+        encodedBytes = DistributionSummary.builder("travel.cache.codec.bytes")
+                .description("Encoded size of cached hotel search pages")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] serialize(Page<HotelResponse> page) throws SerializationException {
+        if (page == null) {
+            return null;
+        }
+        if (serializeTimer == null) {
+            return encode(page);
+        }
+        byte[] bytes = serializeTimer.record(() -> encode(page));
+        encodedBytes.record(bytes.length);
+        return bytes;
+    }
+
+    @Override
+    public Page<HotelResponse> deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        return deserializeTimer == null ? decode(bytes) : deserializeTimer.record(() -> decode(bytes));
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return Page.class;
+    }
+
+    private byte[] encode(Page<HotelResponse> page) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + page.getNumberOfElements() * 128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_PLAIN);
+            writeBody(out, page);
+        } catch (IOException e) {
+            throw new SerializationException("Could not serialize hotel page", e);
+        }
+        byte[] plain = bytes.toByteArray();
+        int bodyLength = plain.length - 1;
+        if (bodyLength <= compressionThreshold) {
+            return plain;
+        }
+        byte[] compressed = new byte[5 + compressor.maxCompressedLength(bodyLength)];
+        int compressedLength = compressor.compress(plain, 1, bodyLength, compressed, 5);
+        compressed[0] = FORMAT_LZ4;
+        compressed[1] = (byte) (bodyLength >>> 24);
+        compressed[2] = (byte) (bodyLength >>> 16);
+        compressed[3] = (byte) (bodyLength >>> 8);
+        compressed[4] = (byte) bodyLength;
+        return Arrays.copyOf(compressed, 5 + compressedLength);
+    }
+
+    private Page<HotelResponse> decode(byte[] bytes) {
+        byte[] body;
+        int offset;
+        int length;
+        switch (bytes[0]) {
+            case FORMAT_PLAIN -> {
+                body = bytes;
+                offset = 1;
+                length = bytes.length - 1;
+            }
+            case FORMAT_LZ4 -> {
+                if (bytes.length < 5) {
+                    throw new SerializationException("Truncated compressed hotel page");
+                }
+                length = ((bytes[1] & 0xFF) << 24) | ((bytes[2] & 0xFF) << 16)
+                        | ((bytes[3] & 0xFF) << 8) | (bytes[4] & 0xFF);
+                if (length < 0) {
+                    throw new SerializationException("Corrupt compressed hotel page length: " + length);
+                }
+                body = new byte[length];
+                offset = 0;
+                try {
+                    decompressor.decompress(bytes, 5, body, 0, length);
+                } catch (LZ4Exception e) {
+                    throw new SerializationException("Could not decompress hotel page", e);
+                }
+            }
+            default -> {
+                return null;
+            }
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body, offset, length))) {
+            return readBody(in);
+        } catch (IOException e) {
+            throw new SerializationException("Could not deserialize hotel page", e);
+        }
+    }
+
+    private static Timer codecTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("travel.cache.codec")
+                .description("Time to encode or decode a cached hotel search page")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static void writeBody(DataOutputStream out, Page<HotelResponse> page) throws IOException {
+        Pageable pageable = page.getPageable();
+        out.writeInt(pageable.isPaged() ? pageable.getPageNumber() : -1);
+        out.writeInt(pageable.isPaged() ? pageable.getPageSize() : -1);
+        out.writeLong(page.getTotalElements());
+
+        List<Sort.Order> orders = page.getSort().toList();
+        out.writeByte(orders.size());
+        for (Sort.Order order : orders) {
+            writeString(out, order.getProperty());
+            out.writeBoolean(order.isAscending());
+        }
+
+        out.writeInt(page.getNumberOfElements());
+        for (HotelResponse hotel : page.getContent()) {
+            writeHotel(out, hotel);
+        }
+    }
+
+    private static void writeHotel(DataOutputStream out, HotelResponse hotel) throws IOException {
+        int mask = (hotel.getId() != null ? HAS_ID : 0)
+                | (hotel.getName() != null ? HAS_NAME : 0)
+                | (hotel.getCity() != null ? HAS_CITY : 0)
+                | (hotel.getPricePerNight() != null ? HAS_PRICE : 0)
+                | (hotel.getRating() != null ? HAS_RATING : 0)
+                | (hotel.getDescription() != null ? HAS_DESCRIPTION : 0)
+                | (hotel.getAvailableRooms() != null ? HAS_AVAILABLE_ROOMS : 0)
+                | (hotel.getMaxOccupancy() != null ? HAS_MAX_OCCUPANCY : 0);
+        out.writeByte(mask);
+        if ((mask & HAS_ID) != 0) {
+            out.writeLong(hotel.getId());
+        }
+        if ((mask & HAS_NAME) != 0) {
+            writeString(out, hotel.getName());
+        }
+        if ((mask & HAS_CITY) != 0) {
+            writeString(out, hotel.getCity());
+        }
+        if ((mask & HAS_PRICE) != 0) {
+            BigDecimal price = hotel.getPricePerNight();
+            BigInteger unscaled = price.unscaledValue();
+            if (unscaled.bitLength() > 63 || price.scale() != (byte) price.scale()) {
+                throw new SerializationException("Price out of range for hotel page codec: " + price);
+            }
+            out.writeByte(price.scale());
+            out.writeLong(unscaled.longValue());
+        }
+        if ((mask & HAS_RATING) != 0) {
+            out.writeDouble(hotel.getRating());
+        }
+        if ((mask & HAS_DESCRIPTION) != 0) {
+            writeString(out, hotel.getDescription());
+        }
+        if ((mask & HAS_AVAILABLE_ROOMS) != 0) {
+            out.writeInt(hotel.getAvailableRooms());
+        }
+        if ((mask & HAS_MAX_OCCUPANCY) != 0) {
+            out.writeInt(hotel.getMaxOccupancy());
+        }
+    }
+
+    private static Page<HotelResponse> readBody(DataInputStream in) throws IOException {
+        int pageNumber = in.readInt();
+        int pageSize = in.readInt();
+        long total = in.readLong();
+
+        int orderCount = in.readUnsignedByte();
+        List<Sort.Order> orders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            String property = readString(in);
+            orders.add(in.readBoolean() ? Sort.Order.asc(property) : Sort.Order.desc(property));
+        }
+
+        int count = in.readInt();
+        List<HotelResponse> content = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            content.add(readHotel(in));
+        }
+
+        Pageable pageable = pageSize > 0
+                ? PageRequest.of(pageNumber, pageSize, Sort.by(orders))
+                : Pageable.unpaged();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private static HotelResponse readHotel(DataInputStream in) throws IOException {
+        int mask = in.readUnsignedByte();
+        HotelResponse hotel = new HotelResponse();
+        if ((mask & HAS_ID) != 0) {
+            hotel.setId(in.readLong());
+        }
+        if ((mask & HAS_NAME) != 0) {
+            hotel.setName(readString(in));
+        }
+        if ((mask & HAS_CITY) != 0) {
+            hotel.setCity(readString(in));
+        }
+        if ((mask & HAS_PRICE) != 0) {
+            int scale = in.readByte();
+            hotel.setPricePerNight(BigDecimal.valueOf(in.readLong(), scale));
+        }
+        if ((mask & HAS_RATING) != 0) {
+            hotel.setRating(in.readDouble());
+        }
+        if ((mask & HAS_DESCRIPTION) != 0) {
+            hotel.setDescription(readString(in));
+        }
+        if ((mask & HAS_AVAILABLE_ROOMS) != 0) {
+            hotel.setAvailableRooms(in.readInt());
+        }
+        if ((mask & HAS_MAX_OCCUPANCY) != 0) {
+            hotel.setMaxOccupancy(in.readInt());
+        }
+        return hotel;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] utf8 = new byte[in.readInt()];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.travel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Idempotency-Key handling for reservation requests (travel.idempotency.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "travel.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Whether POST /api/v1/reservations honours the Idempotency-Key header.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a key is kept in the database; retries within this window get the
+     * original response.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long a claim may stay without a response before a retry takes it over; longer
+     * than any booking takes, including travel.inventory.in-memory.write-timeout.
+     */
+    private Duration lease = Duration.ofMinutes(1);
+
+    /**
+     * Completed keys remembered per node, answered without a database round trip.
+     */
+    private long localMaximumSize = 10_000;
+
+    private Duration localTtl = Duration.ofMinutes(10);
+
+    /**
+     * How often keys older than ttl are deleted.
+     */
+    private Duration purgeInterval = Duration.ofMinutes(10);
+}
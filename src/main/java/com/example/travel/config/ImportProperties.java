@@ -0,0 +1,43 @@
+package com.example.travel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Hotel catalogue import settings (travel.import.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "travel.import")
+public class ImportProperties {
+
+    /**
+     * Directory feed files are read from; import requests name a file inside it.
+     */
+    private Path directory = Path.of("imports");
+
+    /**
+     * Rows parsed, validated and upserted per transaction.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Batches processed in parallel, each holding one pooled connection while it writes.
+     * Keep it well below the pool size so searches and bookings still get connections.
+     */
+    private int writers = 2;
+
+    /**
+     * Rejected rows reported by line number in the import status; further rejections are
+     * only counted.
+     */
+    private int maxReportedErrors = 100;
+
+    /**
+     * How long the status of a finished import can still be polled; older ones are
+     * forgotten when the next import starts.
+     */
+    private Duration statusRetention = Duration.ofHours(24);
+}
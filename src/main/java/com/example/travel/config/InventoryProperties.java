@@ -0,0 +1,62 @@
+package com.example.travel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Room inventory admission settings (travel.inventory.*).
+ *
+ * DATABASE mode admits every booking with a guarded UPDATE in its own transaction.
+ * IN_MEMORY mode admits bookings against striped in-process counters and writes the
+ * accepted ones behind in batches; it assumes this node is the only one admitting
+ * bookings for the hotels it serves (e.g. sticky routing of hot hotels).
+ */
+@Data
+@ConfigurationProperties(prefix = "travel.inventory")
+public class InventoryProperties {
+
+    private Mode mode = Mode.DATABASE;
+
+    private InMemory inMemory = new InMemory();
+
+    public boolean isInMemory() {
+        return mode == Mode.IN_MEMORY;
+    }
+
+    public enum Mode {
+        DATABASE,
+        IN_MEMORY
+    }
+
+    @Data
+    public static class InMemory {
+
+        /**
+         * Counter cells per hotel night; more stripes spread CAS contention across cores.
+         */
+        private int stripes = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        /**
+         * Maximum accepted bookings written per write-behind transaction.
+         */
+        private int flushBatchSize = 500;
+
+        /**
+         * How long the flusher waits for new bookings when the queue is empty.
+         */
+        private Duration flushInterval = Duration.ofMillis(5);
+
+        /**
+         * How long a booking waits for its write-behind batch before it is withdrawn
+         * and answered with 503.
+         */
+        private Duration writeTimeout = Duration.ofSeconds(10);
+
+        /**
+         * How often counters of nights that have passed are dropped.
+         */
+        private Duration evictionInterval = Duration.ofHours(1);
+    }
+}
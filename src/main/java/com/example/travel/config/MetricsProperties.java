@@ -0,0 +1,18 @@
+package com.example.travel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Application metrics settings (travel.metrics.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "travel.metrics")
+public class MetricsProperties {
+
+    /**
+     * Distinct cities tagged on search metrics; searches for further cities are tagged
+     * "other", so free-text city input cannot grow the number of time series without bound.
+     */
+    private int maxCityTags = 200;
+}
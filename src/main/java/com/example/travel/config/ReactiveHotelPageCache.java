@@ -0,0 +1,66 @@
+package com.example.travel.config;
+
+import com.example.travel.dto.HotelResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.redis.cache.CacheKeyPrefix;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Non-blocking access to one Redis search page cache over the Lettuce reactive API.
+ *
+ * Reads and writes the same keys, codec and TTL as the RedisCacheManager cache of that
+ * name, and indexes what it writes like the blocking path (see {@link SearchCacheIndex}),
+ * so sold-out nights evict entries written by either. The per-node Caffeine copy is not
+ * consulted.
+ */
+public class ReactiveHotelPageCache {
+
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
+    private final HotelPageSerializer serializer;
+    private final String cacheName;
+    private final String keyPrefix;
+    private final Duration ttl;
+
+    public ReactiveHotelPageCache(ReactiveRedisConnectionFactory connectionFactory,
+                                  CacheTierProperties properties,
+                                  String cacheName) {
+        this.redisTemplate = new ReactiveRedisTemplate<>(connectionFactory,
+                RedisSerializationContext.<String, byte[]>newSerializationContext(new StringRedisSerializer())
+                        .value(RedisSerializer.byteArray())
+                        .build());
+        this.serializer = new HotelPageSerializer(properties.getCompressionThreshold());
+        this.cacheName = cacheName;
+        this.keyPrefix = CacheKeyPrefix.simple().compute(cacheName);
+        this.ttl = properties.ttlFor(cacheName);
+    }
+
+    /**
+     * The cached page, or empty on a miss (including entries in an unreadable format).
+     */
+    public Mono<Page<HotelResponse>> get(String key) {
+        // Decoded here rather than by the template: unreadable entries decode to null
+        return redisTemplate.opsForValue().get(keyPrefix + key).mapNotNull(serializer::deserialize);
+    }
+
+    /**
+     * Cache a page of a stay, indexed under each night of it before the page is written.
+     */
+    public Mono<Boolean> put(String key, Page<HotelResponse> page, String city, LocalDate checkIn, LocalDate checkOut) {
+        byte[] member = key.getBytes(StandardCharsets.UTF_8);
+        Flux<Boolean> index = Flux.fromStream(checkIn.datesUntil(checkOut))
+                .map(night -> SearchCacheIndex.indexKey(cacheName, city, night))
+                .concatMap(indexKey -> redisTemplate.opsForSet().add(indexKey, new byte[][]{member})
+                        .then(redisTemplate.expire(indexKey, ttl)));
+        return index.then(redisTemplate.opsForValue().set(keyPrefix + key, serializer.serialize(page), ttl));
+    }
+}
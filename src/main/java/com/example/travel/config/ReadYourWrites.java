@@ -0,0 +1,75 @@
+package com.example.travel.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread state that keeps reads on the primary when a replica could miss a recent
+ * write (see {@link ReplicaRoutingDataSource}).
+ *
+ * The last write time comes from the client (ReadYourWritesFilter reads it from a cookie
+ * set after its previous write) or from writes made by the current thread. Bookings
+ * written for a request by another thread (the in-memory write-behind) are marked by
+ * ReservationService on the request thread, and pool threads that write clear their own
+ * marks after each task. Work that must see every committed write, e.g. checks run right
+ * after a commit, wraps itself in {@link #onPrimary}.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Long> LAST_WRITE_MILLIS = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> WROTE = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * Epoch millis of the caller's last write, or null if none is known.
+     */
+    public static Long lastWriteMillis() {
+        return LAST_WRITE_MILLIS.get();
+    }
+
+    public static void setLastWriteMillis(long epochMillis) {
+        LAST_WRITE_MILLIS.set(epochMillis);
+    }
+
+    /**
+     * Record that this thread is writing to the primary; later reads on the thread wait
+     * for replicas to catch up with it.
+     */
+    public static void markWrite() {
+        LAST_WRITE_MILLIS.set(System.currentTimeMillis());
+        WROTE.set(Boolean.TRUE);
+    }
+
+    /**
+     * Whether {@link #markWrite} was called since the last {@link #clear}.
+     */
+    public static boolean wrote() {
+        return WROTE.get() != null;
+    }
+
+    /**
+     * Run work with every connection taken from the primary, read-only or not.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (PRIMARY_ONLY.get() != null) {
+            return work.get();
+        }
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PRIMARY_ONLY.remove();
+        }
+    }
+
+    public static boolean primaryOnly() {
+        return PRIMARY_ONLY.get() != null;
+    }
+
+    public static void clear() {
+        LAST_WRITE_MILLIS.remove();
+        WROTE.remove();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.travel.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Sets the last-write cookie read by {@link ReadYourWritesFilter} on responses to
+ * requests that wrote to the primary. Runs before the body is written, which is the last
+ * point where headers can still be added.
+ */
+@RestControllerAdvice
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "travel.datasource.replicas", name = "enabled", havingValue = "true")
+public class ReadYourWritesCookieAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ReplicaProperties replicaProperties;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (ReadYourWrites.wrote()) {
+            ResponseCookie cookie = ResponseCookie.from(ReadYourWritesFilter.COOKIE_NAME,
+                            String.valueOf(ReadYourWrites.lastWriteMillis()))
+                    .path("/")
+                    .httpOnly(true)
+                    .maxAge(replicaProperties.getReadYourWritesWindow())
+                    .build();
+            response.getHeaders().add(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+        return body;
+    }
+}
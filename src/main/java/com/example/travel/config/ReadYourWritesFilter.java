@@ -0,0 +1,62 @@
+package com.example.travel.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Carries a client's last write across requests, so a search right after a booking is
+ * not answered by a replica that has not applied the booking yet.
+ *
+ * ReadYourWritesCookieAdvice sets the cookie on responses to requests that wrote to the
+ * primary; this filter hands its time to {@link ReadYourWrites} for the next requests.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "travel.datasource.replicas", name = "enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "travel_last_write";
+
+    private final ReplicaProperties replicaProperties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long lastWrite = lastWrite(request);
+        if (lastWrite != null
+                && System.currentTimeMillis() - lastWrite < replicaProperties.getReadYourWritesWindow().toMillis()) {
+            ReadYourWrites.setLastWriteMillis(lastWrite);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    private static Long lastWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -1,38 +1,106 @@
 package com.example.travel.config;
 
-import org.springframework.cache.annotation.EnableCaching;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
-import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Redis cache configuration.
  * Configures caching strategy for high-traffic read operations.
- * 
+ *
  * Cache Strategy:
- * - Hotel search results cached for 5 minutes
- * - Reduces database load for repeated searches
- * - Handles high-traffic scenarios efficiently
+ * - Hotel search results cached in Redis for 30 minutes (travel.cache.caches.*.ttl); bookings
+ *   that sell out a night evict the city's entries for stays including it (SearchCacheInvalidator)
+ * - Hot entries also kept in a per-node Caffeine copy for 60 seconds, so repeated
+ *   searches skip the Redis round trip and decoding
+ * - Evictions are broadcast over Redis pub/sub to drop the other nodes' copies
+ * - Search pages use a compact binary codec ({@link HotelPageSerializer}); other caches JSON
+ *
+ * Only active with spring.cache.type=redis (the default); other cache types fall back
+ * to Spring Boot's auto-configuration.
  */
 @Configuration
-@EnableCaching
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
 public class RedisConfig {
 
+    public static final String HOTEL_SEARCH_CACHE = "hotelSearch";
+    public static final String HOTEL_SEARCH_CITY_CACHE = "hotelSearchCity";
+    public static final String HOTEL_SEARCH_COUNT_CACHE = "hotelSearchCount";
+
+    /**
+     * Configure the two-tier cache manager over Redis with custom serialization.
+     * Uses JSON serialization for better debugging and compatibility, except for the
+     * search cache, which holds by far the most entries.
+     */
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     CacheTierProperties properties,
+                                     CacheInvalidationBus cacheInvalidationBus,
+                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        RedisCacheManager redisCacheManager = redisCacheManager(connectionFactory, properties,
+                meterRegistry.getIfAvailable());
+        if (!properties.getLocal().isEnabled()) {
+            return redisCacheManager;
+        }
+        return new TwoTierCacheManager(redisCacheManager, properties, cacheInvalidationBus);
+    }
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate stringRedisTemplate,
+                                                     CacheTierProperties properties) {
+        return new CacheInvalidationBus(stringRedisTemplate, properties.getInvalidationChannel());
+    }
+
     /**
-     * Configure Redis cache manager with custom serialization.
-     * Uses JSON serialization for better debugging and compatibility.
+     * Subscribes this node to local-copy invalidations published by the other nodes.
      */
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            CacheManager cacheManager,
+            CacheInvalidationBus cacheInvalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (cacheManager instanceof TwoTierCacheManager twoTierCacheManager) {
+            container.addMessageListener(
+                    cacheInvalidationBus.listenerFor(twoTierCacheManager),
+                    new ChannelTopic(cacheInvalidationBus.getChannel()));
+        }
+        return container;
+    }
+
+    /**
+     * Non-blocking view of the search page cache for the reactive search path.
+     */
+    @Bean
+    public ReactiveHotelPageCache reactiveHotelPageCache(ReactiveRedisConnectionFactory connectionFactory,
+                                                         CacheTierProperties properties) {
+        return new ReactiveHotelPageCache(connectionFactory, properties, HOTEL_SEARCH_CACHE);
+    }
+
+    private RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                                CacheTierProperties properties,
+                                                MeterRegistry meterRegistry) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(5)) // 5 minutes TTL
+                .entryTtl(properties.getTtl())
                 .serializeKeysWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(
                                 new StringRedisSerializer()
@@ -45,8 +113,24 @@ public class RedisConfig {
                 )
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
+        Map<String, RedisCacheConfiguration> perCache = new HashMap<>();
+        properties.getCaches().keySet().forEach(name ->
+                perCache.put(name, config.entryTtl(properties.ttlFor(name))));
+        RedisSerializationContext.SerializationPair<?> hotelPages =
+                RedisSerializationContext.SerializationPair.fromSerializer(
+                        new HotelPageSerializer(properties.getCompressionThreshold(), meterRegistry)
+                );
+        for (String name : new String[]{HOTEL_SEARCH_CACHE, HOTEL_SEARCH_CITY_CACHE}) {
+            perCache.put(name, config.entryTtl(properties.ttlFor(name)).serializeValuesWith(hotelPages));
+        }
+
+        // SCAN instead of KEYS when clearing by pattern, so per-city evictions after imports never block Redis
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(
+                connectionFactory, BatchStrategies.scan(1000));
+
+        return RedisCacheManager.builder(cacheWriter)
                 .cacheDefaults(config)
+                .withInitialCacheConfigurations(perCache)
                 .build();
     }
 }
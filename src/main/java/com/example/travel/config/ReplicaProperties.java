@@ -0,0 +1,60 @@
+package com.example.travel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica settings (travel.datasource.replicas.*).
+ *
+ * When enabled, read-only transactions run on one of the replicas (see
+ * {@link ReplicaRoutingDataSource}) and everything else on the primary configured under
+ * spring.datasource.
+ */
+@Data
+@ConfigurationProperties(prefix = "travel.datasource.replicas")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    /**
+     * Replicas further behind the primary than this are not read from until they catch up.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * How often each replica's health and lag are checked.
+     */
+    private Duration checkInterval = Duration.ofSeconds(2);
+
+    /**
+     * Statement returning the replica's lag in seconds, in a column named
+     * Seconds_Behind_Source (or Seconds_Behind_Master). No row counts as no lag; a null lag
+     * (replication stopped) takes the replica out of rotation.
+     */
+    private String lagQuery = "SHOW REPLICA STATUS";
+
+    /**
+     * How long after a write a client's reads are checked against replica lag. Reads
+     * within this window go to the primary unless a replica has caught up with the write.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(30);
+
+    /**
+     * Connections pooled per replica.
+     */
+    private int maximumPoolSize = 10;
+
+    @Data
+    public static class Node {
+
+        private String url;
+        private String username;
+        private String password;
+    }
+}
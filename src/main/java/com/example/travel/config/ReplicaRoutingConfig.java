@@ -0,0 +1,37 @@
+package com.example.travel.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write splitting: read-only transactions go to the replicas under
+ * travel.datasource.replicas, everything else to the primary pool from DataSourceConfig.
+ *
+ * JPA and JdbcTemplate use the lazy proxy marked @Primary, so the target is chosen at the
+ * first statement, once the transaction's read-only flag is known.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "travel.datasource.replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("dataSource") DataSource dataSource,
+                                                             ReplicaProperties replicaProperties,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReplicaRoutingDataSource(dataSource, replicaProperties, meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    @Primary
+    public DataSource routingDataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
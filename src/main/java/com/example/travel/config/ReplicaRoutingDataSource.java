@@ -0,0 +1,200 @@
+package com.example.travel.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to a replica and all others to the primary.
+ *
+ * A replica is used only while its last health check succeeded and its lag was within
+ * travel.datasource.replicas.max-lag; healthy replicas take turns. When none is usable,
+ * reads fall back to the primary. After a write (see {@link ReadYourWrites}), reads stay
+ * on the primary until a replica's lag, plus the age of its last check, is shorter than
+ * the time since the write.
+ *
+ * The decision is taken when a connection is first used, so this must sit behind a
+ * LazyConnectionDataSourceProxy: transaction managers fetch the connection before the
+ * transaction is marked read-only.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final long DOWN = -1;
+
+    private final DataSource primary;
+    private final ReplicaProperties properties;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService checker;
+
+    /**
+     * @param meterRegistry registry for the replica pools' hikaricp metrics, or null for none
+     */
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.properties = properties;
+        for (int i = 0; i < properties.getNodes().size(); i++) {
+            ReplicaProperties.Node node = properties.getNodes().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(node.getUrl());
+            pool.setUsername(node.getUsername());
+            pool.setPassword(node.getPassword());
+            pool.setMaximumPoolSize(properties.getMaximumPoolSize());
+            pool.setReadOnly(true);
+            // Start even when a replica is down; the health check keeps it out of rotation
+            pool.setInitializationFailTimeout(-1);
+            pool.setConnectionTimeout(Math.max(250, properties.getCheckInterval().toMillis()));
+            if (meterRegistry != null) {
+                pool.setMetricRegistry(meterRegistry);
+            }
+            replicas.add(new Replica(node.getUrl(), pool));
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        long intervalMillis = Math.max(1, properties.getCheckInterval().toMillis());
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::checkReplicas, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Routing read-only transactions to {} replica(s), max lag {}", replicas.size(), properties.getMaxLag());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return determineTarget().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return determineTarget().getConnection(username, password);
+    }
+
+    DataSource determineTarget() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWrites.markWrite();
+            }
+            return primary;
+        }
+        if (ReadYourWrites.primaryOnly()) {
+            return primary;
+        }
+        Long lastWrite = ReadYourWrites.lastWriteMillis();
+        long now = System.currentTimeMillis();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isUsable(now, lastWrite)) {
+                return replica.pool;
+            }
+        }
+        return primary;
+    }
+
+    /**
+     * Refresh every replica's health and lag.
+     */
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasInRotation = replica.isInRotation();
+            replica.lagMillis = measureLag(replica);
+            if (replica.isInRotation() != wasInRotation) {
+                log.info("Replica {} is {} (lag {} ms)", replica.url,
+                        wasInRotation ? "out of rotation" : "in rotation", replica.lagMillis);
+            }
+            replica.checkedAtMillis = System.currentTimeMillis();
+        }
+    }
+
+    private long measureLag(Replica replica) {
+        try (Connection connection = replica.pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(properties.getLagQuery())) {
+            if (!rows.next()) {
+                return 0;
+            }
+            long seconds = rows.getLong(lagColumn(rows.getMetaData()));
+            // Null: replication is not running, so the replica falls further behind
+            return rows.wasNull() ? DOWN : seconds * 1000;
+        } catch (SQLException | RuntimeException e) {
+            log.debug("Replica {} health check failed: {}", replica.url, e.getMessage());
+            return DOWN;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            String name = metaData.getColumnLabel(i);
+            if ("Seconds_Behind_Source".equalsIgnoreCase(name) || "Seconds_Behind_Master".equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        throw new SQLException("Lag query returned no Seconds_Behind_Source column");
+    }
+
+    private long maxLagMillis() {
+        return properties.getMaxLag().toMillis();
+    }
+
+    private final class Replica {
+
+        private final String url;
+        private final HikariDataSource pool;
+        private volatile long lagMillis = DOWN;
+        private volatile long checkedAtMillis;
+
+        Replica(String url, HikariDataSource pool) {
+            this.url = url;
+            this.pool = pool;
+        }
+
+        boolean isInRotation() {
+            return lagMillis != DOWN && lagMillis <= maxLagMillis();
+        }
+
+        boolean isUsable(long now, Long lastWriteMillis) {
+            long lag = lagMillis;
+            if (lag == DOWN || lag > maxLagMillis()) {
+                return false;
+            }
+            if (lastWriteMillis == null) {
+                return true;
+            }
+            // Lag is reported in whole seconds and was measured checkedAt ago, so the
+            // replica may be up to this far behind now
+            long worstLag = lag + 1000 + (now - checkedAtMillis);
+            return now - lastWriteMillis > worstLag;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.travel.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs one summary line per request in key=value form, in place of per-layer INFO lines:
+ *
+ * <pre>method=GET route=/api/v1/hotels/search status=200 duration_ms=12</pre>
+ *
+ * Only travel.logging.requests.sample-rate of the requests are logged, plus every failed
+ * (5xx) or slow one. Query strings are left out, as they can hold guest details. The route
+ * is the matched mapping pattern, so ids do not turn every line into a new value.
+ * Asynchronous requests (v2 search) are logged when they complete; exports stream on the
+ * request thread and are logged once the whole body has been written.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "travel.logging.requests", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RequestLogFilter extends OncePerRequestFilter {
+
+    private static final Logger REQUEST_LOG = LoggerFactory.getLogger("travel.requests");
+
+    private final RequestLogProperties properties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // onComplete also follows timeouts and errors
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        log(request, response, start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                log(request, response, start);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, long start) {
+        if (!REQUEST_LOG.isInfoEnabled()) {
+            return;
+        }
+        long durationNanos = System.nanoTime() - start;
+        int status = response.getStatus();
+        boolean always = status >= 500 || durationNanos >= properties.getSlowThreshold().toNanos();
+        if (!always && ThreadLocalRandom.current().nextDouble() >= properties.getSampleRate()) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        REQUEST_LOG.info("method={} route={} status={} duration_ms={}",
+                request.getMethod(), pattern != null ? pattern : request.getRequestURI(), status,
+                durationNanos / 1_000_000);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.travel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Per-request summary log settings (travel.logging.requests.*), see RequestLogFilter.
+ */
+@Data
+@ConfigurationProperties(prefix = "travel.logging.requests")
+public class RequestLogProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Share of requests logged (0-1). Failed (5xx) and slow requests are always logged.
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * Requests taking at least this long are always logged.
+     */
+    private Duration slowThreshold = Duration.ofSeconds(1);
+}
@@ -0,0 +1,113 @@
+package com.example.travel.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of cached hotel search keys per city and night, so a night selling out evicts
+ * exactly the entries whose stay covers it: no keyspace SCAN, and stays that do not
+ * include the night keep their entries.
+ *
+ * Each key a search caches ({@code city|checkIn|checkOut|...}) is added to one set per
+ * night of its stay. Redis-backed caches keep the sets in Redis
+ * ({@code search-index:cache:city|night}, expiring with the cache TTL), so any node can
+ * evict what another node cached; in-process caches keep them in memory. Sets may name
+ * keys that have already expired, which evicts nothing. Other cache types are not
+ * indexed, and {@link #evictNight} falls back to evicting the city by prefix.
+ */
+@Component
+@Slf4j
+public class SearchCacheIndex {
+
+    private static final String INDEX_PREFIX = "search-index:";
+    private static final char SEPARATOR = '|';
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheTierProperties cacheTierProperties;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Set<String>> local;
+
+    public SearchCacheIndex(StringRedisTemplate redisTemplate, CacheTierProperties cacheTierProperties) {
+        this.redisTemplate = redisTemplate;
+        this.cacheTierProperties = cacheTierProperties;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(cacheTierProperties.getTtl())
+                .build();
+    }
+
+    /**
+     * Record a key just cached for a stay. Failures only cost precision: the entry then
+     * lives until its TTL.
+     */
+    public void add(Cache cache, String key, String city, LocalDate checkIn, LocalDate checkOut) {
+        if (isRemote(cache)) {
+            byte[] member = key.getBytes(StandardCharsets.UTF_8);
+            long ttlSeconds = Math.max(1, cacheTierProperties.ttlFor(cache.getName()).toSeconds());
+            try {
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+                        byte[] indexKey = indexKey(cache.getName(), city, night).getBytes(StandardCharsets.UTF_8);
+                        connection.setCommands().sAdd(indexKey, member);
+                        connection.keyCommands().expire(indexKey, ttlSeconds);
+                    }
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                log.warn("Could not index search key {}: {}", key, e.getMessage());
+            }
+        } else if (cache instanceof ConcurrentMapCache) {
+            for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+                local.get(indexKey(cache.getName(), city, night), k -> ConcurrentHashMap.newKeySet()).add(key);
+            }
+        }
+    }
+
+    /**
+     * Evict every indexed entry of the city whose stay includes the night.
+     *
+     * @return number of keys evicted, or -1 if the cache is not indexed and the city was evicted by prefix
+     */
+    public int evictNight(Cache cache, String city, LocalDate night) {
+        String indexKey = indexKey(cache.getName(), city, night);
+        Set<String> keys;
+        if (isRemote(cache)) {
+            keys = redisTemplate.opsForSet().members(indexKey);
+            if (keys != null && !keys.isEmpty()) {
+                // Keys indexed after the read stay in the set for the next eviction
+                redisTemplate.opsForSet().remove(indexKey, keys.toArray());
+            }
+        } else if (cache instanceof ConcurrentMapCache) {
+            keys = local.asMap().remove(indexKey);
+        } else {
+            CacheEviction.evictByPrefix(cache, city + SEPARATOR);
+            return -1;
+        }
+        if (keys == null) {
+            return 0;
+        }
+        keys.forEach(cache::evict);
+        return keys.size();
+    }
+
+    /**
+     * Name of the set holding a city's keys for one night; shared with ReactiveHotelPageCache.
+     */
+    static String indexKey(String cacheName, String city, LocalDate night) {
+        return INDEX_PREFIX + cacheName + ':' + city + SEPARATOR + night;
+    }
+
+    private static boolean isRemote(Cache cache) {
+        return cache instanceof RedisCache || cache instanceof TwoTierCache;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.travel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Hotel search settings (travel.search.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "travel.search")
+public class SearchProperties {
+
+    /**
+     * Cache one price-sorted result list per city and stay and cut every page/size
+     * combination from it, instead of caching and querying each page separately.
+     */
+    private boolean shareCityResults = true;
+
+    /**
+     * Hotels kept in a shared city list. Pages reaching past it are queried and cached
+     * one by one.
+     */
+    private int sharedResultsLimit = 200;
+
+    /**
+     * How long booked nights are collected before sold-out checks and cache evictions run;
+     * bookings within one window cost one check per hotel and one eviction per city.
+     * Zero evicts inline after every commit.
+     */
+    private Duration invalidationDelay = Duration.ofMillis(200);
+
+    private Loading loading = new Loading();
+
+    private Catalogue catalogue = new Catalogue();
+
+    @Data
+    public static class Loading {
+
+        /**
+         * Let only one node at a time query a missing entry, using a short Redis lease.
+         * Within a node, concurrent misses always share one query.
+         */
+        private boolean redisLease = false;
+
+        /**
+         * How long a lease blocks other nodes; they query themselves once it runs out.
+         */
+        private Duration leaseTtl = Duration.ofSeconds(3);
+
+        /**
+         * How often nodes without the lease look for the loaded entry.
+         */
+        private Duration leasePollInterval = Duration.ofMillis(50);
+
+        /**
+         * XFetch beta for early refresh of hot entries; higher refreshes earlier, 0 disables.
+         */
+        private double earlyRefreshBeta = 1.0;
+
+        /**
+         * Background threads recomputing entries ahead of expiry.
+         */
+        private int refreshThreads = 2;
+    }
+
+    @Data
+    public static class Catalogue {
+
+        /**
+         * Answer searches from an in-process columnar copy of the hotel catalogue instead of
+         * the search caches and the database.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How often the catalogue is rebuilt from the database. Sold-out nights of bookings
+         * committed on this node are applied in between; other changes wait for a rebuild.
+         */
+        private Duration refreshInterval = Duration.ofMinutes(5);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.travel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reservation sharding settings (travel.sharding.*).
+ *
+ * Shard 0 is the primary database (spring.datasource); the nodes listed here are shards
+ * 1..N. Reservations are spread across all of them by hotel id (see
+ * ReservationShardResolver); hotels and room inventory stay on the primary.
+ */
+@Data
+@ConfigurationProperties(prefix = "travel.sharding")
+public class ShardingProperties {
+
+    /**
+     * This application node's id in reservation ids (0-63); must differ between nodes.
+     */
+    private int workerId = 0;
+
+    private List<Node> shards = new ArrayList<>();
+
+    /**
+     * Connections pooled per additional shard.
+     */
+    private int maximumPoolSize = 10;
+
+    /**
+     * Create the reservations table on additional shards at startup if it is missing.
+     */
+    private boolean initializeSchema = true;
+
+    /**
+     * How long a query across all shards may take.
+     */
+    private Duration queryTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How often reservations whose compensating DELETE failed are deleted again.
+     */
+    private Duration compensationRetryInterval = Duration.ofMinutes(1);
+
+    @Data
+    public static class Node {
+
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.travel.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache with a local Caffeine copy (L1) in front of a shared cache (L2, Redis).
+ *
+ * Reads try L1 first and fill it from L2 on a miss. Writes go to both tiers. Evictions
+ * drop both tiers and are broadcast so other nodes drop their L1 copy as well; L1 keys
+ * are the string form of the cache key, the same form Redis stores.
+ */
+public class TwoTierCache implements Cache {
+
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final CacheInvalidationBus invalidationBus;
+
+    public TwoTierCache(Cache remote,
+                        com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                        CacheInvalidationBus invalidationBus) {
+        this.remote = remote;
+        this.local = local;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            local.put(localKey, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return (T) value;
+        }
+        T loaded = remote.get(key, valueLoader);
+        if (loaded != null) {
+            local.put(localKey, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        if (value != null) {
+            local.put(localKey(key), value);
+        } else {
+            local.invalidate(localKey(key));
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        Object effective = existing != null ? existing.get() : value;
+        if (effective != null) {
+            local.put(localKey(key), effective);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        evictLocal(localKey(key));
+        invalidationBus.publishEvict(getName(), localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        evictLocal(localKey(key));
+        invalidationBus.publishEvict(getName(), localKey(key));
+        return present;
+    }
+
+    /**
+     * Evict every entry whose key starts with the prefix from both tiers, and broadcast it.
+     */
+    public void evictByPrefix(String prefix) {
+        CacheEviction.evictByPrefix(remote, prefix);
+        evictLocalByPrefix(prefix);
+        invalidationBus.publishEvictByPrefix(getName(), prefix);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        invalidationBus.publishClear(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean present = remote.invalidate();
+        clearLocal();
+        invalidationBus.publishClear(getName());
+        return present;
+    }
+
+    /**
+     * Drop the L1 copy of one entry, leaving Redis alone (invalidation from another node).
+     */
+    void evictLocal(String key) {
+        local.invalidate(key);
+    }
+
+    /**
+     * Drop the L1 copies of all entries whose key starts with the prefix, leaving Redis alone.
+     */
+    void evictLocalByPrefix(String prefix) {
+        local.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    /**
+     * Drop every L1 entry of this cache, leaving Redis alone.
+     */
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    long localSize() {
+        return local.estimatedSize();
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
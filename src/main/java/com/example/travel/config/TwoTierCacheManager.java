@@ -0,0 +1,76 @@
+package com.example.travel.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps every cache of a shared {@link CacheManager} (Redis) in a {@link TwoTierCache}
+ * with its own size- and time-bounded Caffeine copy.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private final CacheManager remote;
+    private final CacheTierProperties properties;
+    private final CacheInvalidationBus invalidationBus;
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager remote,
+                               CacheTierProperties properties,
+                               CacheInvalidationBus invalidationBus) {
+        this.remote = remote;
+        this.properties = properties;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    /**
+     * Apply invalidations published by another node: only the local copy is dropped,
+     * Redis was already updated by the sender.
+     */
+    void evictLocal(String cacheName, String key) {
+        TwoTierCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocal(key);
+        }
+    }
+
+    void evictLocalByPrefix(String cacheName, String prefix) {
+        TwoTierCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocalByPrefix(prefix);
+        }
+    }
+
+    void clearLocal(String cacheName) {
+        TwoTierCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.clearLocal();
+        }
+    }
+
+    private TwoTierCache createCache(String name) {
+        Cache shared = remote.getCache(name);
+        if (shared == null) {
+            return null;
+        }
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumSize(properties.localMaximumSizeFor(name))
+                .expireAfterWrite(properties.localTtlFor(name))
+                .build();
+        return new TwoTierCache(shared, local, invalidationBus);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.travel.controller;
+
+import com.example.travel.dto.ExportFormat;
+import com.example.travel.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * REST Controller for bulk exports.
+ * Rows are written to the response body as they are read, so an export of any size runs
+ * in constant memory. Written on the request thread rather than as an async
+ * StreamingResponseBody, so a long export is not cut off by the async request timeout.
+ *
+ * Off unless travel.export.enabled is set: the API has no authentication, and the
+ * reservation export holds every guest's name and email.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "travel.export", name = "enabled", havingValue = "true")
+@RequestMapping("/api/v1/export")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Export", description = "Bulk export of hotels and reservations")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    /**
+     * Export every hotel.
+     *
+     * @param format NDJSON (one hotel per line) or CSV
+     */
+    @Operation(
+            summary = "Export hotels",
+            description = "Stream the whole hotel catalogue as NDJSON or CSV"
+    )
+    @ApiResponse(responseCode = "200", description = "Export streamed successfully")
+    @GetMapping("/hotels")
+    public void exportHotels(
+            @Parameter(description = "Output format")
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response
+    ) throws IOException {
+        log.debug("Received hotel export request: format={}", format);
+        prepare(response, format, "hotels");
+        exportService.exportHotels(format, response.getOutputStream());
+    }
+
+    /**
+     * Export every reservation.
+     *
+     * @param format NDJSON (one reservation per line) or CSV
+     */
+    @Operation(
+            summary = "Export reservations",
+            description = "Stream all reservations as NDJSON or CSV"
+    )
+    @ApiResponse(responseCode = "200", description = "Export streamed successfully")
+    @GetMapping("/reservations")
+    public void exportReservations(
+            @Parameter(description = "Output format")
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response
+    ) throws IOException {
+        log.debug("Received reservation export request: format={}", format);
+        prepare(response, format, "reservations");
+        exportService.exportReservations(format, response.getOutputStream());
+    }
+
+    private static void prepare(HttpServletResponse response, ExportFormat format, String name) {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(name + "." + format.getExtension())
+                .build()
+                .toString());
+    }
+}
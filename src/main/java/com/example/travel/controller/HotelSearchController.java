@@ -2,6 +2,8 @@ package com.example.travel.controller;
 
 import com.example.travel.dto.HotelResponse;
 import com.example.travel.dto.HotelSearchRequest;
+import com.example.travel.dto.HotelSearchSlice;
+import com.example.travel.dto.HotelSearchSort;
 import com.example.travel.service.HotelSearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,15 +13,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 /**
@@ -29,7 +34,6 @@ import java.time.LocalDate;
 @RestController
 @RequestMapping("/api/v1/hotels")
 @RequiredArgsConstructor
-@Slf4j
 @Validated
 @Tag(name = "Hotel Search", description = "APIs for searching hotels")
 public class HotelSearchController {
@@ -46,6 +50,11 @@ public class HotelSearchController {
      * @param guests   Number of guests (required, min=1)
      * @param page     Page number (default=0)
      * @param size     Page size (default=20)
+     * @param compact   Leave out hotel descriptions (default=false)
+     * @param minPrice  Lowest price per night (optional)
+     * @param maxPrice  Highest price per night (optional)
+     * @param minRating Lowest rating (optional)
+     * @param sort      Result order (default=PRICE_ASC)
      * @return Paginated list of hotels
      */
     @Operation(
@@ -78,11 +87,23 @@ public class HotelSearchController {
             @RequestParam(defaultValue = "0") @Min(0) int page,
 
             @Parameter(description = "Page size")
-            @RequestParam(defaultValue = "20") @Min(1) int size
-    ) {
-        log.info("Received hotel search request: city={}, checkIn={}, checkOut={}, guests={}, page={}, size={}",
-                city, checkIn, checkOut, guests, page, size);
+            @RequestParam(defaultValue = "20") @Min(1) int size,
+
+            @Parameter(description = "Leave out hotel descriptions")
+            @RequestParam(defaultValue = "false") boolean compact,
+
+            @Parameter(description = "Lowest price per night")
+            @RequestParam(required = false) @DecimalMin("0") BigDecimal minPrice,
 
+            @Parameter(description = "Highest price per night")
+            @RequestParam(required = false) @DecimalMin("0") BigDecimal maxPrice,
+
+            @Parameter(description = "Lowest rating (0-5)")
+            @RequestParam(required = false) @DecimalMin("0") @DecimalMax("5") Double minRating,
+
+            @Parameter(description = "Result order")
+            @RequestParam(defaultValue = "PRICE_ASC") HotelSearchSort sort
+    ) {
         HotelSearchRequest request = HotelSearchRequest.builder()
                 .city(city)
                 .checkIn(checkIn)
@@ -90,12 +111,86 @@ public class HotelSearchController {
                 .guests(guests)
                 .page(page)
                 .size(size)
+                .compact(compact)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .minRating(minRating)
+                .sort(sort)
                 .build();
 
-        Page<HotelResponse> results = hotelSearchService.searchHotels(request);
+        return ResponseEntity.ok(hotelSearchService.searchHotels(request));
+    }
+
+    /**
+     * Search hotels by city and date range with cursor (keyset) pagination.
+     * Every slice costs the same no matter how deep; no total count is computed unless
+     * includeTotal is set, and then it comes from a cache.
+     *
+     * @param cursor       nextCursor from the previous slice; omit for the first slice
+     * @param includeTotal also return an approximate total (default=false)
+     * @param compact      leave out hotel descriptions (default=false)
+     * @param minPrice     lowest price per night (optional)
+     * @param maxPrice     highest price per night (optional)
+     * @param minRating    lowest rating (optional)
+     * @return one slice of hotels, cheapest first
+     */
+    @Operation(
+            summary = "Search hotels with a cursor",
+            description = "Keyset-paginated variant of the hotel search. Pass nextCursor from the previous response to continue."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Hotels found successfully",
+                    content = @Content(schema = @Schema(implementation = HotelSearchSlice.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request parameters or cursor",
+                    content = @Content)
+    })
+    @GetMapping("/search/cursor")
+    public ResponseEntity<HotelSearchSlice> searchHotelsByCursor(
+            @Parameter(description = "City name", required = true)
+            @RequestParam String city,
+
+            @Parameter(description = "Check-in date (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+
+            @Parameter(description = "Check-out date (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+
+            @Parameter(description = "Number of guests", required = true)
+            @RequestParam @Min(1) Integer guests,
+
+            @Parameter(description = "Slice size")
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+
+            @Parameter(description = "Continuation token from the previous slice")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Include an approximate total count")
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+
+            @Parameter(description = "Leave out hotel descriptions")
+            @RequestParam(defaultValue = "false") boolean compact,
 
-        log.info("Returning {} hotels for city: {}", results.getTotalElements(), city);
+            @Parameter(description = "Lowest price per night")
+            @RequestParam(required = false) @DecimalMin("0") BigDecimal minPrice,
+
+            @Parameter(description = "Highest price per night")
+            @RequestParam(required = false) @DecimalMin("0") BigDecimal maxPrice,
+
+            @Parameter(description = "Lowest rating (0-5)")
+            @RequestParam(required = false) @DecimalMin("0") @DecimalMax("5") Double minRating
+    ) {
+        HotelSearchRequest request = HotelSearchRequest.builder()
+                .city(city)
+                .checkIn(checkIn)
+                .checkOut(checkOut)
+                .guests(guests)
+                .size(size)
+                .compact(compact)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .minRating(minRating)
+                .build();
 
-        return ResponseEntity.ok(results);
+        return ResponseEntity.ok(hotelSearchService.searchHotelsByCursor(request, cursor, includeTotal));
     }
 }
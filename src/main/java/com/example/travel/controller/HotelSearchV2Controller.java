@@ -0,0 +1,117 @@
+package com.example.travel.controller;
+
+import com.example.travel.dto.HotelResponse;
+import com.example.travel.dto.HotelSearchRequest;
+import com.example.travel.dto.HotelSearchSort;
+import com.example.travel.service.ReactiveHotelSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * REST Controller for the non-blocking hotel search.
+ * Returns the hotels themselves instead of a Page: a JSON array, or one hotel per line
+ * (NDJSON) written as each arrives when the client accepts application/x-ndjson.
+ * No business logic here - delegates to service layer.
+ */
+@RestController
+@RequestMapping("/api/v2/hotels")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Hotel Search v2", description = "Non-blocking hotel search")
+public class HotelSearchV2Controller {
+
+    private final ReactiveHotelSearchService reactiveHotelSearchService;
+
+    /**
+     * Search hotels by city and date range without blocking on MySQL or Redis.
+     * Takes the same parameters as /api/v1/hotels/search.
+     *
+     * @return the hotels of the requested page, in the requested order
+     */
+    @Operation(
+            summary = "Search hotels (streaming)",
+            description = "Non-blocking variant of the hotel search. Accept application/x-ndjson to receive " +
+                    "one hotel per line as results arrive."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Hotels found successfully",
+                    content = {
+                            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    array = @ArraySchema(schema = @Schema(implementation = HotelResponse.class))),
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = HotelResponse.class))
+                    }),
+            @ApiResponse(responseCode = "400", description = "Invalid request parameters",
+                    content = @Content)
+    })
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<HotelResponse> searchHotels(
+            @Parameter(description = "City name", required = true)
+            @RequestParam String city,
+
+            @Parameter(description = "Check-in date (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+
+            @Parameter(description = "Check-out date (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+
+            @Parameter(description = "Number of guests", required = true)
+            @RequestParam @Min(1) Integer guests,
+
+            @Parameter(description = "Page number (0-based)")
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+
+            @Parameter(description = "Page size")
+            @RequestParam(defaultValue = "20") @Min(1) @Max(500) int size,
+
+            @Parameter(description = "Leave out hotel descriptions")
+            @RequestParam(defaultValue = "false") boolean compact,
+
+            @Parameter(description = "Lowest price per night")
+            @RequestParam(required = false) @DecimalMin("0") BigDecimal minPrice,
+
+            @Parameter(description = "Highest price per night")
+            @RequestParam(required = false) @DecimalMin("0") BigDecimal maxPrice,
+
+            @Parameter(description = "Lowest rating (0-5)")
+            @RequestParam(required = false) @DecimalMin("0") @DecimalMax("5") Double minRating,
+
+            @Parameter(description = "Result order")
+            @RequestParam(defaultValue = "PRICE_ASC") HotelSearchSort sort
+    ) {
+        HotelSearchRequest request = HotelSearchRequest.builder()
+                .city(city)
+                .checkIn(checkIn)
+                .checkOut(checkOut)
+                .guests(guests)
+                .page(page)
+                .size(size)
+                .compact(compact)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .minRating(minRating)
+                .sort(sort)
+                .build();
+
+        return reactiveHotelSearchService.searchHotels(request);
+    }
+}
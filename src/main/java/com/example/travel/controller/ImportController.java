@@ -0,0 +1,79 @@
+package com.example.travel.controller;
+
+import com.example.travel.dto.HotelImportRequest;
+import com.example.travel.dto.HotelImportStatus;
+import com.example.travel.service.HotelImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for hotel catalogue imports.
+ * Imports run in the background; the returned status is polled for progress.
+ */
+@RestController
+@RequestMapping("/api/v1/import/hotels")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Import", description = "Bulk import of hotel feeds")
+public class ImportController {
+
+    private final HotelImportService hotelImportService;
+
+    /**
+     * Start importing a feed file from the import directory.
+     *
+     * @param request File name and format
+     * @return Status of the started import
+     */
+    @Operation(
+            summary = "Import a hotel feed",
+            description = "Upsert the hotels of an NDJSON or CSV file from the server's import directory, " +
+                    "matching existing hotels by id or supplierRef. Runs in the background."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import started",
+                    content = @Content(schema = @Schema(implementation = HotelImportStatus.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown file, or another import is running",
+                    content = @Content)
+    })
+    @PostMapping
+    public ResponseEntity<HotelImportStatus> startImport(@Valid @RequestBody HotelImportRequest request) {
+        log.info("Received hotel import request: file={}, format={}", request.getFile(), request.getFormat());
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(hotelImportService.startImport(request));
+    }
+
+    /**
+     * Progress of an import.
+     *
+     * @param id Import id
+     * @return Counters so far, and the outcome once finished
+     */
+    @Operation(
+            summary = "Get import status",
+            description = "Rows read, imported and rejected so far, with the reasons for rejected rows"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import found",
+                    content = @Content(schema = @Schema(implementation = HotelImportStatus.class))),
+            @ApiResponse(responseCode = "404", description = "Import not found",
+                    content = @Content)
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<HotelImportStatus> getStatus(
+            @Parameter(description = "Import id") @PathVariable String id
+    ) {
+        return ResponseEntity.ok(hotelImportService.getStatus(id));
+    }
+}
@@ -1,19 +1,23 @@
 package com.example.travel.controller;
 
+import com.example.travel.dto.BatchReservationRequest;
+import com.example.travel.dto.BatchReservationResponse;
 import com.example.travel.dto.ReservationRequest;
 import com.example.travel.dto.ReservationResponse;
 import com.example.travel.service.ReservationService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -23,7 +27,7 @@ import org.springframework.web.bind.annotation.*;
 @RestController
 @RequestMapping("/api/v1/reservations")
 @RequiredArgsConstructor
-@Slf4j
+@Validated
 @Tag(name = "Reservations", description = "APIs for managing hotel reservations")
 public class ReservationController {
 
@@ -32,13 +36,16 @@ public class ReservationController {
     /**
      * Create a new hotel reservation.
      * Validates input and ensures hotel availability.
+     * Retries carrying the same Idempotency-Key get the original reservation back.
      *
-     * @param request Reservation details
+     * @param request        Reservation details
+     * @param idempotencyKey Optional client-chosen key identifying this booking attempt
      * @return Created reservation with ID
      */
     @Operation(
             summary = "Create a reservation",
-            description = "Create a new hotel reservation with guest details and dates"
+            description = "Create a new hotel reservation with guest details and dates. Send an Idempotency-Key " +
+                    "header to make retries safe: a repeated key returns the original reservation."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Reservation created successfully",
@@ -47,20 +54,67 @@ public class ReservationController {
                     content = @Content),
             @ApiResponse(responseCode = "404", description = "Hotel not found",
                     content = @Content),
+            @ApiResponse(responseCode = "409", description = "A request with this Idempotency-Key is still being processed",
+                    content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content)
     })
     @PostMapping
     public ResponseEntity<ReservationResponse> createReservation(
-            @Valid @RequestBody ReservationRequest request
+            @Valid @RequestBody ReservationRequest request,
+            @Parameter(description = "Unique key per booking attempt, reused on retries (max 255 characters)")
+            @RequestHeader(value = "Idempotency-Key", required = false) @Size(max = 255) String idempotencyKey
     ) {
-        log.info("Received reservation request: hotelId={}, guestName={}, checkIn={}, checkOut={}",
-                request.getHotelId(), request.getGuestName(), request.getCheckIn(), request.getCheckOut());
+        ReservationResponse response = reservationService.createReservation(request, idempotencyKey);
 
-        ReservationResponse response = reservationService.createReservation(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
 
-        log.info("Reservation created successfully with id: {}", response.getId());
+    /**
+     * Create many reservations in one call (group and OTA bulk bookings).
+     * Every item gets its own result; one sold-out hotel does not fail the batch.
+     *
+     * @param request Reservation items (max 100)
+     * @return Per-item results in request order
+     */
+    @Operation(
+            summary = "Create reservations in bulk",
+            description = "Create up to 100 reservations in one call. Items are accepted or rejected individually " +
+                    "and accepted items are written with batched inserts."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results",
+                    content = @Content(schema = @Schema(implementation = BatchReservationResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request data",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<BatchReservationResponse> createReservations(
+            @Valid @RequestBody BatchReservationRequest request
+    ) {
+        return ResponseEntity.ok(reservationService.createReservations(request.getReservations()));
+    }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    /**
+     * Get a reservation by id.
+     *
+     * @param id Reservation ID
+     * @return Reservation details
+     */
+    @Operation(summary = "Get a reservation", description = "Get one reservation by its id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservation found",
+                    content = @Content(schema = @Schema(implementation = ReservationResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Reservation not found",
+                    content = @Content)
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<ReservationResponse> getReservation(
+            @Parameter(description = "Reservation ID", required = true)
+            @PathVariable Long id
+    ) {
+        return ResponseEntity.ok(reservationService.getReservation(id));
     }
 }
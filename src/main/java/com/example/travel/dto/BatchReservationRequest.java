@@ -0,0 +1,27 @@
+package com.example.travel.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for creating several reservations in one call (group and OTA bulk bookings).
+ * Every item is validated like a single ReservationRequest.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchReservationRequest {
+
+    @NotEmpty(message = "At least one reservation is required")
+    @Size(max = 100, message = "Maximum 100 reservations per batch")
+    @Valid
+    private List<ReservationRequest> reservations;
+}
@@ -0,0 +1,22 @@
+package com.example.travel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for a batch reservation, one result per requested item.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchReservationResponse {
+
+    private int created;
+    private int rejected;
+    private List<BatchReservationResult> results;
+}
@@ -0,0 +1,27 @@
+package com.example.travel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item in a batch reservation, in request order.
+ * Exactly one of reservation or error is set.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchReservationResult {
+
+    private int index;
+    private Status status;
+    private ReservationResponse reservation;
+    private String error;
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.travel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One hotel in a catalogue export or import: the stored columns, without search-only
+ * derivations. An import matches existing hotels by id or supplierRef.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotelExportRow {
+
+    private Long id;
+    private String supplierRef;
+    private String name;
+    private String city;
+    private BigDecimal pricePerNight;
+    private Double rating;
+    private String description;
+    private Integer totalRooms;
+    private Integer availableRooms;
+    private Integer maxOccupancy;
+}
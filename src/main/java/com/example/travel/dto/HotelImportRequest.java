@@ -0,0 +1,31 @@
+package com.example.travel.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request to import a hotel feed file from the import directory.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotelImportRequest {
+
+    /**
+     * File name, relative to travel.import.directory.
+     */
+    @NotBlank(message = "File is required")
+    private String file;
+
+    /**
+     * Same columns as the hotel export, so an export can be imported as is.
+     */
+    @NotNull(message = "Format is required")
+    @Builder.Default
+    private ExportFormat format = ExportFormat.NDJSON;
+}
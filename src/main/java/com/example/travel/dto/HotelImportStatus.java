@@ -0,0 +1,44 @@
+package com.example.travel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of a hotel catalogue import, as of the moment it was taken.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotelImportStatus {
+
+    private String id;
+    private String file;
+    private ExportFormat format;
+    private State state;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long bytesRead;
+    private long totalBytes;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    private int citiesInvalidated;
+
+    /**
+     * Why rows were rejected ("line 12: ..."), up to travel.import.max-reported-errors,
+     * or why the import failed.
+     */
+    private List<String> errors;
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -10,7 +10,8 @@ import java.math.BigDecimal;
 
 /**
  * Response DTO for hotel information.
- * Never exposes entity directly to API consumers.
+ * Never exposes entity directly to API consumers. Search queries select straight into
+ * it (JPQL constructor expressions), so no Hotel entities are loaded for searches.
  */
 @Data
 @NoArgsConstructor
@@ -25,4 +26,13 @@ public class HotelResponse implements Serializable {
     private Double rating;
     private String description;
     private Integer availableRooms;
+    private Integer maxOccupancy;
+
+    /**
+     * Compact form without a description.
+     */
+    public HotelResponse(Long id, String name, String city, BigDecimal pricePerNight,
+                         Double rating, Integer availableRooms, Integer maxOccupancy) {
+        this(id, name, city, pricePerNight, rating, null, availableRooms, maxOccupancy);
+    }
 }
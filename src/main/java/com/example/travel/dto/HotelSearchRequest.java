@@ -1,5 +1,7 @@
 package com.example.travel.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -9,6 +11,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 /**
@@ -39,4 +42,24 @@ public class HotelSearchRequest implements Serializable {
 
     @Min(value = 1, message = "Page size must be at least 1")
     private int size = 20;
+
+    /**
+     * Leave out hotel descriptions; compact results are queried and cached separately.
+     */
+    private boolean compact;
+
+    @DecimalMin(value = "0", message = "Minimum price must be non-negative")
+    private BigDecimal minPrice;
+
+    @DecimalMin(value = "0", message = "Maximum price must be non-negative")
+    private BigDecimal maxPrice;
+
+    @DecimalMin(value = "0", message = "Minimum rating must be between 0 and 5")
+    @DecimalMax(value = "5", message = "Minimum rating must be between 0 and 5")
+    private Double minRating;
+
+    /**
+     * Result order; null means PRICE_ASC. Cursor searches are always PRICE_ASC.
+     */
+    private HotelSearchSort sort;
 }
@@ -0,0 +1,30 @@
+package com.example.travel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One slice of a cursor-paginated hotel search.
+ * Pass nextCursor back to get the following slice; it is null on the last one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotelSearchSlice {
+
+    private List<HotelResponse> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    /**
+     * Total hotels for the search, from a cached count; only set when requested and may
+     * lag behind recent bookings.
+     */
+    private Long approximateTotal;
+}
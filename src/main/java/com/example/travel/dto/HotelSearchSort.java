@@ -0,0 +1,51 @@
+package com.example.travel.dto;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+
+/**
+ * Result orders offered by hotel search. Every order ends in a unique tie-break, so pages
+ * cut from an in-memory list match the pages the database returns.
+ */
+public enum HotelSearchSort {
+
+    /**
+     * Cheapest first, ties by id.
+     */
+    PRICE_ASC(Sort.by(Sort.Order.asc("pricePerNight"), Sort.Order.asc("id")),
+            Comparator.comparing(HotelResponse::getPricePerNight)
+                    .thenComparing(HotelResponse::getId)),
+
+    /**
+     * Most expensive first, ties by id descending (PRICE_ASC reversed).
+     */
+    PRICE_DESC(Sort.by(Sort.Order.desc("pricePerNight"), Sort.Order.desc("id")),
+            Comparator.comparing(HotelResponse::getPricePerNight)
+                    .thenComparing(HotelResponse::getId)
+                    .reversed()),
+
+    /**
+     * Best rated first, then cheapest, then by id.
+     */
+    RATING_DESC(Sort.by(Sort.Order.desc("rating"), Sort.Order.asc("pricePerNight"), Sort.Order.asc("id")),
+            Comparator.comparing(HotelResponse::getRating, Comparator.reverseOrder())
+                    .thenComparing(HotelResponse::getPricePerNight)
+                    .thenComparing(HotelResponse::getId));
+
+    private final Sort sort;
+    private final Comparator<HotelResponse> comparator;
+
+    HotelSearchSort(Sort sort, Comparator<HotelResponse> comparator) {
+        this.sort = sort;
+        this.comparator = comparator;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public Comparator<HotelResponse> getComparator() {
+        return comparator;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.travel.dto;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,6 +18,11 @@ import java.time.LocalDateTime;
 @Builder
 public class ReservationResponse {
 
+    /**
+     * Snowflake id (see SnowflakeIdGenerator), written to JSON as a string: ids are above
+     * 2^53, which JavaScript numbers cannot hold exactly. Numbers are still accepted on read.
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
     private Long id;
     private Long hotelId;
     private String guestName;
@@ -0,0 +1,55 @@
+package com.example.travel.entity;
+
+import java.util.Locale;
+
+/**
+ * Canonical form of a city name, stored in hotels.city_key and used for search lookups
+ * and cache keys.
+ *
+ * Cities are trimmed, inner whitespace runs collapsed to one space and lower-cased, so
+ * "Tokyo", " tokyo " and "TOKYO" compare equal with a plain index lookup.
+ */
+public final class CityKey {
+
+    private CityKey() {
+    }
+
+    /**
+     * Normalize a city name; returns the argument itself when it already is canonical.
+     */
+    public static String of(String city) {
+        if (city == null || isCanonical(city)) {
+            return city;
+        }
+        StringBuilder normalized = new StringBuilder(city.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < city.length(); i++) {
+            char c = city.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = normalized.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                normalized.append(' ');
+                pendingSpace = false;
+            }
+            normalized.append(c);
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isCanonical(String city) {
+        char previous = ' ';
+        for (int i = 0; i < city.length(); i++) {
+            char c = city.charAt(i);
+            if (Character.isWhitespace(c) && (c != ' ' || previous == ' ')) {
+                return false;
+            }
+            if (Character.isUpperCase(c) || c > 0x7F) {
+                return false;
+            }
+            previous = c;
+        }
+        return previous != ' ' || city.isEmpty();
+    }
+}
@@ -14,8 +14,11 @@ import java.math.BigDecimal;
  */
 @Entity
 @Table(name = "hotels", indexes = {
-    @Index(name = "idx_city", columnList = "city"),
+    @Index(name = "idx_city_key_price", columnList = "city_key, price_per_night, id, available_rooms"),
+    @Index(name = "idx_city_key_rating", columnList = "city_key, rating DESC, price_per_night, id, available_rooms"),
     @Index(name = "idx_price", columnList = "price_per_night")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_supplier_ref", columnNames = "supplier_ref")
 })
 @Data
 @NoArgsConstructor
@@ -27,12 +30,29 @@ public class Hotel {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * The supplier's own reference for the hotel; catalogue imports upsert by it.
+     * Null for hotels not loaded from a supplier feed.
+     */
+    @Column(name = "supplier_ref", length = 100)
+    private String supplierRef;
+
     @Column(nullable = false, length = 200)
     private String name;
 
     @Column(nullable = false, length = 100)
     private String city;
 
+    /**
+     * Normalized city (see CityKey), kept in sync with city on every write. Searches
+     * compare it directly, so they read idx_city_key_price instead of scanning for
+     * LOWER(city): the city is an equality prefix, rows come back in (price, id) order
+     * for paging and keyset seeks, and available_rooms is filtered from the index.
+     * idx_city_key_rating does the same for RATING_DESC, so that order needs no filesort.
+     */
+    @Column(name = "city_key", nullable = false, length = 100)
+    private String cityKey;
+
     @Column(name = "price_per_night", nullable = false, precision = 10, scale = 2)
     private BigDecimal pricePerNight;
 
@@ -45,6 +65,22 @@ public class Hotel {
     @Column(name = "total_rooms")
     private Integer totalRooms;
 
+    /**
+     * Rooms offered for sale on each night (0 = stop-sell).
+     * Per-night remaining stock lives in RoomInventory.
+     */
     @Column(name = "available_rooms")
     private Integer availableRooms;
+
+    /**
+     * Most guests one room sleeps; null when not recorded (never filtered out).
+     */
+    @Column(name = "max_occupancy")
+    private Integer maxOccupancy;
+
+    @PrePersist
+    @PreUpdate
+    void normalizeCity() {
+        cityKey = CityKey.of(city);
+    }
 }
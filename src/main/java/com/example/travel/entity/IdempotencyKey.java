@@ -0,0 +1,55 @@
+package com.example.travel.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A client's Idempotency-Key for a reservation request.
+ * The row is claimed before booking (response still null) and completed with the
+ * reservation's JSON response afterwards. The primary key makes the claim unique
+ * across nodes. Always stored on the primary, whatever shard the reservation is on.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKey {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    /**
+     * SHA-256 of the request, so a key reused for a different request is detected.
+     */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    /**
+     * Id the request is booked under, recorded before booking.
+     */
+    @Column(name = "reservation_id")
+    private Long reservationId;
+
+    /**
+     * ReservationResponse as JSON; null while the booking is in progress.
+     */
+    @Column(length = 2000)
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -12,11 +12,13 @@ import java.time.LocalDateTime;
 /**
  * Reservation entity with optimistic locking for concurrency control.
  * Prevents double-booking scenarios in high-traffic environments.
+ * Written and read through ShardedReservationRepository.
  */
 @Entity
 @Table(name = "reservations", indexes = {
     @Index(name = "idx_hotel_id", columnList = "hotel_id"),
-    @Index(name = "idx_check_in_out", columnList = "check_in, check_out")
+    @Index(name = "idx_check_in_out", columnList = "check_in, check_out"),
+    @Index(name = "idx_guest_email", columnList = "guest_email")
 })
 @Data
 @NoArgsConstructor
@@ -24,8 +26,11 @@ import java.time.LocalDateTime;
 @Builder
 public class Reservation {
 
+    /**
+     * Snowflake id assigned by ShardedReservationRepository; it names the shard the
+     * reservation is stored on.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @Column(name = "hotel_id", nullable = false)
@@ -55,9 +60,4 @@ public class Reservation {
      */
     @Version
     private Long version;
-
-    @PrePersist
-    protected void onCreate() {
-        createdAt = LocalDateTime.now();
-    }
 }
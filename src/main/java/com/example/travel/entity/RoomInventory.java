@@ -0,0 +1,39 @@
+package com.example.travel.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Per-night room inventory for a hotel.
+ * One compact row per hotel per night, keyed by (hotel_id, stay_date) so that
+ * all nights of a stay sit next to each other in the clustered index.
+ *
+ * Rows are created lazily on the first booking for a night and seeded from
+ * Hotel.availableRooms (the per-night allotment). A missing row therefore means
+ * the full allotment is still free for that night.
+ */
+@Entity
+@Table(name = "room_inventory")
+@IdClass(RoomInventoryId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomInventory {
+
+    @Id
+    @Column(name = "hotel_id")
+    private Long hotelId;
+
+    @Id
+    @Column(name = "stay_date")
+    private LocalDate stayDate;
+
+    @Column(name = "available_rooms", nullable = false)
+    private Integer availableRooms;
+}
@@ -0,0 +1,20 @@
+package com.example.travel.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Composite primary key for RoomInventory (hotel + night).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomInventoryId implements Serializable {
+
+    private Long hotelId;
+    private LocalDate stayDate;
+}
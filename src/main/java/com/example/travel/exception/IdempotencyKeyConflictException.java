@@ -0,0 +1,12 @@
+package com.example.travel.exception;
+
+/**
+ * A request carries an Idempotency-Key whose first request is still being processed.
+ * Mapped to 409 Conflict; the client retries later and then gets the original response.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    public IdempotencyKeyConflictException() {
+        super("A request with this Idempotency-Key is still being processed");
+    }
+}
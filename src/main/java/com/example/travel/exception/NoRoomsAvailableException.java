@@ -0,0 +1,12 @@
+package com.example.travel.exception;
+
+/**
+ * Custom exception for bookings rejected because a night of the stay is sold out.
+ * Handled as a bad request like other IllegalArgumentExceptions.
+ */
+public class NoRoomsAvailableException extends IllegalArgumentException {
+
+    public NoRoomsAvailableException() {
+        super("No rooms available at this hotel");
+    }
+}
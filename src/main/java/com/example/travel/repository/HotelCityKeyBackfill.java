@@ -0,0 +1,62 @@
+package com.example.travel.repository;
+
+import com.example.travel.entity.CityKey;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills hotels.city_key for rows written before the column existed.
+ *
+ * When ddl-auto adds the NOT NULL column to an existing MySQL table, the existing rows
+ * get '' rather than NULL, and none of them would match a search. At startup, after
+ * Hibernate has updated the schema, every row whose key is empty or NULL gets
+ * CityKey.of(city), the same value the entity writes. Rows are read in id order, a
+ * thousand at a time; on an up-to-date table this is a single empty index read.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class HotelCityKeyBackfill {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String SELECT_MISSING = "SELECT id, city FROM hotels " +
+            "WHERE (city_key IS NULL OR city_key = '') AND id > ? ORDER BY id LIMIT " + BATCH_SIZE;
+
+    private static final String UPDATE = "UPDATE hotels SET city_key = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void start() {
+        int updated = backfill();
+        if (updated > 0) {
+            log.info("Backfilled city_key of {} hotels", updated);
+        }
+    }
+
+    /**
+     * @return number of hotels whose city_key was set
+     */
+    int backfill() {
+        int updated = 0;
+        long afterId = 0;
+        while (true) {
+            List<Object[]> batch = jdbcTemplate.query(SELECT_MISSING,
+                    (rs, rowNum) -> new Object[]{CityKey.of(rs.getString("city")), rs.getLong("id")}, afterId);
+            if (batch.isEmpty()) {
+                return updated;
+            }
+            jdbcTemplate.batchUpdate(UPDATE, batch);
+            updated += batch.size();
+            afterId = (Long) batch.get(batch.size() - 1)[1];
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.travel.repository;
+
+import com.example.travel.dto.HotelExportRow;
+import com.example.travel.entity.CityKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Batched hotel upserts for catalogue imports, over plain JDBC.
+ *
+ * One INSERT ... ON DUPLICATE KEY UPDATE per row, sent as a JDBC batch, which the MySQL
+ * driver rewrites into multi-row statements (rewriteBatchedStatements=true). Rows match
+ * existing hotels on the primary key or on uk_supplier_ref; rows without an id get a
+ * generated one. Going through JPA would load and dirty-check an entity per row.
+ *
+ * Optional columns a feed leaves empty (supplier_ref, description, total_rooms,
+ * available_rooms, max_occupancy) keep the stored value instead of being overwritten with
+ * NULL. On MySQL the new row is referenced through a row alias (8.0.19+), as VALUES() in
+ * ON DUPLICATE KEY UPDATE is deprecated; other databases (H2 in tests) get the VALUES()
+ * form.
+ *
+ * A changed available_rooms is the allotment of nights nobody has booked yet. Nights that
+ * already have a room_inventory row, and in-memory counters already loaded for them
+ * (InMemoryInventory), keep their remaining count; adjust those by hand when an allotment
+ * shrinks below what was sold.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HotelImportRepository {
+
+    private static final String INSERT = "INSERT INTO hotels (id, supplier_ref, name, city, city_key, " +
+            "price_per_night, rating, description, total_rooms, available_rooms, max_occupancy) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final List<String> REQUIRED_COLUMNS =
+            List.of("name", "city", "city_key", "price_per_night", "rating");
+
+    private static final List<String> OPTIONAL_COLUMNS =
+            List.of("supplier_ref", "description", "total_rooms", "available_rooms", "max_occupancy");
+
+    private static final String MYSQL_UPSERT = INSERT + " AS new ON DUPLICATE KEY UPDATE " + updates(column -> "new." + column);
+
+    private static final String PORTABLE_UPSERT = INSERT + " ON DUPLICATE KEY UPDATE " + updates(column -> "VALUES(" + column + ")");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile String upsertSql;
+
+    /**
+     * Insert new hotels and overwrite existing ones, in one transaction and one JDBC batch.
+     *
+     * @return the city keys the overwritten hotels had before, so an import that moves a
+     * hotel to another city can invalidate the city it left
+     */
+    @Transactional
+    public List<String> upsert(List<HotelExportRow> rows) {
+        List<String> previousCityKeys = findCityKeys(rows);
+        jdbcTemplate.getJdbcTemplate().batchUpdate(upsertSql(), rows, rows.size(), HotelImportRepository::bind);
+        return previousCityKeys;
+    }
+
+    private String upsertSql() {
+        String sql = upsertSql;
+        if (sql == null) {
+            String product = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            sql = "MySQL".equalsIgnoreCase(product) ? MYSQL_UPSERT : PORTABLE_UPSERT;
+            upsertSql = sql;
+        }
+        return sql;
+    }
+
+    /**
+     * SET list of the upsert: required columns take the new value, optional ones only when
+     * the new value is not NULL.
+     */
+    private static String updates(Function<String, String> newValue) {
+        Stream<String> required = REQUIRED_COLUMNS.stream()
+                .map(column -> column + " = " + newValue.apply(column));
+        Stream<String> optional = OPTIONAL_COLUMNS.stream()
+                .map(column -> column + " = COALESCE(" + newValue.apply(column) + ", " + column + ")");
+        return Stream.concat(required, optional).collect(Collectors.joining(", "));
+    }
+
+    private List<String> findCityKeys(List<HotelExportRow> rows) {
+        List<Long> ids = rows.stream().map(HotelExportRow::getId).filter(Objects::nonNull).toList();
+        List<String> refs = rows.stream().map(HotelExportRow::getSupplierRef).filter(Objects::nonNull).toList();
+        List<String> conditions = new ArrayList<>(2);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (!ids.isEmpty()) {
+            conditions.add("id IN (:ids)");
+            params.addValue("ids", ids);
+        }
+        if (!refs.isEmpty()) {
+            conditions.add("supplier_ref IN (:refs)");
+            params.addValue("refs", refs);
+        }
+        if (conditions.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList("SELECT DISTINCT city_key FROM hotels WHERE " +
+                String.join(" OR ", conditions), params, String.class);
+    }
+
+    private static void bind(PreparedStatement statement, HotelExportRow row) throws SQLException {
+        statement.setObject(1, row.getId(), Types.BIGINT);
+        statement.setString(2, row.getSupplierRef());
+        statement.setString(3, row.getName());
+        statement.setString(4, row.getCity());
+        statement.setString(5, CityKey.of(row.getCity()));
+        statement.setBigDecimal(6, row.getPricePerNight());
+        statement.setDouble(7, row.getRating());
+        statement.setString(8, row.getDescription());
+        statement.setObject(9, row.getTotalRooms(), Types.INTEGER);
+        statement.setObject(10, row.getAvailableRooms(), Types.INTEGER);
+        statement.setObject(11, row.getMaxOccupancy(), Types.INTEGER);
+    }
+}
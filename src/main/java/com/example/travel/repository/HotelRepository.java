@@ -1,31 +1,56 @@
 package com.example.travel.repository;
 
+import com.example.travel.dto.HotelExportRow;
 import com.example.travel.entity.Hotel;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
+
 /**
  * Repository interface for Hotel entity.
  * Uses Spring Data JPA for database operations.
+ *
+ * Search queries (HotelSearchQueries) select columns straight into HotelResponse instead
+ * of loading Hotel entities: nothing enters the persistence context, no dirty-checking
+ * snapshots are kept, and the compact variants never read the description column.
  */
 @Repository
-public interface HotelRepository extends JpaRepository<Hotel, Long> {
+public interface HotelRepository extends JpaRepository<Hotel, Long>, HotelSearchQueries {
+
+    /**
+     * Rows fetched per round trip by streaming queries. With useCursorFetch=true on the
+     * MySQL URL this reads through a server-side cursor instead of buffering the result.
+     */
+    String STREAM_FETCH_SIZE = "1000";
+
+    /**
+     * Every hotel by id, read forward-only in fetch-size chunks for bulk export. Rows are
+     * projected into DTOs, so the persistence context stays empty however many are read.
+     * Must be consumed, and closed, inside a transaction.
+     */
+    @Query("SELECT new com.example.travel.dto.HotelExportRow(h.id, h.supplierRef, h.name, h.city, h.pricePerNight, h.rating, " +
+            "h.description, h.totalRooms, h.availableRooms, h.maxOccupancy) FROM Hotel h ORDER BY h.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<HotelExportRow> streamAllForExport();
 
     /**
-     * Find hotels by city with pagination.
-     * Query is optimized for high-traffic read operations.
-     *
-     * @param city     the city to search in
-     * @param pageable pagination information
-     * @return paginated list of hotels
+     * Every hotel in catalogue order (price, then id), projected into DTOs like
+     * {@link #streamAllForExport}, so rebuilding the in-memory catalogue never fills the
+     * persistence context. Must be consumed, and closed, inside a transaction.
      */
-    @Query("SELECT h FROM Hotel h WHERE LOWER(h.city) = LOWER(:city) AND h.availableRooms > 0")
-    Page<Hotel> findByCityIgnoreCaseAndAvailableRoomsGreaterThan(
-            @Param("city") String city,
-            Pageable pageable
-    );
+    @Query("SELECT new com.example.travel.dto.HotelExportRow(h.id, h.supplierRef, h.name, h.city, h.pricePerNight, h.rating, " +
+            "h.description, h.totalRooms, h.availableRooms, h.maxOccupancy) FROM Hotel h ORDER BY h.pricePerNight, h.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<HotelExportRow> streamAllForCatalogue();
 }
@@ -0,0 +1,75 @@
+package com.example.travel.repository;
+
+import com.example.travel.dto.HotelResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Hotel search queries of {@link HotelRepository}, built per call with only the filters
+ * that are set (see HotelSearchQueriesImpl).
+ *
+ * Each filter combination gets its own statement, so the optimizer plans the range
+ * predicates that actually apply instead of a catch-all {@code (:x IS NULL OR ...)} form
+ * whose plan is fixed when it is first prepared.
+ */
+public interface HotelSearchQueries {
+
+    /**
+     * Find hotels in a city with at least one room free on every night in [checkIn, checkOut).
+     * Nights without a RoomInventory row still have the full allotment, so only
+     * sold-out rows need to be probed; the (hotel_id, stay_date) primary key turns
+     * that probe into a short index range read per hotel instead of a reservations scan.
+     * Hotels are matched on the indexed city_key, so candidates come from an index range
+     * read on idx_city_key_price (price orders) or idx_city_key_rating (rating order)
+     * rather than a table scan and filesort.
+     *
+     * @param cityKey   normalized city, see CityKey
+     * @param checkIn   first night of the stay
+     * @param checkOut  departure date (not a booked night)
+     * @param guests    guests per room; hotels sleeping fewer are left out (null: any)
+     * @param minPrice  lowest price per night (null: any)
+     * @param maxPrice  highest price per night (null: any)
+     * @param minRating lowest rating (null: any)
+     * @param pageable  pagination and sort
+     * @return paginated list of hotels
+     */
+    Page<HotelResponse> findAvailableForStay(String cityKey, LocalDate checkIn, LocalDate checkOut,
+                                             Integer guests, BigDecimal minPrice, BigDecimal maxPrice,
+                                             Double minRating, Pageable pageable);
+
+    /**
+     * {@link #findAvailableForStay} without descriptions.
+     */
+    Page<HotelResponse> findAvailableForStayCompact(String cityKey, LocalDate checkIn, LocalDate checkOut,
+                                                    Integer guests, BigDecimal minPrice, BigDecimal maxPrice,
+                                                    Double minRating, Pageable pageable);
+
+    /**
+     * Keyset variant of {@link #findAvailableForStay}: hotels ordered by (pricePerNight, id)
+     * strictly after the given position. Seeking instead of skipping keeps deep pages as
+     * cheap as the first one, and a Slice only fetches one extra row instead of counting.
+     * Start with afterPrice = -1, afterId = 0.
+     */
+    Slice<HotelResponse> findAvailableForStayAfter(String cityKey, LocalDate checkIn, LocalDate checkOut,
+                                                   Integer guests, BigDecimal minPrice, BigDecimal maxPrice,
+                                                   Double minRating, BigDecimal afterPrice, Long afterId,
+                                                   Pageable pageable);
+
+    /**
+     * {@link #findAvailableForStayAfter} without descriptions.
+     */
+    Slice<HotelResponse> findAvailableForStayAfterCompact(String cityKey, LocalDate checkIn, LocalDate checkOut,
+                                                          Integer guests, BigDecimal minPrice, BigDecimal maxPrice,
+                                                          Double minRating, BigDecimal afterPrice, Long afterId,
+                                                          Pageable pageable);
+
+    /**
+     * Number of hotels {@link #findAvailableForStay} would list in total.
+     */
+    long countAvailableForStay(String cityKey, LocalDate checkIn, LocalDate checkOut,
+                               Integer guests, BigDecimal minPrice, BigDecimal maxPrice, Double minRating);
+}
@@ -0,0 +1,173 @@
+package com.example.travel.repository;
+
+import com.example.travel.dto.HotelResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JPQL behind {@link HotelSearchQueries}. Only the filters that are set are written into
+ * the statement, the same way ReactiveHotelSearchRepository builds its SQL, so there are
+ * at most sixteen statement shapes per projection and each one is planned for the
+ * predicates it really has.
+ */
+@Transactional(readOnly = true)
+public class HotelSearchQueriesImpl implements HotelSearchQueries {
+
+    private static final String FULL_RESPONSE = "SELECT new com.example.travel.dto.HotelResponse(h.id, h.name, h.city, " +
+            "h.pricePerNight, h.rating, h.description, h.availableRooms, h.maxOccupancy) ";
+
+    private static final String COMPACT_RESPONSE = "SELECT new com.example.travel.dto.HotelResponse(h.id, h.name, h.city, " +
+            "h.pricePerNight, h.rating, h.availableRooms, h.maxOccupancy) ";
+
+    private static final String AVAILABLE_FOR_STAY = "FROM Hotel h WHERE h.cityKey = :cityKey AND h.availableRooms > 0 " +
+            "AND NOT EXISTS (SELECT ri.hotelId FROM RoomInventory ri WHERE ri.hotelId = h.id " +
+            "AND ri.stayDate >= :checkIn AND ri.stayDate < :checkOut AND ri.availableRooms < 1) ";
+
+    private static final String AFTER_POSITION =
+            "AND (h.pricePerNight > :afterPrice OR (h.pricePerNight = :afterPrice AND h.id > :afterId)) ";
+
+    private static final String PRICE_ORDER = "ORDER BY h.pricePerNight, h.id";
+
+    /**
+     * Properties a Pageable may sort on; anything else would be pasted into the JPQL.
+     */
+    private static final Set<String> SORTABLE = Set.of("id", "name", "pricePerNight", "rating");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<HotelResponse> findAvailableForStay(String cityKey, LocalDate checkIn, LocalDate checkOut,
+                                                    Integer guests, BigDecimal minPrice, BigDecimal maxPrice,
+                                                    Double minRating, Pageable pageable) {
+        return findPage(FULL_RESPONSE, cityKey, checkIn, checkOut, guests, minPrice, maxPrice, minRating, pageable);
+    }
+
+    @Override
+    public Page<HotelResponse> findAvailableForStayCompact(String cityKey, LocalDate checkIn, LocalDate checkOut,
+                                                           Integer guests, BigDecimal minPrice, BigDecimal maxPrice,
+                                                           Double minRating, Pageable pageable) {
+        return findPage(COMPACT_RESPONSE, cityKey, checkIn, checkOut, guests, minPrice, maxPrice, minRating, pageable);
+    }
+
+    @Override
+    public Slice<HotelResponse> findAvailableForStayAfter(String cityKey, LocalDate checkIn, LocalDate checkOut,
+                                                          Integer guests, BigDecimal minPrice, BigDecimal maxPrice,
+                                                          Double minRating, BigDecimal afterPrice, Long afterId,
+                                                          Pageable pageable) {
+        return findSliceAfter(FULL_RESPONSE, cityKey, checkIn, checkOut, guests, minPrice, maxPrice, minRating,
+                afterPrice, afterId, pageable);
+    }
+
+    @Override
+    public Slice<HotelResponse> findAvailableForStayAfterCompact(String cityKey, LocalDate checkIn, LocalDate checkOut,
+                                                                 Integer guests, BigDecimal minPrice, BigDecimal maxPrice,
+                                                                 Double minRating, BigDecimal afterPrice, Long afterId,
+                                                                 Pageable pageable) {
+        return findSliceAfter(COMPACT_RESPONSE, cityKey, checkIn, checkOut, guests, minPrice, maxPrice, minRating,
+                afterPrice, afterId, pageable);
+    }
+
+    @Override
+    public long countAvailableForStay(String cityKey, LocalDate checkIn, LocalDate checkOut,
+                                      Integer guests, BigDecimal minPrice, BigDecimal maxPrice, Double minRating) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        String jpql = "SELECT COUNT(h) " + where(cityKey, checkIn, checkOut, guests, minPrice, maxPrice, minRating, params);
+        return bind(entityManager.createQuery(jpql, Long.class), params).getSingleResult();
+    }
+
+    private Page<HotelResponse> findPage(String select, String cityKey, LocalDate checkIn, LocalDate checkOut,
+                                         Integer guests, BigDecimal minPrice, BigDecimal maxPrice, Double minRating,
+                                         Pageable pageable) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        String jpql = select + where(cityKey, checkIn, checkOut, guests, minPrice, maxPrice, minRating, params)
+                + orderBy(pageable.getSort());
+        TypedQuery<HotelResponse> query = bind(entityManager.createQuery(jpql, HotelResponse.class), params);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable,
+                () -> countAvailableForStay(cityKey, checkIn, checkOut, guests, minPrice, maxPrice, minRating));
+    }
+
+    private Slice<HotelResponse> findSliceAfter(String select, String cityKey, LocalDate checkIn, LocalDate checkOut,
+                                                Integer guests, BigDecimal minPrice, BigDecimal maxPrice,
+                                                Double minRating, BigDecimal afterPrice, Long afterId,
+                                                Pageable pageable) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        String jpql = select + where(cityKey, checkIn, checkOut, guests, minPrice, maxPrice, minRating, params)
+                + AFTER_POSITION + PRICE_ORDER;
+        params.put("afterPrice", afterPrice);
+        params.put("afterId", afterId);
+        List<HotelResponse> hotels = bind(entityManager.createQuery(jpql, HotelResponse.class), params)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = hotels.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? hotels.subList(0, pageable.getPageSize()) : hotels, pageable, hasNext);
+    }
+
+    private static String where(String cityKey, LocalDate checkIn, LocalDate checkOut, Integer guests,
+                                BigDecimal minPrice, BigDecimal maxPrice, Double minRating,
+                                Map<String, Object> params) {
+        params.put("cityKey", cityKey);
+        params.put("checkIn", checkIn);
+        params.put("checkOut", checkOut);
+        StringBuilder where = new StringBuilder(AVAILABLE_FOR_STAY);
+        if (guests != null) {
+            where.append("AND (h.maxOccupancy IS NULL OR h.maxOccupancy >= :guests) ");
+            params.put("guests", guests);
+        }
+        if (minPrice != null) {
+            where.append("AND h.pricePerNight >= :minPrice ");
+            params.put("minPrice", minPrice);
+        }
+        if (maxPrice != null) {
+            where.append("AND h.pricePerNight <= :maxPrice ");
+            params.put("maxPrice", maxPrice);
+        }
+        if (minRating != null) {
+            where.append("AND h.rating >= :minRating ");
+            params.put("minRating", minRating);
+        }
+        return where.toString();
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        StringBuilder orderBy = new StringBuilder("ORDER BY ");
+        for (Sort.Order order : sort) {
+            if (!SORTABLE.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort hotels by " + order.getProperty());
+            }
+            if (orderBy.length() > "ORDER BY ".length()) {
+                orderBy.append(", ");
+            }
+            orderBy.append("h.").append(order.getProperty()).append(order.isAscending() ? " ASC" : " DESC");
+        }
+        return orderBy.toString();
+    }
+
+    private static <T> TypedQuery<T> bind(TypedQuery<T> query, Map<String, Object> params) {
+        params.forEach(query::setParameter);
+        return query;
+    }
+}
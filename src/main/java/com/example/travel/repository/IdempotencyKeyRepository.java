@@ -0,0 +1,92 @@
+package com.example.travel.repository;
+
+import com.example.travel.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for reservation Idempotency-Keys. Claims and releases commit on their own,
+ * outside the booking transaction: a claim must be visible to other nodes before the
+ * booking starts. {@link #complete} joins the booking transaction when there is one.
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Claim a key for a request about to be booked.
+     * INSERT IGNORE lets exactly one of several concurrent claims win, without an
+     * exception for the others.
+     *
+     * @return 1 if the key was claimed, 0 if it already exists
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO idempotency_keys (idempotency_key, request_hash, created_at) " +
+            "VALUES (:key, :requestHash, :createdAt)",
+            nativeQuery = true)
+    int claim(
+            @Param("key") String key,
+            @Param("requestHash") String requestHash,
+            @Param("createdAt") LocalDateTime createdAt
+    );
+
+    /**
+     * Record the id the claimed request is about to be booked under.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.reservationId = :reservationId WHERE k.key = :key")
+    int assignReservation(@Param("key") String key, @Param("reservationId") Long reservationId);
+
+    /**
+     * Take over a claim whose request never stored a response and was made before the
+     * cutoff, restarting its lease. Only one of several concurrent retries matches.
+     *
+     * @return 1 if the key was taken over, 0 if it has a response or its lease still runs
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.requestHash = :requestHash, k.createdAt = :createdAt " +
+            "WHERE k.key = :key AND k.response IS NULL AND k.createdAt < :cutoff")
+    int reclaim(
+            @Param("key") String key,
+            @Param("requestHash") String requestHash,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("cutoff") LocalDateTime cutoff
+    );
+
+    /**
+     * Store the response of the booked request.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.reservationId = :reservationId, k.response = :response " +
+            "WHERE k.key = :key")
+    int complete(
+            @Param("key") String key,
+            @Param("reservationId") Long reservationId,
+            @Param("response") String response
+    );
+
+    /**
+     * Give up a claim whose booking failed, so the client can try again with the same key.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.key = :key AND k.response IS NULL")
+    int release(@Param("key") String key);
+
+    /**
+     * Delete every key created before the cutoff.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
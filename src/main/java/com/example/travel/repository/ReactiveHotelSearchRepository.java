@@ -0,0 +1,125 @@
+package com.example.travel.repository;
+
+import com.example.travel.dto.HotelResponse;
+import com.example.travel.dto.HotelSearchSort;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link HotelRepository#findAvailableForStay}, over R2DBC.
+ *
+ * Same predicates and orders as the JPA queries, and like them only the filters that are
+ * set are written into the SQL. Rows are emitted as the driver decodes them, so a slow
+ * consumer holds back reading instead of buffering the whole page.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveHotelSearchRepository {
+
+    private static final String FULL_COLUMNS =
+            "SELECT h.id, h.name, h.city, h.price_per_night, h.rating, h.description, h.available_rooms, h.max_occupancy ";
+
+    private static final String COMPACT_COLUMNS =
+            "SELECT h.id, h.name, h.city, h.price_per_night, h.rating, h.available_rooms, h.max_occupancy ";
+
+    private static final String AVAILABLE_FOR_STAY = "FROM hotels h WHERE h.city_key = :cityKey AND h.available_rooms > 0 " +
+            "AND NOT EXISTS (SELECT ri.hotel_id FROM room_inventory ri WHERE ri.hotel_id = h.id " +
+            "AND ri.stay_date >= :checkIn AND ri.stay_date < :checkOut AND ri.available_rooms < 1) ";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * One page of the hotels in a city with a room free on every night in [checkIn, checkOut).
+     * Null filters are not applied.
+     */
+    public Flux<HotelResponse> findAvailableForStay(String cityKey, LocalDate checkIn, LocalDate checkOut,
+                                                    Integer guests, BigDecimal minPrice, BigDecimal maxPrice,
+                                                    Double minRating, HotelSearchSort sort,
+                                                    long offset, int limit, boolean compact) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        String sql = (compact ? COMPACT_COLUMNS : FULL_COLUMNS)
+                + where(cityKey, checkIn, checkOut, guests, minPrice, maxPrice, minRating, params)
+                + orderBy(sort) + " LIMIT " + limit + " OFFSET " + offset;
+        return bind(sql, params)
+                .map(row -> toResponse(row, compact))
+                .all();
+    }
+
+    /**
+     * Number of hotels {@link #findAvailableForStay} would list in total.
+     */
+    public Mono<Long> countAvailableForStay(String cityKey, LocalDate checkIn, LocalDate checkOut,
+                                            Integer guests, BigDecimal minPrice, BigDecimal maxPrice,
+                                            Double minRating) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        String sql = "SELECT COUNT(*) AS total "
+                + where(cityKey, checkIn, checkOut, guests, minPrice, maxPrice, minRating, params);
+        return bind(sql, params)
+                .map(row -> ((Number) row.get("total")).longValue())
+                .one();
+    }
+
+    private static String where(String cityKey, LocalDate checkIn, LocalDate checkOut, Integer guests,
+                                BigDecimal minPrice, BigDecimal maxPrice, Double minRating,
+                                Map<String, Object> params) {
+        params.put("cityKey", cityKey);
+        params.put("checkIn", checkIn);
+        params.put("checkOut", checkOut);
+        StringBuilder where = new StringBuilder(AVAILABLE_FOR_STAY);
+        if (guests != null) {
+            where.append("AND (h.max_occupancy IS NULL OR h.max_occupancy >= :guests) ");
+            params.put("guests", guests);
+        }
+        if (minPrice != null) {
+            where.append("AND h.price_per_night >= :minPrice ");
+            params.put("minPrice", minPrice);
+        }
+        if (maxPrice != null) {
+            where.append("AND h.price_per_night <= :maxPrice ");
+            params.put("maxPrice", maxPrice);
+        }
+        if (minRating != null) {
+            where.append("AND h.rating >= :minRating ");
+            params.put("minRating", minRating);
+        }
+        return where.toString();
+    }
+
+    private static String orderBy(HotelSearchSort sort) {
+        return switch (sort) {
+            case PRICE_ASC -> "ORDER BY h.price_per_night, h.id";
+            case PRICE_DESC -> "ORDER BY h.price_per_night DESC, h.id DESC";
+            case RATING_DESC -> "ORDER BY h.rating DESC, h.price_per_night, h.id";
+        };
+    }
+
+    private DatabaseClient.GenericExecuteSpec bind(String sql, Map<String, Object> params) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        for (Map.Entry<String, Object> param : params.entrySet()) {
+            spec = spec.bind(param.getKey(), param.getValue());
+        }
+        return spec;
+    }
+
+    private static HotelResponse toResponse(Readable row, boolean compact) {
+        return HotelResponse.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .city(row.get("city", String.class))
+                .pricePerNight(row.get("price_per_night", BigDecimal.class))
+                .rating(row.get("rating", Double.class))
+                .description(compact ? null : row.get("description", String.class))
+                .availableRooms(row.get("available_rooms", Integer.class))
+                .maxOccupancy(row.get("max_occupancy", Integer.class))
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.travel.repository;
+
+/**
+ * Picks the shard a new reservation is written to. Declare a bean of this type to replace
+ * the default, e.g. with a lookup table that pins large hotels to shards of their own.
+ *
+ * Changing the mapping only affects new reservations: existing ones are found by the
+ * shard encoded in their id, or by querying every shard.
+ */
+@FunctionalInterface
+public interface ReservationShardResolver {
+
+    /**
+     * Hotel id modulo the number of shards, which spreads hotels evenly.
+     */
+    ReservationShardResolver HOTEL_ID_MODULO = (hotelId, shardCount) -> (int) Math.floorMod(hotelId, (long) shardCount);
+
+    /**
+     * @return a shard number in [0, shardCount)
+     */
+    int shardFor(long hotelId, int shardCount);
+}
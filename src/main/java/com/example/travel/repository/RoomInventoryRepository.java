@@ -0,0 +1,111 @@
+package com.example.travel.repository;
+
+import com.example.travel.entity.RoomInventory;
+import com.example.travel.entity.RoomInventoryId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for per-night RoomInventory rows.
+ */
+@Repository
+public interface RoomInventoryRepository extends JpaRepository<RoomInventory, RoomInventoryId> {
+
+    /**
+     * Create the inventory row for one night if it does not exist yet,
+     * seeded from the hotel's per-night allotment.
+     * INSERT IGNORE keeps this idempotent when concurrent bookings race on the same night.
+     *
+     * @return 1 if a row was created, 0 if it already existed or the hotel is unknown
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO room_inventory (hotel_id, stay_date, available_rooms) " +
+            "SELECT h.id, :stayDate, COALESCE(h.available_rooms, 0) FROM hotels h WHERE h.id = :hotelId",
+            nativeQuery = true)
+    int seedNight(@Param("hotelId") Long hotelId, @Param("stayDate") LocalDate stayDate);
+
+    /**
+     * Take one room on every night in [checkIn, checkOut) that still has one free.
+     * A single guarded UPDATE: the row lock plus the available_rooms > 0 predicate
+     * make concurrent bookings unable to oversell a night.
+     *
+     * @return number of nights a room was taken on; fewer than the stay length means
+     * some night was sold out and the caller must roll back
+     */
+    @Modifying
+    @Query("UPDATE RoomInventory ri SET ri.availableRooms = ri.availableRooms - 1 " +
+            "WHERE ri.hotelId = :hotelId AND ri.stayDate >= :checkIn AND ri.stayDate < :checkOut " +
+            "AND ri.availableRooms > 0")
+    int takeRoom(
+            @Param("hotelId") Long hotelId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut
+    );
+
+    /**
+     * Take several rooms on one night, only if that many are still free.
+     * Used by the write-behind flush, which aggregates bookings per night.
+     *
+     * @return 1 if the rooms were taken, 0 if the night has fewer rooms left
+     */
+    @Modifying
+    @Query("UPDATE RoomInventory ri SET ri.availableRooms = ri.availableRooms - :rooms " +
+            "WHERE ri.hotelId = :hotelId AND ri.stayDate = :stayDate AND ri.availableRooms >= :rooms")
+    int takeRooms(
+            @Param("hotelId") Long hotelId,
+            @Param("stayDate") LocalDate stayDate,
+            @Param("rooms") int rooms
+    );
+
+    /**
+     * Give rooms back on one night, e.g. taken by a write-behind batch for
+     * reservations it then had to reject.
+     */
+    @Modifying
+    @Query("UPDATE RoomInventory ri SET ri.availableRooms = ri.availableRooms + :rooms " +
+            "WHERE ri.hotelId = :hotelId AND ri.stayDate = :stayDate")
+    int returnRooms(
+            @Param("hotelId") Long hotelId,
+            @Param("stayDate") LocalDate stayDate,
+            @Param("rooms") int rooms
+    );
+
+    /**
+     * Lock the inventory rows covering [checkIn, checkOut) in night order (SELECT ... FOR UPDATE).
+     * Used by batch booking, which must decide per item without leaving partial decrements.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ri FROM RoomInventory ri WHERE ri.hotelId = :hotelId " +
+            "AND ri.stayDate >= :checkIn AND ri.stayDate < :checkOut ORDER BY ri.stayDate")
+    List<RoomInventory> lockStay(
+            @Param("hotelId") Long hotelId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut
+    );
+
+    /**
+     * Nights in [from, to) on which the hotel has no room left.
+     */
+    @Query("SELECT ri.stayDate FROM RoomInventory ri WHERE ri.hotelId = :hotelId " +
+            "AND ri.stayDate >= :from AND ri.stayDate < :to AND ri.availableRooms < 1")
+    List<LocalDate> findSoldOutNights(
+            @Param("hotelId") Long hotelId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    /**
+     * Every sold-out (hotel, night) from the given night on.
+     */
+    @Query("SELECT new com.example.travel.entity.RoomInventoryId(ri.hotelId, ri.stayDate) FROM RoomInventory ri " +
+            "WHERE ri.stayDate >= :from AND ri.availableRooms < 1")
+    List<RoomInventoryId> findSoldOutFrom(@Param("from") LocalDate from);
+}
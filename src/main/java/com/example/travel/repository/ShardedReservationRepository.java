@@ -0,0 +1,439 @@
+package com.example.travel.repository;
+
+import com.example.travel.config.ShardingProperties;
+import com.example.travel.dto.ReservationResponse;
+import com.example.travel.entity.Reservation;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reservations spread over shard databases by hotel id, over plain JDBC.
+ *
+ * Shard 0 is the primary database, so its writes join the caller's transaction together
+ * with the room inventory update. Other shards commit on their own right away; if the
+ * caller's transaction then rolls back, the rows are deleted again. A delete that fails
+ * is recorded in reservation_compensations on the primary and retried every
+ * travel.sharding.compensation-retry-interval until it succeeds. Ids come from
+ * {@link SnowflakeIdGenerator} and name their shard, so a lookup by id reads one shard;
+ * other lookups query every shard in parallel ({@link #queryAllShards}).
+ *
+ * With no shards configured everything is on the primary, as before sharding.
+ */
+@Repository
+@Slf4j
+public class ShardedReservationRepository {
+
+    static final String INSERT = "INSERT INTO reservations (id, hotel_id, guest_name, guest_email, check_in, " +
+            "check_out, guests, created_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String DELETE = "DELETE FROM reservations WHERE id = ?";
+
+    private static final String RECORD_COMPENSATION =
+            "INSERT INTO reservation_compensations (reservation_id, shard, created_at) VALUES (?, ?, ?)";
+
+    private static final int COMPENSATIONS_PER_RUN = 500;
+
+    private static final String COLUMNS = "SELECT id, hotel_id, guest_name, guest_email, check_in, check_out, " +
+            "guests, created_at, version FROM reservations ";
+
+    private static final RowMapper<Reservation> RESERVATION = (rs, rowNum) -> Reservation.builder()
+            .id(rs.getLong("id"))
+            .hotelId(rs.getLong("hotel_id"))
+            .guestName(rs.getString("guest_name"))
+            .guestEmail(rs.getString("guest_email"))
+            .checkIn(rs.getObject("check_in", LocalDate.class))
+            .checkOut(rs.getObject("check_out", LocalDate.class))
+            .guests(rs.getInt("guests"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .version(rs.getLong("version"))
+            .build();
+
+    private final ShardingProperties properties;
+    private final ReservationShardResolver shardResolver;
+    private final SnowflakeIdGenerator idGenerator;
+    private final List<Shard> shards = new ArrayList<>();
+    private final TransactionTemplate compensationTransaction;
+    private ExecutorService scatter;
+    private ScheduledExecutorService compensator;
+
+    public ShardedReservationRepository(ShardingProperties properties,
+                                        JdbcTemplate jdbcTemplate,
+                                        ObjectProvider<ReservationShardResolver> shardResolver,
+                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        if (properties.getShards().size() + 1 > SnowflakeIdGenerator.MAX_SHARDS) {
+            throw new IllegalArgumentException("At most " + SnowflakeIdGenerator.MAX_SHARDS + " reservation shards are supported");
+        }
+        this.properties = properties;
+        this.shardResolver = shardResolver.getIfAvailable(() -> ReservationShardResolver.HOTEL_ID_MODULO);
+        this.idGenerator = new SnowflakeIdGenerator(properties.getWorkerId());
+        // Shard 0 writes join the caller's transaction on the primary
+        shards.add(new Shard(0, jdbcTemplate, null, null));
+        // Recorded from afterCompletion, where the caller's connection is still bound
+        this.compensationTransaction = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        this.compensationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (ShardingProperties.Node node : properties.getShards()) {
+            int number = shards.size();
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("reservation-shard-" + number);
+            pool.setJdbcUrl(node.getUrl());
+            pool.setUsername(node.getUsername());
+            pool.setPassword(node.getPassword());
+            pool.setMaximumPoolSize(properties.getMaximumPoolSize());
+            meterRegistry.ifAvailable(pool::setMetricRegistry);
+            shards.add(new Shard(number, new JdbcTemplate(pool), pool,
+                    new TransactionTemplate(new DataSourceTransactionManager(pool))));
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (shards.size() == 1) {
+            return;
+        }
+        if (properties.isInitializeSchema()) {
+            ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource("db/reservation-shard.sql"));
+            shards.stream().skip(1).forEach(shard -> schema.execute(shard.jdbcTemplate.getDataSource()));
+            new ResourceDatabasePopulator(new ClassPathResource("db/reservation-compensation.sql"))
+                    .execute(shards.get(0).jdbcTemplate.getDataSource());
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        scatter = Executors.newFixedThreadPool(shards.size(), runnable -> {
+            Thread thread = new Thread(runnable, "reservation-shard-query-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        compensator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-compensation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, properties.getCompensationRetryInterval().toMillis());
+        compensator.scheduleWithFixedDelay(this::retryCompensationsSafely, intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+        log.info("Reservations sharded across {} databases", shards.size());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (compensator != null) {
+            compensator.shutdownNow();
+        }
+        if (scatter != null) {
+            scatter.shutdownNow();
+        }
+        shards.stream().filter(shard -> shard.pool != null).forEach(shard -> shard.pool.close());
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Shard new reservations of a hotel are written to.
+     */
+    public int shardFor(long hotelId) {
+        return shardResolver.shardFor(hotelId, shards.size());
+    }
+
+    /**
+     * A new reservation id on the hotel's shard, for callers that record it before saving.
+     */
+    public long nextId(long hotelId) {
+        return idGenerator.nextId(shardFor(hotelId));
+    }
+
+    /**
+     * Assign an id unless one was taken from {@link #nextId}, and insert the reservation on
+     * its hotel's shard.
+     */
+    public Reservation save(Reservation reservation) {
+        saveAll(List.of(reservation));
+        return reservation;
+    }
+
+    /**
+     * Assign ids (unless taken from {@link #nextId}) and insert the reservations, one JDBC
+     * batch per shard.
+     */
+    public List<Reservation> saveAll(List<Reservation> reservations) {
+        Map<Shard, List<Reservation>> byShard = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Reservation reservation : reservations) {
+            int shard = shardFor(reservation.getHotelId());
+            if (reservation.getId() == null) {
+                reservation.setId(idGenerator.nextId(shard));
+            }
+            if (reservation.getCreatedAt() == null) {
+                reservation.setCreatedAt(now);
+            }
+            reservation.setVersion(0L);
+            byShard.computeIfAbsent(shards.get(shard), s -> new ArrayList<>()).add(reservation);
+        }
+        byShard.forEach(this::insert);
+        return reservations;
+    }
+
+    /**
+     * Read one reservation from the shard named in its id. Ids from before sharding
+     * (AUTO_INCREMENT on the primary) do not name a shard; those of 65536 and above decode
+     * to a non-zero one, so a miss elsewhere is retried on shard 0.
+     */
+    public Optional<Reservation> findById(long id) {
+        int shard = SnowflakeIdGenerator.shardOf(id);
+        if (shard > 0 && shard < shards.size()) {
+            Optional<Reservation> found = findOnShard(shards.get(shard), id);
+            if (found.isPresent()) {
+                return found;
+            }
+        }
+        return findOnShard(shards.get(0), id);
+    }
+
+    /**
+     * Number of reservations on every shard.
+     */
+    public long count() {
+        return queryAllShards(jdbcTemplate ->
+                List.of(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservations", Long.class)))
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    /**
+     * A guest's reservations on every shard, newest first. Not served over HTTP: without
+     * authentication anyone knowing an email could list that guest's stays.
+     */
+    public List<Reservation> findByGuestEmail(String guestEmail) {
+        List<Reservation> found = queryAllShards(jdbcTemplate ->
+                jdbcTemplate.query(COLUMNS + "WHERE guest_email = ?", RESERVATION, guestEmail));
+        found.sort(Comparator.comparing(Reservation::getId).reversed());
+        return found;
+    }
+
+    /**
+     * Every reservation, shard by shard and in id order within a shard, read forward-only
+     * for bulk export. Only one shard's cursor is open at a time; the stream must be closed.
+     */
+    public Stream<ReservationResponse> streamAllForExport() {
+        ShardCursor cursor = new ShardCursor();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(cursor::close);
+    }
+
+    /**
+     * Run a query on every shard in parallel and concatenate the results in shard order.
+     *
+     * @throws QueryTimeoutException if a shard does not answer within travel.sharding.query-timeout
+     */
+    public <T> List<T> queryAllShards(Function<JdbcTemplate, List<T>> query) {
+        if (shards.size() == 1) {
+            return new ArrayList<>(query.apply(shards.get(0).jdbcTemplate));
+        }
+        List<CompletableFuture<List<T>>> pending = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard.jdbcTemplate), scatter))
+                .toList();
+        long deadline = System.nanoTime() + properties.getQueryTimeout().toNanos();
+        List<T> results = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            try {
+                results.addAll(pending.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                pending.forEach(future -> future.cancel(true));
+                throw new QueryTimeoutException("Reservation shard " + i + " did not answer in time");
+            } catch (ExecutionException e) {
+                pending.forEach(future -> future.cancel(true));
+                throw e.getCause() instanceof DataAccessException cause ? cause
+                        : new IllegalStateException("Query on reservation shard " + i + " failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted querying reservation shards", e);
+            }
+        }
+        return results;
+    }
+
+    private void insert(Shard shard, List<Reservation> reservations) {
+        if (shard.transactionTemplate == null) {
+            shard.jdbcTemplate.batchUpdate(INSERT, reservations, reservations.size(), ShardedReservationRepository::bind);
+            return;
+        }
+        shard.transactionTemplate.executeWithoutResult(status ->
+                shard.jdbcTemplate.batchUpdate(INSERT, reservations, reservations.size(), ShardedReservationRepository::bind));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Object[]> ids = reservations.stream().map(reservation -> new Object[]{reservation.getId()}).toList();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        // The room inventory update was undone, so the booking must go too
+                        compensate(shard, ids);
+                    }
+                }
+            });
+        }
+    }
+
+    private void compensate(Shard shard, List<Object[]> ids) {
+        try {
+            shard.jdbcTemplate.batchUpdate(DELETE, ids);
+            log.debug("Removed {} reservations from shard {} after rollback", ids.size(), shard.number);
+            return;
+        } catch (RuntimeException e) {
+            log.error("Could not remove {} reservations from shard {} after rollback; recording them for retry",
+                    ids.size(), shard.number, e);
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = ids.stream().map(id -> new Object[]{id[0], shard.number, now}).toList();
+        try {
+            compensationTransaction.executeWithoutResult(status ->
+                    shards.get(0).jdbcTemplate.batchUpdate(RECORD_COMPENSATION, rows));
+        } catch (RuntimeException e) {
+            log.error("Could not record reservations {} on shard {} for removal; delete them by hand",
+                    ids.stream().map(id -> id[0]).toList(), shard.number, e);
+        }
+    }
+
+    /**
+     * Delete reservations recorded in reservation_compensations from their shards, and
+     * forget the ones deleted.
+     *
+     * @return number of recorded reservations handled
+     */
+    int retryCompensations() {
+        JdbcTemplate primary = shards.get(0).jdbcTemplate;
+        List<long[]> pending = primary.query("SELECT reservation_id, shard FROM reservation_compensations " +
+                        "ORDER BY created_at LIMIT " + COMPENSATIONS_PER_RUN,
+                (rs, rowNum) -> new long[]{rs.getLong("reservation_id"), rs.getInt("shard")});
+        int handled = 0;
+        for (long[] compensation : pending) {
+            int shard = (int) compensation[1];
+            if (shard >= shards.size()) {
+                log.error("Reservation {} is recorded for removal from unknown shard {}", compensation[0], shard);
+                continue;
+            }
+            shards.get(shard).jdbcTemplate.update(DELETE, compensation[0]);
+            primary.update("DELETE FROM reservation_compensations WHERE reservation_id = ?", compensation[0]);
+            handled++;
+        }
+        if (handled > 0) {
+            log.info("Removed {} reservations left on shards by rolled-back bookings", handled);
+        }
+        return handled;
+    }
+
+    private void retryCompensationsSafely() {
+        try {
+            retryCompensations();
+        } catch (RuntimeException e) {
+            // Still recorded; the next run retries them
+            log.warn("Reservation compensation retry failed: {}", e.getMessage());
+        }
+    }
+
+    private static Optional<Reservation> findOnShard(Shard shard, long id) {
+        return shard.jdbcTemplate.query(COLUMNS + "WHERE id = ?", RESERVATION, id).stream().findFirst();
+    }
+
+    private static void bind(PreparedStatement statement, Reservation reservation) throws SQLException {
+        statement.setLong(1, reservation.getId());
+        statement.setLong(2, reservation.getHotelId());
+        statement.setString(3, reservation.getGuestName());
+        statement.setString(4, reservation.getGuestEmail());
+        statement.setObject(5, reservation.getCheckIn());
+        statement.setObject(6, reservation.getCheckOut());
+        statement.setInt(7, reservation.getGuests());
+        statement.setTimestamp(8, Timestamp.valueOf(reservation.getCreatedAt()));
+    }
+
+    private record Shard(int number, JdbcTemplate jdbcTemplate, HikariDataSource pool,
+                         TransactionTemplate transactionTemplate) {
+    }
+
+    /**
+     * Walks the shards' export queries one after another.
+     */
+    private final class ShardCursor implements Iterator<ReservationResponse>, AutoCloseable {
+
+        private int next;
+        private Stream<ReservationResponse> current;
+        private Iterator<ReservationResponse> rows = Collections.emptyIterator();
+
+        @Override
+        public boolean hasNext() {
+            while (!rows.hasNext() && next < shards.size()) {
+                close();
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(shards.get(next++).jdbcTemplate.getDataSource());
+                jdbcTemplate.setFetchSize(Integer.parseInt(HotelRepository.STREAM_FETCH_SIZE));
+                current = jdbcTemplate.queryForStream("SELECT id, hotel_id, guest_name, guest_email, check_in, " +
+                        "check_out, guests, created_at FROM reservations ORDER BY id", (rs, rowNum) -> new ReservationResponse(
+                        rs.getLong("id"), rs.getLong("hotel_id"), rs.getString("guest_name"),
+                        rs.getString("guest_email"), rs.getObject("check_in", LocalDate.class),
+                        rs.getObject("check_out", LocalDate.class), rs.getInt("guests"),
+                        rs.getTimestamp("created_at").toLocalDateTime()));
+                rows = current.iterator();
+            }
+            return rows.hasNext();
+        }
+
+        @Override
+        public ReservationResponse next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return rows.next();
+        }
+
+        @Override
+        public void close() {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+        }
+    }
+}
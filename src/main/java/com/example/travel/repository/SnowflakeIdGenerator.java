@@ -0,0 +1,75 @@
+package com.example.travel.repository;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered 64-bit ids, unique across application nodes, that name the shard their
+ * row was written to.
+ *
+ * Layout, high to low: 41 bits of milliseconds since 2024-01-01 UTC, 6 bits of shard,
+ * 6 bits of worker (one per application node, travel.sharding.worker-id) and a 10-bit
+ * sequence within the millisecond. When a millisecond's sequence runs out, or the clock
+ * steps back, ids continue on the following milliseconds instead of waiting, so they
+ * stay unique and increasing per node.
+ */
+public class SnowflakeIdGenerator {
+
+    static final long EPOCH_MILLIS = 1_704_067_200_000L;
+    static final int SEQUENCE_BITS = 10;
+    static final int WORKER_BITS = 6;
+    static final int SHARD_BITS = 6;
+
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+    public static final int MAX_WORKERS = 1 << WORKER_BITS;
+
+    private static final int WORKER_SHIFT = SEQUENCE_BITS;
+    private static final int SHARD_SHIFT = SEQUENCE_BITS + WORKER_BITS;
+    private static final int TIMESTAMP_SHIFT = SEQUENCE_BITS + WORKER_BITS + SHARD_BITS;
+
+    private final long workerId;
+    private final LongSupplier clock;
+
+    // Last (timestamp << SEQUENCE_BITS | sequence) handed out; a sequence overflow
+    // carries into the timestamp
+    private final AtomicLong last = new AtomicLong();
+
+    public SnowflakeIdGenerator(int workerId) {
+        this(workerId, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(int workerId, LongSupplier clock) {
+        if (workerId < 0 || workerId >= MAX_WORKERS) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + (MAX_WORKERS - 1));
+        }
+        this.workerId = workerId;
+        this.clock = clock;
+    }
+
+    /**
+     * Next id for a row written to the given shard.
+     */
+    public long nextId(int shard) {
+        if (shard < 0 || shard >= MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard must be between 0 and " + (MAX_SHARDS - 1));
+        }
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long current;
+        long next;
+        do {
+            current = last.get();
+            next = Math.max(now, current + 1);
+        } while (!last.compareAndSet(current, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return timestamp << TIMESTAMP_SHIFT | (long) shard << SHARD_SHIFT | workerId << WORKER_SHIFT | sequence;
+    }
+
+    /**
+     * Shard an id was generated for.
+     */
+    public static int shardOf(long id) {
+        return (int) (id >>> SHARD_SHIFT) & (MAX_SHARDS - 1);
+    }
+}
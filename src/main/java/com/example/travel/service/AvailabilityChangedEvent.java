@@ -0,0 +1,10 @@
+package com.example.travel.service;
+
+import java.time.LocalDate;
+
+/**
+ * Rooms were taken at a hotel for the nights in [checkIn, checkOut).
+ * Published inside the booking transaction; listeners act on it after commit.
+ */
+public record AvailabilityChangedEvent(Long hotelId, LocalDate checkIn, LocalDate checkOut) {
+}
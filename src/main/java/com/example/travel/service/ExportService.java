@@ -0,0 +1,165 @@
+package com.example.travel.service;
+
+import com.example.travel.dto.ExportFormat;
+import com.example.travel.dto.HotelExportRow;
+import com.example.travel.dto.ReservationResponse;
+import com.example.travel.repository.HotelRepository;
+import com.example.travel.repository.ShardedReservationRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Bulk export of the hotel catalogue and the reservation history.
+ *
+ * Rows are read through a forward-only cursor and written to the output as they arrive,
+ * so memory use does not grow with the number of rows. The read-only transaction (and
+ * its connection) lasts as long as the export. Reservations are read one shard after
+ * the other.
+ */
+@Service
+@Slf4j
+public class ExportService {
+
+    private static final List<Column<HotelExportRow>> HOTEL_COLUMNS = List.of(
+            new Column<>("id", HotelExportRow::getId),
+            new Column<>("supplierRef", HotelExportRow::getSupplierRef),
+            new Column<>("name", HotelExportRow::getName),
+            new Column<>("city", HotelExportRow::getCity),
+            new Column<>("pricePerNight", HotelExportRow::getPricePerNight),
+            new Column<>("rating", HotelExportRow::getRating),
+            new Column<>("description", HotelExportRow::getDescription),
+            new Column<>("totalRooms", HotelExportRow::getTotalRooms),
+            new Column<>("availableRooms", HotelExportRow::getAvailableRooms),
+            new Column<>("maxOccupancy", HotelExportRow::getMaxOccupancy));
+
+    private static final List<Column<ReservationResponse>> RESERVATION_COLUMNS = List.of(
+            new Column<>("id", ReservationResponse::getId),
+            new Column<>("hotelId", ReservationResponse::getHotelId),
+            new Column<>("guestName", ReservationResponse::getGuestName),
+            new Column<>("guestEmail", ReservationResponse::getGuestEmail),
+            new Column<>("checkIn", ReservationResponse::getCheckIn),
+            new Column<>("checkOut", ReservationResponse::getCheckOut),
+            new Column<>("guests", ReservationResponse::getGuests),
+            new Column<>("createdAt", ReservationResponse::getCreatedAt));
+
+    private final HotelRepository hotelRepository;
+    private final ShardedReservationRepository reservationRepository;
+    private final ObjectWriter jsonWriter;
+
+    public ExportService(HotelRepository hotelRepository,
+                         ShardedReservationRepository reservationRepository,
+                         ObjectMapper objectMapper) {
+        this.hotelRepository = hotelRepository;
+        this.reservationRepository = reservationRepository;
+        // Flushing is left to the output buffer; a flush per row would send a chunk per row
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Write every hotel to the output.
+     *
+     * @return number of hotels written
+     */
+    @Transactional(readOnly = true)
+    public long exportHotels(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<HotelExportRow> rows = hotelRepository.streamAllForExport()) {
+            return write(rows, format, HOTEL_COLUMNS, out);
+        }
+    }
+
+    /**
+     * Write every reservation to the output.
+     *
+     * @return number of reservations written
+     */
+    @Transactional(readOnly = true)
+    public long exportReservations(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<ReservationResponse> rows = reservationRepository.streamAllForExport()) {
+            return write(rows, format, RESERVATION_COLUMNS, out);
+        }
+    }
+
+    private <T> long write(Stream<T> rows, ExportFormat format, List<Column<T>> columns,
+                           OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long count = format == ExportFormat.CSV ? writeCsv(rows, columns, out) : writeNdjson(rows, out);
+        log.debug("Exported {} rows as {} in {} ms", count, format, (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+
+    private long writeNdjson(Stream<?> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = jsonWriter.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are separated by us, not by Jackson's default root value separator
+            generator.setRootValueSeparator(null);
+            for (Iterator<?> it = rows.iterator(); it.hasNext(); count++) {
+                jsonWriter.writeValue(generator, it.next());
+                generator.writeRaw('\n');
+            }
+        }
+        out.flush();
+        return count;
+    }
+
+    private <T> long writeCsv(Stream<T> rows, List<Column<T>> columns, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        writeCsvLine(writer, columns, Column::header);
+        for (Iterator<T> it = rows.iterator(); it.hasNext(); count++) {
+            T row = it.next();
+            writeCsvLine(writer, columns, column -> column.value().apply(row));
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static <T> void writeCsvLine(Writer writer, List<Column<T>> columns,
+                                         Function<Column<T>, Object> cell) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(cell.apply(columns.get(i))));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * RFC 4180 field: quoted (with doubled quotes) when it holds a separator, quote or line
+     * break; null as an empty field.
+     */
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + text.replace("\"", "\"\"") + '"';
+            }
+        }
+        return text;
+    }
+
+    private record Column<T>(String header, Function<T, Object> value) {
+    }
+}
@@ -0,0 +1,461 @@
+package com.example.travel.service;
+
+import com.example.travel.config.SearchProperties;
+import com.example.travel.dto.HotelExportRow;
+import com.example.travel.dto.HotelResponse;
+import com.example.travel.dto.HotelSearchSort;
+import com.example.travel.entity.CityKey;
+import com.example.travel.entity.RoomInventoryId;
+import com.example.travel.repository.HotelRepository;
+import com.example.travel.repository.RoomInventoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-process search engine over the hotel catalogue (travel.search.catalogue.*).
+ *
+ * Hotels are held column-wise in primitive arrays, one row per hotel, with rows numbered
+ * in (price, id) order: a price range is a contiguous run of rows and a bitmap walked
+ * forwards or backwards is already sorted by price. Filters are compressed bitmaps
+ * (RoaringBitmap) intersected per search: one per city, cumulative ones per rating step
+ * of 0.5 and per room capacity, and a row range for prices. Sold-out nights are a sorted
+ * array of epoch days per row. Only the responses of the requested page are allocated.
+ *
+ * The catalogue is rebuilt from the database every refresh-interval. In between,
+ * SearchCacheInvalidator applies the sold-out nights of bookings committed on this node;
+ * bookings on other nodes and catalogue edits show up with the next rebuild.
+ */
+@Component
+@DependsOn("hotelCityKeyBackfill")
+@RequiredArgsConstructor
+@Slf4j
+public class HotelCatalogueIndex {
+
+    private static final int PRICE_SCALE = 2;
+    private static final int RATING_STEPS = 11; // 0.0, 0.5, ..., 5.0
+    private static final RoaringBitmap NO_ROWS = new RoaringBitmap();
+
+    private final SearchProperties searchProperties;
+    private final HotelRepository hotelRepository;
+    private final RoomInventoryRepository roomInventoryRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // Rebuilds and sold-out updates are serialized so an update is never lost to a rebuild
+    // that read the database before it; searches read the catalogue without locking.
+    // A lock rather than synchronized: reload() queries the database while holding it,
+    // which would pin a virtual thread to its carrier
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Catalogue catalogue;
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    void start() {
+        SearchProperties.Catalogue settings = searchProperties.getCatalogue();
+        if (!settings.isEnabled()) {
+            return;
+        }
+        long intervalMillis = Math.max(1, settings.getRefreshInterval().toMillis());
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hotel-catalogue-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::reloadSafely, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * Whether the catalogue has been loaded; until then searches go to the database.
+     */
+    public boolean isReady() {
+        return catalogue != null;
+    }
+
+    /**
+     * Rebuild the catalogue in the background, e.g. after the hotels table changed in bulk.
+     * Does nothing when the catalogue is disabled.
+     */
+    public void refresh() {
+        if (refresher != null) {
+            refresher.execute(this::reloadSafely);
+        }
+    }
+
+    /**
+     * Rebuild the catalogue from the hotels table and the sold-out inventory rows.
+     */
+    void reload() {
+        long start = System.nanoTime();
+        Catalogue loaded;
+        writeLock.lock();
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            List<HotelExportRow> hotels = readOnly.execute(status -> {
+                try (Stream<HotelExportRow> rows = hotelRepository.streamAllForCatalogue()) {
+                    return rows.toList();
+                }
+            });
+            List<RoomInventoryId> soldOut = roomInventoryRepository.findSoldOutFrom(LocalDate.now().minusDays(1));
+            loaded = Catalogue.build(hotels, soldOut);
+            catalogue = loaded;
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Loaded hotel catalogue: {} hotels in {} cities in {} ms",
+                loaded.ids.length, loaded.cityRows.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * One page of the hotels in a city with a room free on every night of the stay that
+     * pass the filter, in the filter's order, as {@link HotelRepository#findAvailableForStay}
+     * returns them.
+     */
+    Page<HotelResponse> search(String cityKey, LocalDate checkIn, LocalDate checkOut, HotelSearchFilter filter,
+                               Pageable pageable, boolean compact) {
+        Catalogue current = catalogue;
+        RoaringBitmap rows = current.candidates(cityKey, filter);
+        int in = (int) checkIn.toEpochDay();
+        int out = (int) checkOut.toEpochDay();
+        long first = pageable.getOffset();
+        int size = pageable.getPageSize();
+        List<HotelResponse> content = new ArrayList<>(Math.min(size, rows.getCardinality()));
+
+        if (filter.sort() == HotelSearchSort.RATING_DESC) {
+            // Sort keys: rating rank in the high half, row in the low half
+            long[] keys = new long[rows.getCardinality()];
+            int matched = 0;
+            for (IntIterator it = rows.getIntIterator(); it.hasNext(); ) {
+                int row = it.next();
+                if (current.matches(row, filter, in, out)) {
+                    keys[matched++] = ((long) current.ratingRanks[row] << 32) | row;
+                }
+            }
+            Arrays.sort(keys, 0, matched);
+            for (long i = first; i < Math.min(first + size, matched); i++) {
+                content.add(current.response((int) keys[(int) i], compact));
+            }
+            return new PageImpl<>(content, pageable, matched);
+        }
+
+        IntIterator it = filter.sort() == HotelSearchSort.PRICE_DESC
+                ? rows.getReverseIntIterator() : rows.getIntIterator();
+        long total = 0;
+        while (it.hasNext()) {
+            int row = it.next();
+            if (!current.matches(row, filter, in, out)) {
+                continue;
+            }
+            if (total >= first && content.size() < size) {
+                content.add(current.response(row, compact));
+            }
+            total++;
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Keyset variant of {@link #search} in price order: matching hotels strictly after
+     * (afterPrice, afterId).
+     */
+    Slice<HotelResponse> searchAfter(String cityKey, LocalDate checkIn, LocalDate checkOut, HotelSearchFilter filter,
+                                     BigDecimal afterPrice, long afterId, int size, boolean compact) {
+        Catalogue current = catalogue;
+        RoaringBitmap rows = current.candidates(cityKey, filter);
+        int in = (int) checkIn.toEpochDay();
+        int out = (int) checkOut.toEpochDay();
+
+        List<HotelResponse> content = new ArrayList<>(Math.min(size, rows.getCardinality()));
+        boolean hasNext = false;
+        PeekableIntIterator it = rows.getIntIterator();
+        it.advanceIfNeeded(current.firstAfter(minorUnits(afterPrice, RoundingMode.HALF_UP), afterId));
+        while (it.hasNext()) {
+            int row = it.next();
+            if (!current.matches(row, filter, in, out)) {
+                continue;
+            }
+            if (content.size() == size) {
+                hasNext = true;
+                break;
+            }
+            content.add(current.response(row, compact));
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
+    /**
+     * Number of hotels {@link #search} would list in total.
+     */
+    long count(String cityKey, LocalDate checkIn, LocalDate checkOut, HotelSearchFilter filter) {
+        Catalogue current = catalogue;
+        int in = (int) checkIn.toEpochDay();
+        int out = (int) checkOut.toEpochDay();
+        long total = 0;
+        for (IntIterator it = current.candidates(cityKey, filter).getIntIterator(); it.hasNext(); ) {
+            if (current.matches(it.next(), filter, in, out)) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Replace a hotel's sold-out nights in [from, to) with the given ones. Hotels not in
+     * the catalogue yet are picked up by the next rebuild.
+     */
+    void updateSoldOut(Long hotelId, LocalDate from, LocalDate to, Collection<LocalDate> soldOutNights) {
+        writeLock.lock();
+        try {
+            Catalogue current = catalogue;
+            Integer row = current != null ? current.rowById.get(hotelId) : null;
+            if (row == null) {
+                return;
+            }
+            int start = (int) from.toEpochDay();
+            int end = (int) to.toEpochDay();
+            int[] nights = current.soldOut.get(row);
+            int[] merged = new int[(nights != null ? nights.length : 0) + soldOutNights.size()];
+            int count = 0;
+            if (nights != null) {
+                for (int night : nights) {
+                    if (night < start || night >= end) {
+                        merged[count++] = night;
+                    }
+                }
+            }
+            for (LocalDate night : soldOutNights) {
+                int day = (int) night.toEpochDay();
+                if (day >= start && day < end) {
+                    merged[count++] = day;
+                }
+            }
+            Arrays.sort(merged, 0, count);
+            current.soldOut.set(row, count > 0 ? Arrays.copyOf(merged, count) : null);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void reloadSafely() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // Keep serving the previous catalogue (or the database) until a rebuild succeeds
+            log.warn("Hotel catalogue refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private static long minorUnits(BigDecimal price, RoundingMode rounding) {
+        return price.setScale(PRICE_SCALE, rounding).unscaledValue().longValue();
+    }
+
+    /**
+     * Immutable columns and bitmaps of one catalogue load; only the sold-out nights change
+     * in place.
+     */
+    private static final class Catalogue {
+
+        private final long[] ids;
+        private final long[] prices;
+        private final double[] ratings;
+        private final int[] rooms;
+        private final int[] capacities; // 0 = not recorded
+        private final String[] names;
+        private final String[] cities;
+        private final String[] descriptions;
+        private final int[] ratingRanks; // position in RATING_DESC order
+        private final AtomicReferenceArray<int[]> soldOut;
+        private final Map<String, RoaringBitmap> cityRows = new HashMap<>();
+        private final Map<Long, Integer> rowById;
+        private final RoaringBitmap[] ratingAtLeast = new RoaringBitmap[RATING_STEPS];
+        private RoaringBitmap[] capacityAtLeast;
+
+        private Catalogue(int size) {
+            ids = new long[size];
+            prices = new long[size];
+            ratings = new double[size];
+            rooms = new int[size];
+            capacities = new int[size];
+            names = new String[size];
+            cities = new String[size];
+            descriptions = new String[size];
+            ratingRanks = new int[size];
+            soldOut = new AtomicReferenceArray<>(size);
+            rowById = new HashMap<>(size * 2);
+        }
+
+        /**
+         * @param byPrice hotels ordered by price, then id
+         */
+        static Catalogue build(List<HotelExportRow> byPrice, List<RoomInventoryId> soldOutNights) {
+            Catalogue catalogue = new Catalogue(byPrice.size());
+            int maxCapacity = 0;
+            for (int row = 0; row < byPrice.size(); row++) {
+                HotelExportRow hotel = byPrice.get(row);
+                catalogue.ids[row] = hotel.getId();
+                catalogue.prices[row] = minorUnits(hotel.getPricePerNight(), RoundingMode.HALF_UP);
+                catalogue.ratings[row] = hotel.getRating();
+                catalogue.rooms[row] = hotel.getAvailableRooms() != null ? hotel.getAvailableRooms() : 0;
+                catalogue.capacities[row] = hotel.getMaxOccupancy() != null ? Math.max(1, hotel.getMaxOccupancy()) : 0;
+                catalogue.names[row] = hotel.getName();
+                catalogue.cities[row] = hotel.getCity();
+                catalogue.descriptions[row] = hotel.getDescription();
+                catalogue.rowById.put(hotel.getId(), row);
+                catalogue.cityRows.computeIfAbsent(CityKey.of(hotel.getCity()), city -> new RoaringBitmap()).add(row);
+                maxCapacity = Math.max(maxCapacity, catalogue.capacities[row]);
+            }
+
+            for (int step = 0; step < RATING_STEPS; step++) {
+                catalogue.ratingAtLeast[step] = new RoaringBitmap();
+            }
+            // Capacity slot g holds rows sleeping at least g; the last slot only rows
+            // without a recorded capacity, which match any number of guests
+            catalogue.capacityAtLeast = new RoaringBitmap[maxCapacity + 2];
+            for (int guests = 0; guests < catalogue.capacityAtLeast.length; guests++) {
+                catalogue.capacityAtLeast[guests] = new RoaringBitmap();
+            }
+            for (int row = 0; row < byPrice.size(); row++) {
+                int steps = Math.min(RATING_STEPS - 1, (int) Math.floor(catalogue.ratings[row] * 2));
+                for (int step = 0; step <= steps; step++) {
+                    catalogue.ratingAtLeast[step].add(row);
+                }
+                int capacity = catalogue.capacities[row] == 0 ? maxCapacity + 1 : catalogue.capacities[row];
+                for (int guests = 0; guests <= capacity; guests++) {
+                    catalogue.capacityAtLeast[guests].add(row);
+                }
+            }
+            catalogue.cityRows.values().forEach(RoaringBitmap::runOptimize);
+            for (RoaringBitmap bitmap : catalogue.ratingAtLeast) {
+                bitmap.runOptimize();
+            }
+            for (RoaringBitmap bitmap : catalogue.capacityAtLeast) {
+                bitmap.runOptimize();
+            }
+
+            // Stable sort of price-ordered rows: ties in rating stay cheapest first
+            Integer[] byRating = new Integer[byPrice.size()];
+            for (int row = 0; row < byRating.length; row++) {
+                byRating[row] = row;
+            }
+            Arrays.sort(byRating, (a, b) -> Double.compare(catalogue.ratings[b], catalogue.ratings[a]));
+            for (int rank = 0; rank < byRating.length; rank++) {
+                catalogue.ratingRanks[byRating[rank]] = rank;
+            }
+
+            Map<Integer, List<Integer>> nightsByRow = new HashMap<>();
+            for (RoomInventoryId night : soldOutNights) {
+                Integer row = catalogue.rowById.get(night.getHotelId());
+                if (row != null) {
+                    nightsByRow.computeIfAbsent(row, r -> new ArrayList<>()).add((int) night.getStayDate().toEpochDay());
+                }
+            }
+            nightsByRow.forEach((row, nights) ->
+                    catalogue.soldOut.set(row, nights.stream().mapToInt(Integer::intValue).sorted().toArray()));
+            return catalogue;
+        }
+
+        /**
+         * Rows of the city passing the bitmap filters. Ratings are only narrowed to their
+         * 0.5 step here; {@link #matches} checks the exact value.
+         */
+        RoaringBitmap candidates(String cityKey, HotelSearchFilter filter) {
+            RoaringBitmap rows = cityRows.getOrDefault(cityKey, NO_ROWS);
+            if (filter.minRating() != null) {
+                int step = (int) Math.floor(filter.minRating() * 2);
+                rows = step >= RATING_STEPS ? NO_ROWS
+                        : RoaringBitmap.and(rows, ratingAtLeast[Math.max(0, step)]);
+            }
+            if (filter.guests() != null && filter.guests() > 1) {
+                rows = RoaringBitmap.and(rows, capacityAtLeast[Math.min(filter.guests(), capacityAtLeast.length - 1)]);
+            }
+            if (filter.minPrice() != null || filter.maxPrice() != null) {
+                long from = filter.minPrice() == null ? 0
+                        : firstAfter(minorUnits(filter.minPrice(), RoundingMode.CEILING) - 1, Long.MAX_VALUE);
+                long to = filter.maxPrice() == null ? ids.length
+                        : firstAfter(minorUnits(filter.maxPrice(), RoundingMode.FLOOR), Long.MAX_VALUE);
+                rows = from >= to ? NO_ROWS : RoaringBitmap.and(rows, RoaringBitmap.bitmapOfRange(from, to));
+            }
+            return rows;
+        }
+
+        /**
+         * Exact rating, rooms offered and no sold-out night in [in, out) (epoch days).
+         */
+        boolean matches(int row, HotelSearchFilter filter, int in, int out) {
+            if (rooms[row] < 1 || (filter.minRating() != null && ratings[row] < filter.minRating())) {
+                return false;
+            }
+            int[] nights = soldOut.get(row);
+            if (nights == null) {
+                return true;
+            }
+            int at = Arrays.binarySearch(nights, in);
+            if (at >= 0) {
+                return false;
+            }
+            int next = -at - 1;
+            return next == nights.length || nights[next] >= out;
+        }
+
+        /**
+         * First row ordered after (price, id).
+         */
+        int firstAfter(long price, long id) {
+            int low = 0;
+            int high = ids.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int byPrice = Long.compare(prices[mid], price);
+                if (byPrice < 0 || (byPrice == 0 && ids[mid] <= id)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        HotelResponse response(int row, boolean compact) {
+            return new HotelResponse(ids[row], names[row], cities[row], BigDecimal.valueOf(prices[row], PRICE_SCALE),
+                    ratings[row], compact ? null : descriptions[row], rooms[row],
+                    capacities[row] == 0 ? null : capacities[row]);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.travel.service;
+
+import com.example.travel.dto.ExportFormat;
+import com.example.travel.dto.HotelExportRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Turns one record of a hotel feed into a validated row. Records are NDJSON lines or
+ * RFC 4180 CSV records (which may span lines) with the columns of the hotel export;
+ * unknown columns are ignored. Thread-safe, so batches are parsed in parallel.
+ */
+final class HotelFeedParser {
+
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    private final ExportFormat format;
+    private final ObjectReader jsonReader;
+    private final Map<String, Integer> csvColumns;
+
+    private HotelFeedParser(ExportFormat format, ObjectReader jsonReader, Map<String, Integer> csvColumns) {
+        this.format = format;
+        this.jsonReader = jsonReader;
+        this.csvColumns = csvColumns;
+    }
+
+    static HotelFeedParser ndjson(ObjectReader jsonReader) {
+        return new HotelFeedParser(ExportFormat.NDJSON, jsonReader.forType(HotelExportRow.class), Map.of());
+    }
+
+    /**
+     * @param header the first record of the file
+     */
+    static HotelFeedParser csv(String header) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        for (String required : new String[]{"name", "city", "pricePerNight", "rating"}) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header has no " + required + " column");
+            }
+        }
+        return new HotelFeedParser(ExportFormat.CSV, null, columns);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the record cannot be read or fails validation
+     */
+    HotelExportRow parse(String record) {
+        HotelExportRow row = format == ExportFormat.CSV ? parseCsv(record) : parseJson(record);
+        validate(row);
+        return row;
+    }
+
+    private HotelExportRow parseJson(String record) {
+        try {
+            return jsonReader.readValue(record);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private HotelExportRow parseCsv(String record) {
+        List<String> fields = splitCsv(record);
+        return HotelExportRow.builder()
+                .id(number(field(fields, "id"), "id", Long::valueOf))
+                .supplierRef(field(fields, "supplierRef"))
+                .name(field(fields, "name"))
+                .city(field(fields, "city"))
+                .pricePerNight(number(field(fields, "pricePerNight"), "pricePerNight", BigDecimal::new))
+                .rating(number(field(fields, "rating"), "rating", Double::valueOf))
+                .description(field(fields, "description"))
+                .totalRooms(number(field(fields, "totalRooms"), "totalRooms", Integer::valueOf))
+                .availableRooms(number(field(fields, "availableRooms"), "availableRooms", Integer::valueOf))
+                .maxOccupancy(number(field(fields, "maxOccupancy"), "maxOccupancy", Integer::valueOf))
+                .build();
+    }
+
+    /**
+     * Value of a column, or null when the column is absent or the field empty.
+     */
+    private String field(List<String> fields, String column) {
+        Integer index = csvColumns.get(column);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private static <T> T number(String value, String column, Function<String, T> parser) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+
+    private static void validate(HotelExportRow row) {
+        if (row.getId() == null && isBlank(row.getSupplierRef())) {
+            throw new IllegalArgumentException("id or supplierRef is required");
+        }
+        checkText(row.getSupplierRef(), "supplierRef", 100, false);
+        checkText(row.getName(), "name", 200, true);
+        checkText(row.getCity(), "city", 100, true);
+        checkText(row.getDescription(), "description", 1000, false);
+        BigDecimal price = row.getPricePerNight();
+        if (price == null || price.signum() <= 0 || price.compareTo(MAX_PRICE) > 0 || price.scale() > 2) {
+            throw new IllegalArgumentException("pricePerNight must be positive with at most 2 decimals");
+        }
+        Double rating = row.getRating();
+        if (rating == null || rating < 0 || rating > 5) {
+            throw new IllegalArgumentException("rating must be between 0 and 5");
+        }
+        checkNotNegative(row.getTotalRooms(), "totalRooms");
+        checkNotNegative(row.getAvailableRooms(), "availableRooms");
+        if (row.getMaxOccupancy() != null && row.getMaxOccupancy() < 1) {
+            throw new IllegalArgumentException("maxOccupancy must be at least 1");
+        }
+    }
+
+    private static void checkText(String value, String column, int maxLength, boolean required) {
+        if (required && isBlank(value)) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        if (value != null && value.length() > maxLength) {
+            throw new IllegalArgumentException(column + " is longer than " + maxLength + " characters");
+        }
+    }
+
+    private static void checkNotNegative(Integer value, String column) {
+        if (value != null && value < 0) {
+            throw new IllegalArgumentException(column + " must not be negative");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Whether a CSV record read so far is complete, i.e. not inside a quoted field that
+     * continues on the next line.
+     */
+    static boolean isCompleteCsvRecord(CharSequence record) {
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') {
+                quoted = !quoted;
+            }
+        }
+        return !quoted;
+    }
+
+    /**
+     * Fields of one RFC 4180 record; quotes are removed and doubled quotes unescaped.
+     */
+    static List<String> splitCsv(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,464 @@
+package com.example.travel.service;
+
+import com.example.travel.config.ImportProperties;
+import com.example.travel.config.ReadYourWrites;
+import com.example.travel.dto.ExportFormat;
+import com.example.travel.dto.HotelExportRow;
+import com.example.travel.dto.HotelImportRequest;
+import com.example.travel.dto.HotelImportStatus;
+import com.example.travel.entity.CityKey;
+import com.example.travel.exception.ResourceNotFoundException;
+import com.example.travel.repository.HotelImportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bulk import of hotel feeds (NDJSON or CSV, same columns as the export) into the hotels
+ * table.
+ *
+ * One reader thread splits the file into records and hands them out in batches of
+ * travel.import.batch-size; travel.import.writers threads parse, validate and upsert
+ * the batches in parallel, one short transaction each. At most two batches per writer
+ * are held in memory, so files of any size are read in constant memory, and the writers
+ * bound the pooled connections an import takes away from searches and bookings.
+ * Invalid rows are rejected one by one; the rest of their batch is still written.
+ *
+ * Search caches are not touched while the import runs. Once it ends, the search entries
+ * of every city that gained, lost or changed a hotel are evicted and the in-memory
+ * catalogue, when enabled, is rebuilt, after every batch handed to the writers has
+ * finished, including when reading the file failed. One import runs at a time; finished
+ * imports can be polled for travel.import.status-retention.
+ */
+@Service
+@Slf4j
+public class HotelImportService {
+
+    private static final int LOCK_RETRIES = 3;
+
+    // Batches lock rows in key order, so two writers cannot lock the same rows crosswise
+    private static final Comparator<HotelExportRow> LOCK_ORDER = Comparator
+            .comparing(HotelExportRow::getId, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(HotelExportRow::getSupplierRef, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final ImportProperties importProperties;
+    private final HotelImportRepository hotelImportRepository;
+    private final SearchCacheInvalidator searchCacheInvalidator;
+    private final HotelCatalogueIndex catalogueIndex;
+    private final ObjectReader jsonReader;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicReference<ImportJob> running = new AtomicReference<>();
+    private ExecutorService reader;
+    private ExecutorService writers;
+
+    public HotelImportService(ImportProperties importProperties,
+                              HotelImportRepository hotelImportRepository,
+                              SearchCacheInvalidator searchCacheInvalidator,
+                              HotelCatalogueIndex catalogueIndex,
+                              ObjectMapper objectMapper) {
+        this.importProperties = importProperties;
+        this.hotelImportRepository = hotelImportRepository;
+        this.searchCacheInvalidator = searchCacheInvalidator;
+        this.catalogueIndex = catalogueIndex;
+        this.jsonReader = objectMapper.reader();
+    }
+
+    @PostConstruct
+    void start() {
+        reader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hotel-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger writerNumber = new AtomicInteger();
+        writers = Executors.newFixedThreadPool(Math.max(1, importProperties.getWriters()), runnable -> {
+            Thread thread = new Thread(runnable, "hotel-import-writer-" + writerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        reader.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    /**
+     * Start importing a file from the import directory in the background.
+     *
+     * @return the status of the new import, to poll with {@link #getStatus}
+     * @throws IllegalArgumentException if the file does not exist, lies outside the
+     *                                  import directory, or another import is running
+     */
+    public HotelImportStatus startImport(HotelImportRequest request) {
+        Path file = resolve(request.getFile());
+        long totalBytes;
+        try {
+            totalBytes = Files.size(file);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Import file cannot be read: " + request.getFile());
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), request.getFile(), request.getFormat(), totalBytes);
+        if (!running.compareAndSet(null, job)) {
+            throw new IllegalArgumentException("Another import is running: " + running.get().id);
+        }
+        pruneJobs();
+        jobs.put(job.id, job);
+        log.info("Starting hotel import {}: file={}, format={}, bytes={}", job.id, job.file, job.format, totalBytes);
+        reader.execute(() -> run(job, file));
+        return job.snapshot();
+    }
+
+    /**
+     * Progress of an import started on this node.
+     *
+     * @throws ResourceNotFoundException if there is no such import
+     */
+    public HotelImportStatus getStatus(String id) {
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import not found with id: " + id);
+        }
+        return job.snapshot();
+    }
+
+    private void pruneJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(importProperties.getStatusRetention());
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private Path resolve(String name) {
+        Path directory = importProperties.getDirectory().toAbsolutePath().normalize();
+        Path file = directory.resolve(name).normalize();
+        if (!file.startsWith(directory)) {
+            throw new IllegalArgumentException("Import file must be inside the import directory");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Import file not found: " + name);
+        }
+        return file;
+    }
+
+    private void run(ImportJob job, Path file) {
+        int maxInFlight = Math.max(1, importProperties.getWriters()) * 2;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new CountingInputStream(Files.newInputStream(file), job.bytesRead), StandardCharsets.UTF_8), 64 * 1024)) {
+            RecordReader records = new RecordReader(in, job.format);
+            HotelFeedParser parser = job.format == ExportFormat.CSV
+                    ? HotelFeedParser.csv(records.next() != null ? records.text : "")
+                    : HotelFeedParser.ndjson(jsonReader);
+
+            List<FeedRecord> batch = new ArrayList<>(importProperties.getBatchSize());
+            long batches = 0;
+            while (records.next() != null) {
+                if (records.text.isBlank()) {
+                    continue;
+                }
+                batch.add(new FeedRecord(records.line, records.text));
+                job.rowsRead.incrementAndGet();
+                if (batch.size() >= importProperties.getBatchSize()) {
+                    submit(job, parser, batch, inFlight);
+                    batch = new ArrayList<>(importProperties.getBatchSize());
+                    if (++batches % 100 == 0) {
+                        log.info("Hotel import {}: {} rows read, {} imported, {} rejected",
+                                job.id, job.rowsRead.get(), job.rowsImported.get(), job.rowsRejected.get());
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(job, parser, batch, inFlight);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Import interrupted");
+        } catch (IOException | RuntimeException e) {
+            log.error("Hotel import {} failed", job.id, e);
+            job.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            // Batches already handed out are still upserting, whatever stopped the reader
+            awaitWriters(inFlight, maxInFlight);
+            invalidate(job);
+            job.finish();
+            running.set(null);
+        }
+        log.info("Hotel import {} {}: {} rows read, {} imported, {} rejected, {} cities invalidated",
+                job.id, job.state, job.rowsRead.get(), job.rowsImported.get(), job.rowsRejected.get(),
+                job.cities.size());
+    }
+
+    private void submit(ImportJob job, HotelFeedParser parser, List<FeedRecord> batch, Semaphore inFlight)
+            throws InterruptedException {
+        inFlight.acquire();
+        try {
+            writers.execute(() -> {
+                try {
+                    write(job, parser, batch);
+                } finally {
+                    // Drop the write mark ReplicaRoutingDataSource left on this pool thread
+                    ReadYourWrites.clear();
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Wait until every batch handed to the writers has finished. An interrupt does not cut
+     * the wait short; only writers shut down with batches still queued (which then never
+     * run) do.
+     */
+    private void awaitWriters(Semaphore inFlight, int maxInFlight) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    if (inFlight.tryAcquire(maxInFlight, 1, TimeUnit.SECONDS) || writers.isTerminated()) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void write(ImportJob job, HotelFeedParser parser, List<FeedRecord> batch) {
+        List<HotelExportRow> rows = new ArrayList<>(batch.size());
+        for (FeedRecord record : batch) {
+            try {
+                rows.add(parser.parse(record.text()));
+            } catch (IllegalArgumentException e) {
+                job.reject(1, "line " + record.line() + ": " + e.getMessage());
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        rows.sort(LOCK_ORDER);
+
+        try {
+            List<String> previousCities = upsertWithRetry(rows);
+            job.cities.addAll(previousCities);
+            rows.forEach(row -> job.cities.add(CityKey.of(row.getCity())));
+            job.rowsImported.addAndGet(rows.size());
+        } catch (RuntimeException e) {
+            log.warn("Hotel import {}: batch at lines {}-{} failed: {}", job.id,
+                    batch.get(0).line(), batch.get(batch.size() - 1).line(), e.getMessage());
+            job.reject(rows.size(), "lines " + batch.get(0).line() + "-" + batch.get(batch.size() - 1).line() +
+                    ": batch failed: " + e.getMessage());
+        }
+    }
+
+    private List<String> upsertWithRetry(List<HotelExportRow> rows) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return hotelImportRepository.upsert(rows);
+            } catch (PessimisticLockingFailureException e) {
+                // Deadlock or lock wait timeout against bookings or another writer; the
+                // transaction was rolled back as a whole, so the batch can be replayed
+                if (attempt >= LOCK_RETRIES) {
+                    throw e;
+                }
+                log.debug("Retrying hotel import batch after lock failure: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void invalidate(ImportJob job) {
+        if (job.cities.isEmpty()) {
+            return;
+        }
+        try {
+            searchCacheInvalidator.evictCities(job.cities);
+            job.citiesInvalidated = job.cities.size();
+        } catch (RuntimeException e) {
+            // Entries missed here still expire by TTL
+            log.warn("Hotel import {}: search cache invalidation failed: {}", job.id, e.getMessage());
+        }
+        catalogueIndex.refresh();
+    }
+
+    private record FeedRecord(long line, String text) {
+    }
+
+    /**
+     * Reads whole records: one line for NDJSON, one or more lines for a CSV record with
+     * line breaks inside quoted fields. Tracks the line each record starts on.
+     */
+    private static final class RecordReader {
+
+        private final BufferedReader in;
+        private final ExportFormat format;
+        private long lastLine;
+        private long line;
+        private String text;
+
+        RecordReader(BufferedReader in, ExportFormat format) {
+            this.in = in;
+            this.format = format;
+        }
+
+        String next() throws IOException {
+            text = in.readLine();
+            if (text == null) {
+                return null;
+            }
+            line = ++lastLine;
+            if (format == ExportFormat.CSV && !HotelFeedParser.isCompleteCsvRecord(text)) {
+                StringBuilder record = new StringBuilder(text);
+                String continuation;
+                while (!HotelFeedParser.isCompleteCsvRecord(record) && (continuation = in.readLine()) != null) {
+                    lastLine++;
+                    record.append('\n').append(continuation);
+                }
+                text = record.toString();
+            }
+            return text;
+        }
+    }
+
+    /**
+     * Counts the bytes read from the file, for progress reporting.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+    }
+
+    private final class ImportJob {
+
+        private final String id;
+        private final String file;
+        private final ExportFormat format;
+        private final long totalBytes;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong rowsImported = new AtomicLong();
+        private final AtomicLong rowsRejected = new AtomicLong();
+        private final Set<String> cities = ConcurrentHashMap.newKeySet();
+        private final List<String> errors = new ArrayList<>();
+        private volatile boolean failed;
+        private volatile HotelImportStatus.State state = HotelImportStatus.State.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile int citiesInvalidated;
+
+        ImportJob(String id, String file, ExportFormat format, long totalBytes) {
+            this.id = id;
+            this.file = file;
+            this.format = format;
+            this.totalBytes = totalBytes;
+        }
+
+        void reject(int rows, String error) {
+            rowsRejected.addAndGet(rows);
+            addError(error);
+        }
+
+        void fail(String error) {
+            failed = true;
+            addError(error);
+        }
+
+        /**
+         * Publish the outcome; the counters are final by now.
+         */
+        void finish() {
+            finishedAt = LocalDateTime.now();
+            state = failed ? HotelImportStatus.State.FAILED : HotelImportStatus.State.COMPLETED;
+        }
+
+        private void addError(String error) {
+            synchronized (errors) {
+                if (errors.size() < importProperties.getMaxReportedErrors()) {
+                    errors.add(error);
+                }
+            }
+        }
+
+        HotelImportStatus snapshot() {
+            List<String> reported;
+            synchronized (errors) {
+                reported = List.copyOf(errors);
+            }
+            return HotelImportStatus.builder()
+                    .id(id)
+                    .file(file)
+                    .format(format)
+                    .state(state)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .bytesRead(bytesRead.get())
+                    .totalBytes(totalBytes)
+                    .rowsRead(rowsRead.get())
+                    .rowsImported(rowsImported.get())
+                    .rowsRejected(rowsRejected.get())
+                    .citiesInvalidated(citiesInvalidated)
+                    .errors(reported)
+                    .build();
+        }
+    }
+}
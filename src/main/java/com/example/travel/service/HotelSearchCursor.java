@@ -0,0 +1,40 @@
+package com.example.travel.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a price-ordered hotel listing: the (pricePerNight, id) of the last hotel
+ * returned. Clients see it only as an opaque URL-safe token.
+ */
+record HotelSearchCursor(BigDecimal price, Long id) {
+
+    /**
+     * Position before the first hotel (prices are never negative).
+     */
+    static final HotelSearchCursor START = new HotelSearchCursor(BigDecimal.ONE.negate(), 0L);
+
+    private static final String VERSION = "1";
+
+    String encode() {
+        String raw = VERSION + ':' + price.toPlainString() + ':' + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    static HotelSearchCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new HotelSearchCursor(new BigDecimal(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // Also covers malformed Base64 and numbers (NumberFormatException)
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.travel.service;
+
+import com.example.travel.dto.HotelResponse;
+import com.example.travel.dto.HotelSearchRequest;
+import com.example.travel.dto.HotelSearchSort;
+
+import java.math.BigDecimal;
+
+/**
+ * Filters and order of one hotel search. Null filters are not applied; guests are
+ * matched against room capacity, and hotels without a recorded capacity always match.
+ */
+record HotelSearchFilter(Integer guests, BigDecimal minPrice, BigDecimal maxPrice, Double minRating,
+                         HotelSearchSort sort) {
+
+    /**
+     * No filters, cheapest first: what shared city lists hold.
+     */
+    static final HotelSearchFilter NONE = new HotelSearchFilter(null, null, null, null, HotelSearchSort.PRICE_ASC);
+
+    /**
+     * @throws IllegalArgumentException if the minimum price exceeds the maximum price
+     */
+    static HotelSearchFilter of(HotelSearchRequest request) {
+        if (request.getMinPrice() != null && request.getMaxPrice() != null
+                && request.getMinPrice().compareTo(request.getMaxPrice()) > 0) {
+            throw new IllegalArgumentException("Minimum price must not exceed maximum price");
+        }
+        // Every room sleeps one guest, so one guest filters nothing
+        Integer guests = request.getGuests() != null && request.getGuests() > 1 ? request.getGuests() : null;
+        return new HotelSearchFilter(guests, request.getMinPrice(), request.getMaxPrice(),
+                request.getMinRating(), request.getSort() != null ? request.getSort() : HotelSearchSort.PRICE_ASC);
+    }
+
+    /**
+     * The same filters in PRICE_ASC order, as keyset pagination requires.
+     */
+    HotelSearchFilter byPrice() {
+        return sort == HotelSearchSort.PRICE_ASC ? this
+                : new HotelSearchFilter(guests, minPrice, maxPrice, minRating, HotelSearchSort.PRICE_ASC);
+    }
+
+    boolean matches(HotelResponse hotel) {
+        return (guests == null || hotel.getMaxOccupancy() == null || hotel.getMaxOccupancy() >= guests)
+                && (minPrice == null || hotel.getPricePerNight().compareTo(minPrice) >= 0)
+                && (maxPrice == null || hotel.getPricePerNight().compareTo(maxPrice) <= 0)
+                && (minRating == null || hotel.getRating() >= minRating);
+    }
+
+    /**
+     * Cache key part: {@code g<guests>}, then {@code p<min>-<max>}, {@code r<minRating>} and
+     * the sort when they are set, e.g. {@code g2|p-300|rating_desc}.
+     */
+    String key() {
+        StringBuilder key = new StringBuilder(32).append('g').append(guests != null ? guests : 0);
+        if (minPrice != null || maxPrice != null) {
+            key.append("|p").append(plain(minPrice)).append('-').append(plain(maxPrice));
+        }
+        if (minRating != null) {
+            key.append("|r").append(minRating);
+        }
+        if (sort != HotelSearchSort.PRICE_ASC) {
+            key.append('|').append(sort.name().toLowerCase());
+        }
+        return key.toString();
+    }
+
+    private static String plain(BigDecimal price) {
+        // 100, 100.0 and 100.00 share a key
+        return price == null ? "" : price.stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.travel.service;
+
+import com.example.travel.entity.CityKey;
+
+import java.time.LocalDate;
+
+/**
+ * Canonical cache keys for hotel search.
+ *
+ * Cities are normalized like hotels.city_key, so "Tokyo", " tokyo " and "TOKYO" share
+ * entries. Keys start with the city so all entries of a city share a prefix. Shared city
+ * lists are unfiltered; pages and counts carry the key of their filters (guests included,
+ * as they filter on room capacity).
+ */
+public final class HotelSearchKeys {
+
+    private static final char SEPARATOR = '|';
+    private static final String COMPACT_SUFFIX = "|compact";
+
+    private HotelSearchKeys() {
+    }
+
+    /**
+     * Key of one result page: {@code city|checkIn|checkOut|page|size|filters}, with a
+     * {@code |compact} suffix for results without descriptions.
+     */
+    public static String page(String normalizedCity, LocalDate checkIn, LocalDate checkOut, int page, int size,
+                              String filterKey, boolean compact) {
+        StringBuilder key = new StringBuilder(normalizedCity.length() + filterKey.length() + 40)
+                .append(normalizedCity).append(SEPARATOR)
+                .append(checkIn).append(SEPARATOR)
+                .append(checkOut).append(SEPARATOR)
+                .append(page).append(SEPARATOR)
+                .append(size).append(SEPARATOR)
+                .append(filterKey);
+        return compact ? key.append(COMPACT_SUFFIX).toString() : key.toString();
+    }
+
+    /**
+     * Key of a result count: {@code city|checkIn|checkOut|filters}.
+     */
+    public static String count(String normalizedCity, LocalDate checkIn, LocalDate checkOut, String filterKey) {
+        return new StringBuilder(normalizedCity.length() + filterKey.length() + 24)
+                .append(normalizedCity).append(SEPARATOR)
+                .append(checkIn).append(SEPARATOR)
+                .append(checkOut).append(SEPARATOR)
+                .append(filterKey)
+                .toString();
+    }
+
+    /**
+     * Key of the shared result list of a city and stay: {@code city|checkIn|checkOut}, with a
+     * {@code |compact} suffix for results without descriptions.
+     */
+    public static String city(String normalizedCity, LocalDate checkIn, LocalDate checkOut, boolean compact) {
+        StringBuilder key = new StringBuilder(normalizedCity.length() + 30)
+                .append(normalizedCity).append(SEPARATOR)
+                .append(checkIn).append(SEPARATOR)
+                .append(checkOut);
+        return compact ? key.append(COMPACT_SUFFIX).toString() : key.toString();
+    }
+
+    /**
+     * Canonical form of a city name (see {@link CityKey}); matches hotels.city_key.
+     */
+    public static String normalizeCity(String city) {
+        return CityKey.of(city);
+    }
+}
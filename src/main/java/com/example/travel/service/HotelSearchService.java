@@ -1,86 +1,273 @@
 package com.example.travel.service;
 
+import com.example.travel.config.RedisConfig;
+import com.example.travel.config.SearchCacheIndex;
+import com.example.travel.config.SearchProperties;
 import com.example.travel.dto.HotelResponse;
 import com.example.travel.dto.HotelSearchRequest;
-import com.example.travel.entity.Hotel;
+import com.example.travel.dto.HotelSearchSlice;
+import com.example.travel.dto.HotelSearchSort;
 import com.example.travel.repository.HotelRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Service layer for hotel search operations.
  * Implements caching strategy for read-heavy traffic.
+ *
+ * Not transactional on purpose: a cache hit must not take a pooled connection. The
+ * repository query runs in its own read-only transaction on a miss.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional(readOnly = true)
 public class HotelSearchService {
 
+    /**
+     * Price ascending with id as tie-break, so pages cut from a shared list match the
+     * pages the database would return.
+     */
+    static final Sort PRICE_ORDER = HotelSearchSort.PRICE_ASC.getSort();
+
     private final HotelRepository hotelRepository;
+    private final CacheManager cacheManager;
+    private final SearchProperties searchProperties;
+    private final SearchCacheLoader searchCacheLoader;
+    private final SearchCacheIndex searchCacheIndex;
+    private final HotelCatalogueIndex catalogueIndex;
+    private final TravelMetrics travelMetrics;
 
     /**
-     * Search hotels by city with Redis caching.
-     * Cache key includes all search parameters for accurate cache hits.
-     * TTL is configured to 5 minutes in application.yml.
+     * Search hotels by city with a room free on every night of the stay, with two-tier caching
+     * (per-node Caffeine copy over Redis).
+     * Cache keys use the normalized city (see {@link HotelSearchKeys}). With
+     * travel.search.share-city-results every page size and number is cut from one cached
+     * result list per city and stay; otherwise each page is cached on its own. Shared lists
+     * are unfiltered: guest, price and rating filters and other orders are applied to them
+     * in memory when they hold the whole city, and queried and cached per page otherwise.
+     * Compact requests skip descriptions in the query and are cached under their own keys.
+     * Misses go through {@link SearchCacheLoader}, so a popular entry expiring does not
+     * send every concurrent request to the database.
+     * TTLs are configured per cache under travel.cache in application.yml.
+     * Once the in-memory catalogue (travel.search.catalogue) is loaded it answers instead:
+     * walking it is cheaper than a Redis round trip, so the caches are skipped.
+     * Latency is recorded per city and source (see {@link TravelMetrics}).
      *
      * @param request search parameters
      * @return paginated hotel results
      */
-    @Cacheable(
-            value = "hotelSearch",
-            key = "#request.city + '_' + #request.checkIn + '_' + #request.checkOut + '_' + #request.guests + '_' + #request.page + '_' + #request.size"
-    )
     public Page<HotelResponse> searchHotels(HotelSearchRequest request) {
-        log.info("Searching hotels in city: {}, checkIn: {}, checkOut: {}, guests: {}, page: {}, size: {}",
+        long start = System.nanoTime();
+        log.debug("Searching hotels in city: {}, checkIn: {}, checkOut: {}, guests: {}, page: {}, size: {}",
                 request.getCity(), request.getCheckIn(), request.getCheckOut(),
                 request.getGuests(), request.getPage(), request.getSize());
 
-        // Validate date range
-        if (request.getCheckOut().isBefore(request.getCheckIn()) ||
-                request.getCheckOut().isEqual(request.getCheckIn())) {
-            throw new IllegalArgumentException("Check-out date must be after check-in date");
-        }
+        validateStay(request);
 
-        // Create pageable with sorting by price ascending
-        Pageable pageable = PageRequest.of(
-                request.getPage(),
-                request.getSize(),
-                Sort.by(Sort.Direction.ASC, "pricePerNight")
-        );
+        String city = HotelSearchKeys.normalizeCity(request.getCity());
+        LocalDate checkIn = request.getCheckIn();
+        LocalDate checkOut = request.getCheckOut();
+        boolean compact = request.isCompact();
+        HotelSearchFilter filter = HotelSearchFilter.of(request);
+        Pageable pageable = PageRequest.of(request.getPage(), request.getSize(), filter.sort().getSort());
 
-        // Execute repository query
-        Page<Hotel> hotelPage = hotelRepository.findByCityIgnoreCaseAndAvailableRoomsGreaterThan(
-                request.getCity(),
-                pageable
-        );
+        if (catalogueIndex.isReady()) {
+            Page<HotelResponse> hotels = catalogueIndex.search(city, checkIn, checkOut, filter, pageable, compact);
+            travelMetrics.recordSearch("page", city, TravelMetrics.SearchSource.CATALOGUE, start);
+            return hotels;
+        }
 
-        log.debug("Found {} hotels in city: {}", hotelPage.getTotalElements(), request.getCity());
+        MissTracker misses = new MissTracker();
+        if (searchProperties.isShareCityResults()) {
+            Page<HotelResponse> cityResults = cached(
+                    RedisConfig.HOTEL_SEARCH_CITY_CACHE,
+                    HotelSearchKeys.city(city, checkIn, checkOut, compact), city, checkIn, checkOut,
+                    misses.track(() -> findPage(city, checkIn, checkOut, HotelSearchFilter.NONE, compact,
+                            PageRequest.of(0, searchProperties.getSharedResultsLimit(), PRICE_ORDER))));
+            Page<HotelResponse> slice = slice(cityResults, filter, pageable);
+            if (slice != null) {
+                travelMetrics.recordSearch("page", city, misses.source(), start);
+                return slice;
+            }
+        }
 
-        // Map entities to DTOs
-        return hotelPage.map(this::mapToResponse);
+        Page<HotelResponse> hotels = cached(
+                RedisConfig.HOTEL_SEARCH_CACHE,
+                HotelSearchKeys.page(city, checkIn, checkOut, request.getPage(), request.getSize(),
+                        filter.key(), compact), city, checkIn, checkOut,
+                misses.track(() -> findPage(city, checkIn, checkOut, filter, compact, pageable)));
+        travelMetrics.recordSearch("page", city, misses.source(), start);
+        return hotels;
     }
 
     /**
-     * Map Hotel entity to HotelResponse DTO.
-     * Never expose entity directly to API layer.
+     * Cursor-paginated search: seeks past the (price, id) of the previous slice instead of
+     * skipping rows, and runs no count query. The approximate total comes from its own
+     * cache (evicted like the search entries), or from the catalogue when it is loaded, and
+     * is only computed when asked for.
+     *
+     * @param request      search parameters; page and sort are ignored, size is the slice size
+     * @param cursor       nextCursor of the previous slice, or null for the first one
+     * @param includeTotal whether to fill in approximateTotal
+     * @throws IllegalArgumentException on invalid dates or an invalid cursor
      */
-    private HotelResponse mapToResponse(Hotel hotel) {
-        return HotelResponse.builder()
-                .id(hotel.getId())
-                .name(hotel.getName())
-                .city(hotel.getCity())
-                .pricePerNight(hotel.getPricePerNight())
-                .rating(hotel.getRating())
-                .description(hotel.getDescription())
-                .availableRooms(hotel.getAvailableRooms())
+    public HotelSearchSlice searchHotelsByCursor(HotelSearchRequest request, String cursor, boolean includeTotal) {
+        long start = System.nanoTime();
+        validateStay(request);
+
+        String city = HotelSearchKeys.normalizeCity(request.getCity());
+        HotelSearchCursor after = cursor == null || cursor.isBlank()
+                ? HotelSearchCursor.START : HotelSearchCursor.decode(cursor);
+
+        HotelSearchFilter filter = HotelSearchFilter.of(request).byPrice();
+
+        boolean fromCatalogue = catalogueIndex.isReady();
+        Slice<HotelResponse> hotels = fromCatalogue
+                ? catalogueIndex.searchAfter(city, request.getCheckIn(), request.getCheckOut(), filter,
+                        after.price(), after.id(), request.getSize(), request.isCompact())
+                : findSliceAfter(city, request, filter, after);
+
+        String nextCursor = null;
+        if (hotels.hasNext()) {
+            HotelResponse last = hotels.getContent().get(hotels.getNumberOfElements() - 1);
+            nextCursor = new HotelSearchCursor(last.getPricePerNight(), last.getId()).encode();
+        }
+
+        Long total = null;
+        if (includeTotal && fromCatalogue) {
+            total = catalogueIndex.count(city, request.getCheckIn(), request.getCheckOut(), filter);
+        } else if (includeTotal) {
+            Number count = cached(RedisConfig.HOTEL_SEARCH_COUNT_CACHE,
+                    HotelSearchKeys.count(city, request.getCheckIn(), request.getCheckOut(), filter.key()),
+                    city, request.getCheckIn(), request.getCheckOut(),
+                    () -> hotelRepository.countAvailableForStay(city, request.getCheckIn(), request.getCheckOut(),
+                            filter.guests(), filter.minPrice(), filter.maxPrice(), filter.minRating()));
+            total = count.longValue();
+        }
+
+        travelMetrics.recordSearch("cursor", city,
+                fromCatalogue ? TravelMetrics.SearchSource.CATALOGUE : TravelMetrics.SearchSource.UNCACHED, start);
+
+        return HotelSearchSlice.builder()
+                .content(hotels.getContent())
+                .size(request.getSize())
+                .hasNext(hotels.hasNext())
+                .nextCursor(nextCursor)
+                .approximateTotal(total)
                 .build();
     }
+
+    /**
+     * Cut the requested page from a shared city list, or return null when the page reaches
+     * past the hotels the list holds. Lists holding every hotel of the city are filtered and
+     * re-sorted in memory; truncated lists only serve unfiltered pages in price order.
+     */
+    static Page<HotelResponse> slice(Page<HotelResponse> cityResults, HotelSearchFilter filter, Pageable pageable) {
+        List<HotelResponse> hotels = cityResults.getContent();
+        long total = cityResults.getTotalElements();
+        if (!filter.equals(HotelSearchFilter.NONE)) {
+            if (hotels.size() < total) {
+                return null;
+            }
+            hotels = hotels.stream()
+                    .filter(filter::matches)
+                    .sorted(filter.sort().getComparator())
+                    .toList();
+            total = hotels.size();
+        }
+        long end = pageable.getOffset() + pageable.getPageSize();
+        if (end > hotels.size() && hotels.size() < total) {
+            return null;
+        }
+        int from = (int) Math.min(pageable.getOffset(), hotels.size());
+        int to = (int) Math.min(end, hotels.size());
+        return new PageImpl<>(hotels.subList(from, to), pageable, total);
+    }
+
+    private Page<HotelResponse> findPage(String city, LocalDate checkIn, LocalDate checkOut, HotelSearchFilter filter,
+                                         boolean compact, Pageable pageable) {
+        // Projected straight into DTOs; entities never reach the API layer
+        Page<HotelResponse> hotelPage = compact
+                ? hotelRepository.findAvailableForStayCompact(city, checkIn, checkOut, filter.guests(),
+                        filter.minPrice(), filter.maxPrice(), filter.minRating(), pageable)
+                : hotelRepository.findAvailableForStay(city, checkIn, checkOut, filter.guests(),
+                        filter.minPrice(), filter.maxPrice(), filter.minRating(), pageable);
+
+        log.debug("Found {} hotels in city: {}", hotelPage.getTotalElements(), city);
+
+        return hotelPage;
+    }
+
+    private Slice<HotelResponse> findSliceAfter(String city, HotelSearchRequest request, HotelSearchFilter filter,
+                                                HotelSearchCursor after) {
+        Pageable pageable = PageRequest.of(0, request.getSize());
+        return request.isCompact()
+                ? hotelRepository.findAvailableForStayAfterCompact(city, request.getCheckIn(), request.getCheckOut(),
+                        filter.guests(), filter.minPrice(), filter.maxPrice(), filter.minRating(),
+                        after.price(), after.id(), pageable)
+                : hotelRepository.findAvailableForStayAfter(city, request.getCheckIn(), request.getCheckOut(),
+                        filter.guests(), filter.minPrice(), filter.maxPrice(), filter.minRating(),
+                        after.price(), after.id(), pageable);
+    }
+
+    static void validateStay(HotelSearchRequest request) {
+        if (request.getCheckOut().isBefore(request.getCheckIn()) ||
+                request.getCheckOut().isEqual(request.getCheckIn())) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
+    }
+
+    /**
+     * Read through the named cache; loaded keys are indexed under each night of the stay
+     * (see SearchCacheIndex) before they are cached, so sold-out nights can evict them.
+     */
+    private <T> T cached(String cacheName, String key, String city, LocalDate checkIn, LocalDate checkOut,
+                         Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return loader.get();
+        }
+        return searchCacheLoader.get(cache, key, () -> {
+            T value = loader.get();
+            searchCacheIndex.add(cache, key, city, checkIn, checkOut);
+            return value;
+        });
+    }
+
+    /**
+     * Notes whether a search ran one of its cache loaders itself, i.e. missed the cache.
+     * Loads shared with a concurrent search, and early refreshes on other threads, count
+     * as hits.
+     */
+    private static final class MissTracker {
+
+        private final Thread searcher = Thread.currentThread();
+        private boolean missed;
+
+        <T> Supplier<T> track(Supplier<T> loader) {
+            return () -> {
+                if (Thread.currentThread() == searcher) {
+                    missed = true;
+                }
+                return loader.get();
+            };
+        }
+
+        TravelMetrics.SearchSource source() {
+            return missed ? TravelMetrics.SearchSource.CACHE_MISS : TravelMetrics.SearchSource.CACHE_HIT;
+        }
+    }
 }
@@ -0,0 +1,308 @@
+package com.example.travel.service;
+
+import com.example.travel.config.IdempotencyProperties;
+import com.example.travel.config.InventoryProperties;
+import com.example.travel.config.ReadYourWrites;
+import com.example.travel.dto.ReservationRequest;
+import com.example.travel.dto.ReservationResponse;
+import com.example.travel.entity.IdempotencyKey;
+import com.example.travel.exception.IdempotencyKeyConflictException;
+import com.example.travel.repository.IdempotencyKeyRepository;
+import com.example.travel.repository.ShardedReservationRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Runs each reservation request carrying an Idempotency-Key at most once, and answers
+ * retries with the original response.
+ *
+ * Completed keys are remembered per node in a bounded, expiring map, so a retry reaching
+ * the same node costs no database round trip; a retry arriving while the first request
+ * still runs on this node waits for it instead of booking again. Across nodes, the key
+ * is claimed in idempotency_keys (primary key, INSERT IGNORE) before booking: a retry on
+ * another node finds the stored response, or gets 409 while the first request is still
+ * running. A failed booking releases its claim, so the client may try again.
+ *
+ * The reservation id is chosen and recorded in the claim before booking. In database
+ * mode the response is stored in the booking's transaction; a reservation on another
+ * shard, or one written by the in-memory write-behind thread, commits before it, so a
+ * node crashing in between leaves a booked reservation behind a claim without a
+ * response. A claim left without a response for longer than travel.idempotency.lease is
+ * therefore checked for its reservation first: if it was booked, its response is stored
+ * and replayed; otherwise the next retry takes the claim over and books, instead of
+ * answering 409 until the key expires.
+ */
+@Component
+@Slf4j
+public class IdempotencyKeyStore {
+
+    private final IdempotencyProperties properties;
+    private final IdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final InventoryProperties inventoryProperties;
+    private final ShardedReservationRepository reservations;
+    private final TransactionTemplate bookingTransaction;
+
+    private final Cache<String, Completed> completed;
+    private final Map<String, CompletableFuture<Completed>> inFlight = new ConcurrentHashMap<>();
+    private ScheduledExecutorService purger;
+
+    public IdempotencyKeyStore(IdempotencyProperties properties, IdempotencyKeyRepository repository,
+                               ObjectMapper objectMapper, InventoryProperties inventoryProperties,
+                               ShardedReservationRepository reservations,
+                               PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.inventoryProperties = inventoryProperties;
+        this.reservations = reservations;
+        this.bookingTransaction = new TransactionTemplate(transactionManager);
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaximumSize())
+                .expireAfterWrite(properties.getLocalTtl())
+                .build();
+    }
+
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-key-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, properties.getPurgeInterval().toMillis());
+        purger.scheduleWithFixedDelay(this::purgeSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Book the request unless its key was seen before.
+     *
+     * @param booking books the request under the given reservation id; runs at most once per key
+     * @param lookup  finds a reservation by id, for claims whose node died before storing the response
+     * @throws IllegalArgumentException        if the key was used for a different request
+     * @throws IdempotencyKeyConflictException if the key's first request is still running on another node
+     */
+    public Result execute(String key, ReservationRequest request, LongFunction<ReservationResponse> booking,
+                          LongFunction<Optional<ReservationResponse>> lookup) {
+        String requestHash = fingerprint(request);
+        Completed known = completed.getIfPresent(key);
+        if (known != null) {
+            return replay(known, requestHash);
+        }
+
+        CompletableFuture<Completed> mine = new CompletableFuture<>();
+        CompletableFuture<Completed> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return replay(running.join(), requestHash);
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            Result result = claimAndBook(key, request.getHotelId(), requestHash, booking, lookup);
+            mine.complete(new Completed(requestHash, result.response()));
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Result claimAndBook(String key, Long hotelId, String requestHash,
+                                LongFunction<ReservationResponse> booking,
+                                LongFunction<Optional<ReservationResponse>> lookup) {
+        LocalDateTime now = LocalDateTime.now();
+        if (repository.claim(key, requestHash, now) == 0) {
+            Result earlier = replayOrTakeOver(key, requestHash, now, lookup);
+            if (earlier != null) {
+                return earlier;
+            }
+        }
+
+        // Recorded before booking, so whoever takes the claim over can tell whether this booking committed
+        long reservationId = reservations.nextId(hotelId);
+        ReservationResponse response;
+        try {
+            repository.assignReservation(key, reservationId);
+            response = bookAndComplete(key, () -> booking.apply(reservationId));
+        } catch (RuntimeException e) {
+            repository.release(key);
+            throw e;
+        }
+
+        completed.put(key, new Completed(requestHash, response));
+        return new Result(response, false);
+    }
+
+    /**
+     * Answer a key claimed before: replay its stored response, recover the response of a
+     * booking whose node died before storing it, or take over a claim past its lease.
+     *
+     * @return null if the claim was taken over and the request is to be booked
+     */
+    private Result replayOrTakeOver(String key, String requestHash, LocalDateTime now,
+                                    LongFunction<Optional<ReservationResponse>> lookup) {
+        // Claimed on the primary, so read it there; a replica may not have it yet
+        IdempotencyKey existing = ReadYourWrites.onPrimary(() -> repository.findById(key)).orElse(null);
+        LocalDateTime cutoff = now.minus(properties.getLease());
+        if (existing != null && existing.getResponse() == null && existing.getCreatedAt().isBefore(cutoff)) {
+            Long reservationId = existing.getReservationId();
+            Optional<ReservationResponse> booked = reservationId == null
+                    ? Optional.empty()
+                    : ReadYourWrites.onPrimary(() -> lookup.apply(reservationId));
+            if (booked.isPresent()) {
+                log.warn("Idempotency-Key {} was booked as reservation {} without storing the response",
+                        key, reservationId);
+                repository.complete(key, reservationId, write(booked.get()));
+                Completed stored = new Completed(existing.getRequestHash(), booked.get());
+                completed.put(key, stored);
+                return replay(stored, requestHash);
+            }
+            if (repository.reclaim(key, requestHash, now, cutoff) == 1) {
+                log.warn("Took over Idempotency-Key {}, left without a response for longer than {}",
+                        key, properties.getLease());
+                return null;
+            }
+            // Another retry took it over first
+            throw new IdempotencyKeyConflictException();
+        }
+        if (existing == null || existing.getResponse() == null) {
+            // Still running elsewhere, or released a moment ago by a failed booking
+            throw new IdempotencyKeyConflictException();
+        }
+        Completed stored = new Completed(existing.getRequestHash(), read(existing.getResponse()));
+        completed.put(key, stored);
+        return replay(stored, requestHash);
+    }
+
+    /**
+     * Book and store the response. In database mode both commit in one transaction, which
+     * the booking's own transaction joins; in in-memory mode the booking waits for the
+     * write-behind thread, and holding a transaction meanwhile would pin a connection.
+     */
+    private ReservationResponse bookAndComplete(String key, Supplier<ReservationResponse> booking) {
+        if (!inventoryProperties.isInMemory()) {
+            ReservationResponse response = bookingTransaction.execute(status -> {
+                ReservationResponse booked = booking.get();
+                repository.complete(key, booked.getId(), write(booked));
+                return booked;
+            });
+            // The booking marked its write before this transaction committed; move the mark past the commit
+            ReadYourWrites.markWrite();
+            return response;
+        }
+
+        ReservationResponse response = booking.get();
+        try {
+            repository.complete(key, response.getId(), write(response));
+        } catch (RuntimeException e) {
+            // Booked; retries on this node still get the response, other nodes get 409 until the lease ends
+            log.warn("Could not store the response for Idempotency-Key {}: {}", key, e.getMessage());
+        }
+        return response;
+    }
+
+    private static Result replay(Completed known, String requestHash) {
+        if (!known.requestHash().equals(requestHash)) {
+            throw new IllegalArgumentException("Idempotency-Key was already used for a different reservation request");
+        }
+        return new Result(known.response(), true);
+    }
+
+    /**
+     * SHA-256 over every field of the request, hex encoded.
+     */
+    static String fingerprint(ReservationRequest request) {
+        String canonical = request.getHotelId() + "\n" + request.getGuestName() + "\n" + request.getGuestEmail()
+                + "\n" + request.getCheckIn() + "\n" + request.getCheckOut() + "\n" + request.getGuests();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private String write(ReservationResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize reservation response", e);
+        }
+    }
+
+    private ReservationResponse read(String json) {
+        try {
+            return objectMapper.readValue(json, ReservationResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read stored reservation response", e);
+        }
+    }
+
+    void purge() {
+        int deleted = repository.deleteCreatedBefore(LocalDateTime.now().minus(properties.getTtl()));
+        if (deleted > 0) {
+            log.debug("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private void purgeSafely() {
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            // The next run deletes them
+            log.warn("Idempotency key purge failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The response for a key; replayed when it answers a retry rather than a new booking.
+     */
+    public record Result(ReservationResponse response, boolean replayed) {
+    }
+
+    private record Completed(String requestHash, ReservationResponse response) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.travel.service;
+
+import com.example.travel.config.InventoryProperties;
+import com.example.travel.config.ReadYourWrites;
+import com.example.travel.entity.Hotel;
+import com.example.travel.entity.RoomInventory;
+import com.example.travel.entity.RoomInventoryId;
+import com.example.travel.exception.ResourceNotFoundException;
+import com.example.travel.repository.HotelRepository;
+import com.example.travel.repository.RoomInventoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authoritative in-process room inventory used in IN_MEMORY admission mode.
+ * Each hotel night is a StripedRoomCounter, loaded from room_inventory (or the
+ * hotel allotment) the first time it is booked on this node. Counters of nights
+ * that have passed are dropped every travel.inventory.in-memory.eviction-interval,
+ * so the map only holds bookable nights.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryInventory {
+
+    private final InventoryProperties inventoryProperties;
+    private final RoomInventoryRepository roomInventoryRepository;
+    private final HotelRepository hotelRepository;
+
+    private final ConcurrentMap<RoomInventoryId, StripedRoomCounter> counters = new ConcurrentHashMap<>();
+    private ScheduledExecutorService evictor;
+
+    @PostConstruct
+    void start() {
+        if (!inventoryProperties.isInMemory()) {
+            return;
+        }
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-counter-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, inventoryProperties.getInMemory().getEvictionInterval().toMillis());
+        evictor.scheduleWithFixedDelay(this::evictPastNights, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+    }
+
+    /**
+     * Take one room on every night in [checkIn, checkOut).
+     *
+     * @return a hold on the taken rooms, or null if any night is sold out
+     * @throws ResourceNotFoundException if the hotel does not exist
+     */
+    InventoryHold tryReserve(Long hotelId, LocalDate checkIn, LocalDate checkOut) {
+        List<StripedRoomCounter> taken = new ArrayList<>();
+        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+            StripedRoomCounter counter = counterFor(hotelId, night);
+            if (!counter.tryTake()) {
+                taken.forEach(StripedRoomCounter::release);
+                return null;
+            }
+            taken.add(counter);
+        }
+        return new InventoryHold(taken);
+    }
+
+    /**
+     * Rooms left for a night as seen by this node, or null if the night is not loaded.
+     */
+    Integer remaining(Long hotelId, LocalDate night) {
+        StripedRoomCounter counter = counters.get(new RoomInventoryId(hotelId, night));
+        return counter == null ? null : counter.remaining();
+    }
+
+    /**
+     * Reload a night from room_inventory after the database turned down bookings this
+     * node had admitted on it (rooms changed elsewhere, e.g. by a hotel import).
+     * Replaces the counter with the database's rooms minus those still queued for writing;
+     * holds on the old counter release into it and are lost, which only under-admits.
+     *
+     * @param queued rooms admitted on this night that are not written yet
+     */
+    void resync(RoomInventoryId night, int queued) {
+        int rooms = loadRooms(night);
+        counters.put(night, new StripedRoomCounter(Math.max(0, rooms - queued),
+                inventoryProperties.getInMemory().getStripes()));
+
+        log.warn("Resynced hotel: {}, night: {} to {} rooms ({} queued)",
+                night.getHotelId(), night.getStayDate(), rooms, queued);
+    }
+
+    /**
+     * Drop counters of nights before today; they can no longer be booked.
+     */
+    void evictPastNights() {
+        LocalDate today = LocalDate.now();
+        int before = counters.size();
+        counters.keySet().removeIf(night -> night.getStayDate().isBefore(today));
+        log.debug("Evicted {} past night counters, {} left", before - counters.size(), counters.size());
+    }
+
+    private StripedRoomCounter counterFor(Long hotelId, LocalDate night) {
+        RoomInventoryId key = new RoomInventoryId(hotelId, night);
+        StripedRoomCounter counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+
+        // Load outside the map so a slow query never blocks other nights in the same bin
+        int rooms = loadRooms(key);
+        StripedRoomCounter loaded = new StripedRoomCounter(rooms, inventoryProperties.getInMemory().getStripes());
+        StripedRoomCounter existing = counters.putIfAbsent(key, loaded);
+
+        log.debug("Loaded {} rooms for hotel: {}, night: {}", rooms, hotelId, night);
+
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Rooms left on a night: its room_inventory row, or the hotel's allotment if nobody
+     * booked it yet. Read on the primary, as a lagging replica would start the counter
+     * with stock that is already sold and over-admit.
+     */
+    private int loadRooms(RoomInventoryId night) {
+        return ReadYourWrites.onPrimary(() -> roomInventoryRepository.findById(night)
+                .map(RoomInventory::getAvailableRooms)
+                .orElseGet(() -> allotment(night.getHotelId())));
+    }
+
+    private int allotment(Long hotelId) {
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with id: " + hotelId));
+        return hotel.getAvailableRooms() == null ? 0 : hotel.getAvailableRooms();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.travel.service;
+
+import java.util.List;
+
+/**
+ * Reservation token for rooms taken from in-memory counters.
+ * Kept with the pending booking until it is written, so the rooms can be
+ * handed back if the write-behind transaction fails.
+ */
+final class InventoryHold {
+
+    private final List<StripedRoomCounter> nights;
+
+    InventoryHold(List<StripedRoomCounter> nights) {
+        this.nights = nights;
+    }
+
+    void release() {
+        nights.forEach(StripedRoomCounter::release);
+    }
+}
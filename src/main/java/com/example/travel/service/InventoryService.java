@@ -0,0 +1,100 @@
+package com.example.travel.service;
+
+import com.example.travel.entity.Reservation;
+import com.example.travel.entity.RoomInventory;
+import com.example.travel.repository.RoomInventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Service layer for per-night room inventory.
+ * A stay books one room on every night in [checkIn, checkOut).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryService {
+
+    /**
+     * Upper bound on stay length, keeps the number of inventory rows touched per booking small.
+     */
+    static final int MAX_STAY_NIGHTS = 30;
+
+    private final RoomInventoryRepository roomInventoryRepository;
+
+    /**
+     * Take one room on every night of the stay.
+     * Must run inside the caller's transaction: when this returns false some nights may
+     * already be decremented, and the caller has to abort the transaction.
+     *
+     * @param hotelId  hotel to book
+     * @param checkIn  first night of the stay
+     * @param checkOut departure date (not a booked night)
+     * @return true if a room was taken on every night, false if a night is sold out
+     * or the hotel does not exist
+     */
+    @Transactional
+    public boolean reserveRoom(Long hotelId, LocalDate checkIn, LocalDate checkOut) {
+        long nights = countNights(checkIn, checkOut);
+
+        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+            roomInventoryRepository.seedNight(hotelId, night);
+        }
+
+        int reserved = roomInventoryRepository.takeRoom(hotelId, checkIn, checkOut);
+
+        log.debug("Reserved {} of {} nights at hotel: {}", reserved, nights, hotelId);
+
+        return reserved == nights;
+    }
+
+    /**
+     * Take one room per night for several stays at the same hotel, deciding each stay on its own.
+     * Every night the stays touch is seeded and then locked with a single SELECT ... FOR UPDATE;
+     * stays are admitted in order against the locked rows, so a rejected stay leaves no partial
+     * state. The decrements are written by dirty checking, batched with the other updates at commit.
+     *
+     * @param hotelId hotel to book
+     * @param stays   reservations for that hotel
+     * @return for each stay, whether a room was taken on every night; all false if the hotel is unknown
+     */
+    @Transactional
+    public boolean[] reserveRoomsLocked(Long hotelId, List<Reservation> stays) {
+        SortedSet<LocalDate> nights = new TreeSet<>();
+        for (Reservation stay : stays) {
+            countNights(stay.getCheckIn(), stay.getCheckOut());
+            stay.getCheckIn().datesUntil(stay.getCheckOut()).forEach(nights::add);
+        }
+        nights.forEach(night -> roomInventoryRepository.seedNight(hotelId, night));
+
+        Map<LocalDate, RoomInventory> locked = new HashMap<>();
+        roomInventoryRepository.lockStay(hotelId, nights.first(), nights.last().plusDays(1))
+                .forEach(night -> locked.put(night.getStayDate(), night));
+
+        boolean[] reserved = new boolean[stays.size()];
+        for (int i = 0; i < stays.size(); i++) {
+            List<RoomInventory> stay = stays.get(i).getCheckIn().datesUntil(stays.get(i).getCheckOut())
+                    .map(locked::get)
+                    .toList();
+            if (stay.stream().allMatch(night -> night != null && night.getAvailableRooms() > 0)) {
+                stay.forEach(night -> night.setAvailableRooms(night.getAvailableRooms() - 1));
+                reserved[i] = true;
+            }
+        }
+        return reserved;
+    }
+
+    private long countNights(LocalDate checkIn, LocalDate checkOut) {
+        long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
+        if (nights > MAX_STAY_NIGHTS) {
+            throw new IllegalArgumentException("Stays longer than " + MAX_STAY_NIGHTS + " nights are not supported");
+        }
+        return nights;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.travel.service;
+
+import com.example.travel.config.ReactiveHotelPageCache;
+import com.example.travel.dto.HotelResponse;
+import com.example.travel.dto.HotelSearchRequest;
+import com.example.travel.repository.ReactiveHotelSearchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Non-blocking hotel search: Redis over the Lettuce reactive API, MySQL over R2DBC.
+ * Nothing here blocks a thread while waiting for I/O, so the search fan-out runs on the
+ * drivers' event loops instead of one request thread per search.
+ *
+ * Only the Redis hotelSearch page cache is used, under the keys
+ * {@link HotelSearchService#searchHotels} gives per-page entries: a page v1 cached on its
+ * own is a hit here and v2's pages are hits for v1, and sold-out evictions reach both.
+ * Unlike v1 there is no per-node Caffeine copy, no shared city list
+ * (travel.search.share-city-results) and no cross-node single-flight or early refresh; a
+ * miss is coalesced per node only. Without a Redis cache (spring.cache.type other than
+ * redis) rows are streamed straight from the database. Once the in-memory catalogue is
+ * loaded it answers instead, as it does for the blocking path. Latency is recorded in
+ * travel.search under endpoint "reactive".
+ */
+@Service
+@Slf4j
+public class ReactiveHotelSearchService {
+
+    private static final String ENDPOINT = "reactive";
+
+    private final ReactiveHotelSearchRepository repository;
+    private final ReactiveHotelPageCache pageCache;
+    private final HotelCatalogueIndex catalogueIndex;
+    private final TravelMetrics travelMetrics;
+
+    // Concurrent misses for one key on this node share one pair of queries
+    private final ConcurrentMap<String, Mono<Page<HotelResponse>>> inFlight = new ConcurrentHashMap<>();
+
+    public ReactiveHotelSearchService(ReactiveHotelSearchRepository repository,
+                                      ObjectProvider<ReactiveHotelPageCache> pageCache,
+                                      HotelCatalogueIndex catalogueIndex,
+                                      TravelMetrics travelMetrics) {
+        this.repository = repository;
+        this.pageCache = pageCache.getIfAvailable();
+        this.catalogueIndex = catalogueIndex;
+        this.travelMetrics = travelMetrics;
+    }
+
+    /**
+     * One page of hotels, emitted one by one in the requested order.
+     *
+     * @throws IllegalArgumentException on invalid dates or price range, before anything is emitted
+     */
+    public Flux<HotelResponse> searchHotels(HotelSearchRequest request) {
+        long start = System.nanoTime();
+        HotelSearchService.validateStay(request);
+
+        String city = HotelSearchKeys.normalizeCity(request.getCity());
+        LocalDate checkIn = request.getCheckIn();
+        LocalDate checkOut = request.getCheckOut();
+        boolean compact = request.isCompact();
+        HotelSearchFilter filter = HotelSearchFilter.of(request);
+        Pageable pageable = PageRequest.of(request.getPage(), request.getSize(), filter.sort().getSort());
+
+        if (catalogueIndex.isReady()) {
+            List<HotelResponse> hotels = catalogueIndex.search(city, checkIn, checkOut, filter, pageable, compact)
+                    .getContent();
+            travelMetrics.recordSearch(ENDPOINT, city, TravelMetrics.SearchSource.CATALOGUE, start);
+            return Flux.fromIterable(hotels);
+        }
+        if (pageCache == null) {
+            return find(city, checkIn, checkOut, filter, pageable, compact)
+                    .doOnComplete(() -> travelMetrics.recordSearch(ENDPOINT, city,
+                            TravelMetrics.SearchSource.UNCACHED, start));
+        }
+
+        String key = HotelSearchKeys.page(city, checkIn, checkOut, request.getPage(), request.getSize(),
+                filter.key(), compact);
+        return pageCache.get(key)
+                .onErrorResume(e -> {
+                    log.warn("Reactive cache read failed for key {}: {}", key, e.getMessage());
+                    return Mono.empty();
+                })
+                .map(page -> new Found(page, TravelMetrics.SearchSource.CACHE_HIT))
+                .switchIfEmpty(Mono.defer(() -> load(key, city, checkIn, checkOut, filter, pageable, compact)
+                        .map(page -> new Found(page, TravelMetrics.SearchSource.CACHE_MISS))))
+                .doOnNext(found -> travelMetrics.recordSearch(ENDPOINT, city, found.source(), start))
+                .flatMapIterable(found -> found.page().getContent());
+    }
+
+    private Mono<Page<HotelResponse>> load(String key, String city, LocalDate checkIn, LocalDate checkOut,
+                                           HotelSearchFilter filter, Pageable pageable, boolean compact) {
+        return inFlight.computeIfAbsent(key, k -> Mono.zip(
+                        find(city, checkIn, checkOut, filter, pageable, compact).collectList(),
+                        repository.countAvailableForStay(city, checkIn, checkOut, filter.guests(),
+                                filter.minPrice(), filter.maxPrice(), filter.minRating()))
+                .<Page<HotelResponse>>map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()))
+                .flatMap(page -> pageCache.put(key, page, city, checkIn, checkOut)
+                        .onErrorResume(e -> {
+                            log.warn("Reactive cache write failed for key {}: {}", key, e.getMessage());
+                            return Mono.just(false);
+                        })
+                        .thenReturn(page))
+                .doFinally(signal -> inFlight.remove(k))
+                .cache());
+    }
+
+    private Flux<HotelResponse> find(String city, LocalDate checkIn, LocalDate checkOut, HotelSearchFilter filter,
+                                     Pageable pageable, boolean compact) {
+        return repository.findAvailableForStay(city, checkIn, checkOut, filter.guests(), filter.minPrice(),
+                filter.maxPrice(), filter.minRating(), filter.sort(), pageable.getOffset(), pageable.getPageSize(),
+                compact);
+    }
+
+    private record Found(Page<HotelResponse> page, TravelMetrics.SearchSource source) {
+    }
+}
@@ -1,64 +1,205 @@
 package com.example.travel.service;
 
+import com.example.travel.config.InventoryProperties;
+import com.example.travel.config.ReadYourWrites;
+import com.example.travel.dto.BatchReservationResponse;
+import com.example.travel.dto.BatchReservationResult;
 import com.example.travel.dto.ReservationRequest;
 import com.example.travel.dto.ReservationResponse;
-import com.example.travel.entity.Hotel;
 import com.example.travel.entity.Reservation;
+import com.example.travel.exception.IdempotencyKeyConflictException;
+import com.example.travel.exception.NoRoomsAvailableException;
 import com.example.travel.exception.ResourceNotFoundException;
-import com.example.travel.repository.HotelRepository;
-import com.example.travel.repository.ReservationRepository;
+import com.example.travel.repository.ShardedReservationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service layer for reservation operations.
- * Handles transaction boundaries and business logic.
+ * Validates requests and routes them to the configured admission path:
+ * a guarded UPDATE per booking (database mode) or striped in-memory counters
+ * with batched write-behind (in-memory mode).
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ReservationService {
 
-    private final ReservationRepository reservationRepository;
-    private final HotelRepository hotelRepository;
+    private final ReservationWriter reservationWriter;
+    private final InventoryProperties inventoryProperties;
+    private final InMemoryInventory inMemoryInventory;
+    private final ReservationWriteBehindQueue writeBehindQueue;
+    private final ShardedReservationRepository reservationRepository;
+    private final TravelMetrics travelMetrics;
+    private final IdempotencyKeyStore idempotencyKeyStore;
 
     /**
-     * Create a new reservation with proper validation and transaction management.
-     * Uses optimistic locking to prevent double-booking.
+     * Create a new reservation with proper validation.
+     * Transaction boundaries live in ReservationWriter: in database mode the booking
+     * runs in its own transaction, in in-memory mode it joins a write-behind batch.
+     * Either way concurrent bookings cannot oversell a night.
      *
      * @param request reservation details
      * @return created reservation
      * @throws ResourceNotFoundException if hotel not found
      * @throws IllegalArgumentException  if validation fails
      */
-    @Transactional
     public ReservationResponse createReservation(ReservationRequest request) {
-        log.info("Creating reservation for hotel: {}, guest: {}, checkIn: {}, checkOut: {}",
-                request.getHotelId(), request.getGuestName(), request.getCheckIn(), request.getCheckOut());
+        return createReservation(request, null);
+    }
+
+    /**
+     * Create a new reservation at most once per Idempotency-Key.
+     * A retry with the same key gets the original reservation back, from memory when it
+     * reaches the same node, without booking again (see IdempotencyKeyStore).
+     *
+     * @param idempotencyKey client-chosen key, or null to book unconditionally
+     * @throws IllegalArgumentException        if the key was used for a different request
+     * @throws IdempotencyKeyConflictException if the key's first request is still running
+     */
+    public ReservationResponse createReservation(ReservationRequest request, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || !idempotencyKeyStore.isEnabled()) {
+            return book(request, null);
+        }
+        long start = System.nanoTime();
+        IdempotencyKeyStore.Result result = idempotencyKeyStore.execute(idempotencyKey, request,
+                reservationId -> book(request, reservationId), this::findReservation);
+        if (result.replayed()) {
+            travelMetrics.recordBooking("single", inventoryMode(), "replayed", start);
+            log.debug("Replayed reservation {} for a repeated Idempotency-Key", result.response().getId());
+        }
+        return result.response();
+    }
+
+    /**
+     * @param reservationId id chosen beforehand (see IdempotencyKeyStore), or null to assign one on save
+     */
+    private ReservationResponse book(ReservationRequest request, Long reservationId) {
+        long start = System.nanoTime();
+        log.debug("Creating reservation for hotel: {}, checkIn: {}, checkOut: {}",
+                request.getHotelId(), request.getCheckIn(), request.getCheckOut());
+
+        Reservation savedReservation;
+        try {
+            Reservation reservation = toReservation(request);
+            reservation.setId(reservationId);
+            savedReservation = inventoryProperties.isInMemory()
+                    ? bookInMemory(reservation)
+                    : reservationWriter.book(reservation);
+        } catch (RuntimeException e) {
+            travelMetrics.recordRejection(e);
+            travelMetrics.recordBooking("single", inventoryMode(), "rejected", start);
+            throw e;
+        }
+        travelMetrics.recordBooking("single", inventoryMode(), "created", start);
+        // In in-memory mode the write ran on the write-behind thread, so mark it here for
+        // the read-your-writes cookie; in database mode this moves the mark past the commit
+        ReadYourWrites.markWrite();
+
+        log.debug("Reservation created successfully with id: {}", savedReservation.getId());
+
+        // Map to response DTO
+        return mapToResponse(savedReservation);
+    }
+
+    /**
+     * Create several reservations in one call.
+     * Each item is accepted or rejected on its own; accepted items are written
+     * together (one transaction with batched inserts in database mode, the
+     * write-behind batches in in-memory mode).
+     *
+     * @param requests reservation details, in client order
+     * @return one result per request, in the same order
+     */
+    public BatchReservationResponse createReservations(List<ReservationRequest> requests) {
+        long start = System.nanoTime();
+        log.debug("Creating batch of {} reservations", requests.size());
+
+        List<BatchReservationResult> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        List<Reservation> candidates = new ArrayList<>(requests.size());
+        List<Integer> candidateIndexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                candidates.add(toReservation(requests.get(i)));
+                candidateIndexes.add(i);
+            } catch (IllegalArgumentException e) {
+                travelMetrics.recordRejection(e);
+                results.set(i, rejected(i, e));
+            }
+        }
+
+        List<ReservationWriter.BookingOutcome> outcomes = inventoryProperties.isInMemory()
+                ? bookAllInMemory(candidates)
+                : reservationWriter.bookAll(candidates);
+
+        int created = 0;
+        for (int i = 0; i < outcomes.size(); i++) {
+            ReservationWriter.BookingOutcome outcome = outcomes.get(i);
+            int index = candidateIndexes.get(i);
+            if (outcome.rejection() == null) {
+                results.set(index, BatchReservationResult.builder()
+                        .index(index)
+                        .status(BatchReservationResult.Status.CREATED)
+                        .reservation(mapToResponse(outcome.reservation()))
+                        .build());
+                created++;
+            } else {
+                travelMetrics.recordRejection(outcome.rejection());
+                results.set(index, rejected(index, outcome.rejection()));
+            }
+        }
+        travelMetrics.recordBooking("batch", inventoryMode(), "processed", start);
+        if (created > 0) {
+            ReadYourWrites.markWrite();
+        }
+
+        log.debug("Batch reservation finished: {} created, {} rejected", created, requests.size() - created);
+
+        return BatchReservationResponse.builder()
+                .created(created)
+                .rejected(requests.size() - created)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Get a reservation by id; only the shard named in the id is read.
+     *
+     * @throws ResourceNotFoundException if no reservation has this id
+     */
+    public ReservationResponse getReservation(Long id) {
+        return findReservation(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with id: " + id));
+    }
+
+    private Optional<ReservationResponse> findReservation(long id) {
+        return reservationRepository.findById(id).map(this::mapToResponse);
+    }
 
+    /**
+     * Validate the stay and build the reservation entity.
+     *
+     * @throws IllegalArgumentException if the date range is invalid or too long
+     */
+    private Reservation toReservation(ReservationRequest request) {
         // Validate date range
         if (request.getCheckOut().isBefore(request.getCheckIn()) ||
                 request.getCheckOut().isEqual(request.getCheckIn())) {
             throw new IllegalArgumentException("Check-out date must be after check-in date");
         }
-
-        // Verify hotel exists
-        Hotel hotel = hotelRepository.findById(request.getHotelId())
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Hotel not found with id: " + request.getHotelId()
-                ));
-
-        // Check room availability
-        if (hotel.getAvailableRooms() == null || hotel.getAvailableRooms() < 1) {
-            throw new IllegalArgumentException("No rooms available at this hotel");
+        if (ChronoUnit.DAYS.between(request.getCheckIn(), request.getCheckOut()) > InventoryService.MAX_STAY_NIGHTS) {
+            throw new IllegalArgumentException("Stays longer than " + InventoryService.MAX_STAY_NIGHTS + " nights are not supported");
         }
 
-        log.debug("Hotel found: {}, available rooms: {}", hotel.getName(), hotel.getAvailableRooms());
-
-        // Create reservation entity
-        Reservation reservation = Reservation.builder()
+        return Reservation.builder()
                 .hotelId(request.getHotelId())
                 .guestName(request.getGuestName())
                 .guestEmail(request.getGuestEmail())
@@ -66,18 +207,62 @@ public class ReservationService {
                 .checkOut(request.getCheckOut())
                 .guests(request.getGuests())
                 .build();
+    }
 
-        // Save reservation (optimistic locking via @Version)
-        Reservation savedReservation = reservationRepository.save(reservation);
+    /**
+     * Admit against in-memory counters, then wait for the write-behind batch to commit,
+     * at most travel.inventory.in-memory.write-timeout (see ReservationWriteBehindQueue#await).
+     * No database connection is held while waiting.
+     */
+    private Reservation bookInMemory(Reservation reservation) {
+        InventoryHold hold = inMemoryInventory.tryReserve(
+                reservation.getHotelId(), reservation.getCheckIn(), reservation.getCheckOut());
+        if (hold == null) {
+            throw new NoRoomsAvailableException();
+        }
 
-        // Update hotel availability
-        hotel.setAvailableRooms(hotel.getAvailableRooms() - 1);
-        hotelRepository.save(hotel);
+        return writeBehindQueue.await(writeBehindQueue.submit(reservation, hold), writeBehindQueue.deadline());
+    }
 
-        log.info("Reservation created successfully with id: {}", savedReservation.getId());
+    /**
+     * Admit each item against in-memory counters, queue the accepted ones and wait for all of them.
+     */
+    private List<ReservationWriter.BookingOutcome> bookAllInMemory(List<Reservation> reservations) {
+        List<CompletableFuture<Reservation>> pending = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            try {
+                InventoryHold hold = inMemoryInventory.tryReserve(
+                        reservation.getHotelId(), reservation.getCheckIn(), reservation.getCheckOut());
+                pending.add(hold == null
+                        ? CompletableFuture.failedFuture(new NoRoomsAvailableException())
+                        : writeBehindQueue.submit(reservation, hold));
+            } catch (ResourceNotFoundException e) {
+                pending.add(CompletableFuture.failedFuture(e));
+            }
+        }
 
-        // Map to response DTO
-        return mapToResponse(savedReservation);
+        long deadline = writeBehindQueue.deadline();
+        List<ReservationWriter.BookingOutcome> outcomes = new ArrayList<>(reservations.size());
+        for (int i = 0; i < reservations.size(); i++) {
+            try {
+                outcomes.add(new ReservationWriter.BookingOutcome(writeBehindQueue.await(pending.get(i), deadline), null));
+            } catch (RuntimeException e) {
+                outcomes.add(new ReservationWriter.BookingOutcome(reservations.get(i), e));
+            }
+        }
+        return outcomes;
+    }
+
+    private String inventoryMode() {
+        return inventoryProperties.isInMemory() ? "in_memory" : "database";
+    }
+
+    private BatchReservationResult rejected(int index, RuntimeException rejection) {
+        return BatchReservationResult.builder()
+                .index(index)
+                .status(BatchReservationResult.Status.REJECTED)
+                .error(rejection.getMessage())
+                .build();
     }
 
     /**
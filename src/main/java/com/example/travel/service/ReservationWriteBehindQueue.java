@@ -0,0 +1,286 @@
+package com.example.travel.service;
+
+import com.example.travel.config.InventoryProperties;
+import com.example.travel.config.ReadYourWrites;
+import com.example.travel.entity.Reservation;
+import com.example.travel.entity.RoomInventoryId;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind queue for reservations admitted by InMemoryInventory.
+ * A single flusher thread drains accepted bookings in batches and writes each
+ * batch in one transaction through ReservationWriter. Callers get a future that
+ * completes once their batch has committed, so the API still returns a durable id.
+ *
+ * Callers wait at most travel.inventory.in-memory.write-timeout for the flusher to
+ * pick their booking up; a booking still queued by then is withdrawn and its rooms
+ * handed back. Bookings the database rejects (a night has fewer rooms than memory
+ * admitted) fail on their own, and the counters of their nights are reloaded.
+ *
+ * Only started in IN_MEMORY admission mode.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationWriteBehindQueue {
+
+    private final InventoryProperties inventoryProperties;
+    private final ReservationWriter reservationWriter;
+    private final InMemoryInventory inMemoryInventory;
+
+    private final ConcurrentLinkedQueue<PendingReservation> pending = new ConcurrentLinkedQueue<>();
+    // submit() holds the read lock, stop() the write lock: nothing is queued once the flusher may exit
+    private final ReadWriteLock stopping = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private Thread flusher;
+
+    @PostConstruct
+    void start() {
+        if (!inventoryProperties.isInMemory()) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "reservation-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Reservation write-behind started with batch size: {}", inventoryProperties.getInMemory().getFlushBatchSize());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        stopping.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            stopping.writeLock().unlock();
+        }
+        LockSupport.unpark(flusher);
+        flusher.join();
+    }
+
+    /**
+     * Queue an admitted reservation for writing.
+     *
+     * @param reservation reservation to insert
+     * @param hold        rooms taken for it, released if the write fails
+     * @return future completed with the saved reservation, or exceptionally if the batch failed
+     */
+    CompletableFuture<Reservation> submit(Reservation reservation, InventoryHold hold) {
+        stopping.readLock().lock();
+        try {
+            if (!running) {
+                hold.release();
+                return CompletableFuture.failedFuture(new IllegalStateException("Reservation write-behind is not running"));
+            }
+            PendingReservation entry = new PendingReservation(reservation, hold);
+            pending.add(entry);
+            return entry;
+        } finally {
+            stopping.readLock().unlock();
+        }
+    }
+
+    /**
+     * Deadline for {@link #await} of bookings submitted now.
+     */
+    long deadline() {
+        return System.nanoTime() + inventoryProperties.getInMemory().getWriteTimeout().toNanos();
+    }
+
+    /**
+     * Wait for a submitted reservation to be written.
+     * A booking still queued at the deadline is withdrawn and its rooms released; one
+     * whose batch is already being written gets one more write-timeout to commit.
+     *
+     * @param deadline from {@link #deadline()}, shared by all bookings of one request
+     * @throws CannotCreateTransactionException if the booking was withdrawn (503, safe to retry)
+     * @throws IllegalStateException            if its batch did not finish in time either
+     */
+    Reservation await(CompletableFuture<Reservation> written, long deadline) {
+        try {
+            try {
+                return written.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (written instanceof PendingReservation entry && entry.withdraw()) {
+                    throw new CannotCreateTransactionException("Reservation was not written within "
+                            + inventoryProperties.getInMemory().getWriteTimeout() + " and was withdrawn");
+                }
+            }
+            try {
+                return written.get(inventoryProperties.getInMemory().getWriteTimeout().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                log.error("Write-behind batch did not finish in time; the reservation may still be written");
+                throw new IllegalStateException("Reservation write did not finish in time", e);
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the reservation write", e);
+        }
+    }
+
+    private void flushLoop() {
+        long idleNanos = inventoryProperties.getInMemory().getFlushInterval().toNanos();
+        // Keep draining after stop() so nothing admitted is lost on shutdown
+        while (running || !pending.isEmpty()) {
+            List<PendingReservation> batch = drain();
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(idleNanos);
+            } else {
+                try {
+                    write(batch);
+                } finally {
+                    // Writes mark this thread (ReplicaRoutingDataSource); no request reads
+                    // the mark here, and later reads on the thread must not wait for replicas
+                    ReadYourWrites.clear();
+                }
+            }
+        }
+        failLeftovers();
+    }
+
+    /**
+     * Last resort if the loop ended with entries queued; no caller is left waiting forever.
+     */
+    private void failLeftovers() {
+        PendingReservation entry;
+        while ((entry = pending.poll()) != null) {
+            if (entry.take()) {
+                entry.hold().release();
+                entry.completeExceptionally(new IllegalStateException("Reservation write-behind is not running"));
+            }
+        }
+    }
+
+    private List<PendingReservation> drain() {
+        int batchSize = inventoryProperties.getInMemory().getFlushBatchSize();
+        List<PendingReservation> batch = new ArrayList<>(Math.min(batchSize, 64));
+        PendingReservation entry;
+        while (batch.size() < batchSize && (entry = pending.poll()) != null) {
+            // Withdrawn entries have already released their rooms
+            if (entry.take()) {
+                batch.add(entry);
+            }
+        }
+        return batch;
+    }
+
+    private void write(List<PendingReservation> batch) {
+        List<ReservationWriter.BookingOutcome> outcomes;
+        try {
+            outcomes = reservationWriter.writeAdmitted(
+                    batch.stream().map(PendingReservation::reservation).toList());
+        } catch (RuntimeException e) {
+            log.error("Write-behind batch of {} reservations failed, releasing held rooms", batch.size(), e);
+            for (PendingReservation entry : batch) {
+                entry.hold().release();
+                entry.completeExceptionally(e);
+            }
+            return;
+        }
+
+        Set<RoomInventoryId> resync = new LinkedHashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingReservation entry = batch.get(i);
+            ReservationWriter.BookingOutcome outcome = outcomes.get(i);
+            if (outcome.rejection() == null) {
+                entry.complete(outcome.reservation());
+            } else {
+                entry.hold().release();
+                entry.completeExceptionally(outcome.rejection());
+                resync.addAll(nightsOf(entry.reservation()));
+            }
+        }
+        resync.forEach(night -> inMemoryInventory.resync(night, queuedOn(night)));
+    }
+
+    /**
+     * Rooms held by bookings still queued for a night, i.e. admitted but not yet in the database.
+     */
+    private int queuedOn(RoomInventoryId night) {
+        int rooms = 0;
+        for (PendingReservation entry : pending) {
+            Reservation reservation = entry.reservation();
+            if (entry.queued()
+                    && reservation.getHotelId().equals(night.getHotelId())
+                    && !night.getStayDate().isBefore(reservation.getCheckIn())
+                    && night.getStayDate().isBefore(reservation.getCheckOut())) {
+                rooms++;
+            }
+        }
+        return rooms;
+    }
+
+    private static List<RoomInventoryId> nightsOf(Reservation reservation) {
+        List<RoomInventoryId> nights = new ArrayList<>();
+        for (LocalDate night = reservation.getCheckIn(); night.isBefore(reservation.getCheckOut()); night = night.plusDays(1)) {
+            nights.add(new RoomInventoryId(reservation.getHotelId(), night));
+        }
+        return nights;
+    }
+
+    /**
+     * A queued booking and the future its caller waits on. Taken exactly once, either
+     * by the flusher for writing or by its caller withdrawing it after the timeout.
+     */
+    private static final class PendingReservation extends CompletableFuture<Reservation> {
+
+        private final Reservation reservation;
+        private final InventoryHold hold;
+        private final AtomicBoolean taken = new AtomicBoolean();
+
+        private PendingReservation(Reservation reservation, InventoryHold hold) {
+            this.reservation = reservation;
+            this.hold = hold;
+        }
+
+        Reservation reservation() {
+            return reservation;
+        }
+
+        InventoryHold hold() {
+            return hold;
+        }
+
+        boolean queued() {
+            return !taken.get();
+        }
+
+        boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+
+        boolean withdraw() {
+            if (!take()) {
+                return false;
+            }
+            hold.release();
+            return true;
+        }
+    }
+}
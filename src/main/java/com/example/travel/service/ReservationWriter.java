@@ -0,0 +1,180 @@
+package com.example.travel.service;
+
+import com.example.travel.entity.Reservation;
+import com.example.travel.entity.RoomInventoryId;
+import com.example.travel.exception.NoRoomsAvailableException;
+import com.example.travel.exception.ResourceNotFoundException;
+import com.example.travel.repository.HotelRepository;
+import com.example.travel.repository.RoomInventoryRepository;
+import com.example.travel.repository.ShardedReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Transactional write paths for reservations.
+ * Kept apart from ReservationService so requests admitted in memory never
+ * hold a pooled connection while they wait for the write-behind flush.
+ * Reservations on another shard than the primary are removed again if the
+ * inventory transaction rolls back (see ShardedReservationRepository).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationWriter {
+
+    private final ShardedReservationRepository reservationRepository;
+    private final HotelRepository hotelRepository;
+    private final RoomInventoryRepository roomInventoryRepository;
+    private final InventoryService inventoryService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Take one room per night with a guarded UPDATE and insert the reservation,
+     * all in one transaction.
+     *
+     * @throws ResourceNotFoundException if hotel not found
+     * @throws NoRoomsAvailableException if any night is sold out
+     */
+    @Transactional
+    public Reservation book(Reservation reservation) {
+        // The hotel is only looked up on the rejection path to tell "unknown" from "sold out"
+        if (!inventoryService.reserveRoom(reservation.getHotelId(), reservation.getCheckIn(), reservation.getCheckOut())) {
+            if (!hotelRepository.existsById(reservation.getHotelId())) {
+                throw new ResourceNotFoundException("Hotel not found with id: " + reservation.getHotelId());
+            }
+            throw new NoRoomsAvailableException();
+        }
+
+        publishAvailabilityChanged(reservation);
+        return reservationRepository.save(reservation);
+    }
+
+    /**
+     * Write a batch of reservations already admitted by InMemoryInventory.
+     * Rooms are aggregated per hotel night, so a flash sale on one hotel costs one
+     * inventory UPDATE per night per batch instead of one per booking.
+     *
+     * A night with fewer rooms in the database than memory admitted (changed by an
+     * import or another node) rejects only the reservations staying that night; rooms
+     * already taken for them on their other nights are given back.
+     *
+     * @return one outcome per reservation, in the given order
+     */
+    @Transactional
+    public List<BookingOutcome> writeAdmitted(List<Reservation> reservations) {
+        Map<RoomInventoryId, List<Reservation>> staysPerNight = new LinkedHashMap<>();
+        for (Reservation reservation : reservations) {
+            for (LocalDate night = reservation.getCheckIn(); night.isBefore(reservation.getCheckOut()); night = night.plusDays(1)) {
+                staysPerNight.computeIfAbsent(new RoomInventoryId(reservation.getHotelId(), night), key -> new ArrayList<>())
+                        .add(reservation);
+            }
+        }
+
+        Map<Reservation, RuntimeException> rejections = new IdentityHashMap<>();
+        Set<RoomInventoryId> taken = new HashSet<>();
+        Map<RoomInventoryId, Integer> overTaken = new HashMap<>();
+        staysPerNight.forEach((night, stays) -> {
+            List<Reservation> admitted = stays.stream().filter(stay -> !rejections.containsKey(stay)).toList();
+            if (admitted.isEmpty()) {
+                return;
+            }
+            roomInventoryRepository.seedNight(night.getHotelId(), night.getStayDate());
+            if (roomInventoryRepository.takeRooms(night.getHotelId(), night.getStayDate(), admitted.size()) == 1) {
+                taken.add(night);
+                return;
+            }
+
+            log.warn("Room inventory for hotel {} on {} is behind the in-memory counters, rejecting {} reservations",
+                    night.getHotelId(), night.getStayDate(), admitted.size());
+            NoRoomsAvailableException rejection = new NoRoomsAvailableException();
+            for (Reservation stay : admitted) {
+                rejections.put(stay, rejection);
+                // Nights of this stay taken so far counted it in
+                for (LocalDate other = stay.getCheckIn(); other.isBefore(stay.getCheckOut()); other = other.plusDays(1)) {
+                    RoomInventoryId otherNight = new RoomInventoryId(stay.getHotelId(), other);
+                    if (taken.contains(otherNight)) {
+                        overTaken.merge(otherNight, 1, Integer::sum);
+                    }
+                }
+            }
+        });
+        overTaken.forEach((night, rooms) ->
+                roomInventoryRepository.returnRooms(night.getHotelId(), night.getStayDate(), rooms));
+
+        List<Reservation> admitted = reservations.stream()
+                .filter(reservation -> !rejections.containsKey(reservation))
+                .toList();
+        reservationRepository.saveAll(admitted);
+        admitted.forEach(this::publishAvailabilityChanged);
+
+        log.debug("Wrote {} of {} admitted reservations across {} hotel nights",
+                admitted.size(), reservations.size(), staysPerNight.size());
+
+        return reservations.stream()
+                .map(reservation -> new BookingOutcome(reservation, rejections.get(reservation)))
+                .toList();
+    }
+
+    /**
+     * Book a batch of reservations in one transaction, deciding each item on its own.
+     * Hotels are processed in id order so concurrent batches lock nights in the same order.
+     * Per hotel, all nights are locked once and stays are admitted in memory, so the batch
+     * costs a few statements per hotel plus batched UPDATEs and INSERTs at commit.
+     *
+     * @return one outcome per reservation, in the given order
+     */
+    @Transactional
+    public List<BookingOutcome> bookAll(List<Reservation> reservations) {
+        Map<Long, List<Reservation>> byHotel = new TreeMap<>();
+        reservations.forEach(reservation ->
+                byHotel.computeIfAbsent(reservation.getHotelId(), hotelId -> new ArrayList<>()).add(reservation));
+
+        Map<Reservation, RuntimeException> rejections = new IdentityHashMap<>();
+        byHotel.forEach((hotelId, stays) -> {
+            boolean[] reserved = inventoryService.reserveRoomsLocked(hotelId, stays);
+            RuntimeException rejection = null;
+            for (int i = 0; i < stays.size(); i++) {
+                if (!reserved[i]) {
+                    if (rejection == null) {
+                        rejection = hotelRepository.existsById(hotelId)
+                                ? new NoRoomsAvailableException()
+                                : new ResourceNotFoundException("Hotel not found with id: " + hotelId);
+                    }
+                    rejections.put(stays.get(i), rejection);
+                }
+            }
+        });
+
+        List<Reservation> admitted = reservations.stream()
+                .filter(reservation -> !rejections.containsKey(reservation))
+                .toList();
+        reservationRepository.saveAll(admitted);
+        admitted.forEach(this::publishAvailabilityChanged);
+
+        log.debug("Batch booked {} of {} reservations", admitted.size(), reservations.size());
+
+        return reservations.stream()
+                .map(reservation -> new BookingOutcome(reservation, rejections.get(reservation)))
+                .toList();
+    }
+
+    /**
+     * Let search caches react once the transaction commits (see SearchCacheInvalidator).
+     */
+    private void publishAvailabilityChanged(Reservation reservation) {
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(
+                reservation.getHotelId(), reservation.getCheckIn(), reservation.getCheckOut()));
+    }
+
+    /**
+     * Result of booking one reservation in a batch; rejection is null when it was saved.
+     */
+    public record BookingOutcome(Reservation reservation, RuntimeException rejection) {
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.travel.service;
+
+import com.example.travel.config.CacheEviction;
+import com.example.travel.config.ReadYourWrites;
+import com.example.travel.config.RedisConfig;
+import com.example.travel.config.ReplicaProperties;
+import com.example.travel.config.SearchCacheIndex;
+import com.example.travel.config.SearchProperties;
+import com.example.travel.entity.Hotel;
+import com.example.travel.repository.HotelRepository;
+import com.example.travel.repository.RoomInventoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evicts hotel search entries once committed bookings change what a search returns.
+ *
+ * A search only stops listing a hotel when one of the stay's nights sells out, so booked
+ * nights are collected per hotel and checked against the inventory every
+ * travel.search.invalidation-delay. For each newly sold-out night, the entries of that
+ * hotel's city whose stay includes the night are evicted by exact key (see
+ * SearchCacheIndex); other stays and other cities are untouched. With a zero delay every
+ * commit is handled inline. The sold-out nights found are also applied to the in-memory
+ * HotelCatalogueIndex when it is enabled.
+ *
+ * With read replicas, sold-out checks read the primary, and every eviction is repeated
+ * once travel.datasource.replicas.max-lag has passed: a search that missed the entry in
+ * between may have cached a replica's view from before the booking.
+ *
+ * Hotel cities are remembered per node and forgotten whenever {@link #evictCities} reports
+ * changed hotels, as an import may move a hotel to another city.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchCacheInvalidator {
+
+    private static final String[] SEARCH_CACHES = {
+            RedisConfig.HOTEL_SEARCH_CACHE, RedisConfig.HOTEL_SEARCH_CITY_CACHE, RedisConfig.HOTEL_SEARCH_COUNT_CACHE
+    };
+
+    private final SearchProperties searchProperties;
+    private final ReplicaProperties replicaProperties;
+    private final CacheManager cacheManager;
+    private final HotelRepository hotelRepository;
+    private final RoomInventoryRepository roomInventoryRepository;
+    private final HotelCatalogueIndex catalogueIndex;
+    private final SearchCacheIndex searchCacheIndex;
+
+    private final Map<Long, Set<LocalDate>> bookedNights = new ConcurrentHashMap<>();
+    private final Map<Long, String> hotelCities = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    void start() {
+        boolean coalescing = !searchProperties.getInvalidationDelay().isZero();
+        if (!coalescing && !replicaProperties.isEnabled()) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-cache-invalidator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (coalescing) {
+            long delayMillis = Math.max(1, searchProperties.getInvalidationDelay().toMillis());
+            flusher.scheduleWithFixedDelay(this::flushSafely, delayMillis, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher != null) {
+            flusher.shutdown();
+            flushSafely();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        // Sets are only touched inside compute() and taken out with remove(), so a flush
+        // never misses nights added while it runs
+        bookedNights.compute(event.hotelId(), (hotelId, nights) -> {
+            Set<LocalDate> merged = nights != null ? nights : new HashSet<>();
+            for (LocalDate night = event.checkIn(); night.isBefore(event.checkOut()); night = night.plusDays(1)) {
+                merged.add(night);
+            }
+            return merged;
+        });
+        if (searchProperties.getInvalidationDelay().isZero()) {
+            flushSafely();
+        }
+    }
+
+    /**
+     * Evict the search entries covering every collected night that has sold out.
+     */
+    void flush() {
+        Map<String, Set<LocalDate>> soldOutByCity = new TreeMap<>();
+        for (Long hotelId : bookedNights.keySet()) {
+            Set<LocalDate> nights = bookedNights.remove(hotelId);
+            List<LocalDate> soldOut = nights == null ? List.of() : soldOut(hotelId, new TreeSet<>(nights));
+            if (!soldOut.isEmpty()) {
+                String city = cityOf(hotelId);
+                if (city != null) {
+                    soldOutByCity.computeIfAbsent(city, c -> new TreeSet<>()).addAll(soldOut);
+                }
+            }
+        }
+
+        evictNights(soldOutByCity);
+        if (!soldOutByCity.isEmpty()) {
+            log.debug("Evicted hotel search entries for sold-out nights: {}", soldOutByCity);
+        }
+    }
+
+    /**
+     * Evict every search entry of the given cities (normalized, see CityKey) after their
+     * hotels changed. Scans the keyspace on Redis, so it is kept off the booking path.
+     */
+    public void evictCities(Collection<String> cityKeys) {
+        // A changed hotel may have moved to another city
+        hotelCities.clear();
+        evictCitiesNow(cityKeys);
+        if (replicaProperties.isEnabled() && flusher != null && !cityKeys.isEmpty()) {
+            List<String> cities = List.copyOf(cityKeys);
+            flusher.schedule(() -> evictCitiesNow(cities),
+                    replicaProperties.getMaxLag().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void evictCitiesNow(Collection<String> cityKeys) {
+        for (String city : cityKeys) {
+            for (String cacheName : SEARCH_CACHES) {
+                Cache cache = cacheManager.getCache(cacheName);
+                if (cache != null) {
+                    CacheEviction.evictByPrefix(cache, city + '|');
+                }
+            }
+        }
+    }
+
+    private void evictNights(Map<String, Set<LocalDate>> nightsByCity) {
+        evictNightsNow(nightsByCity);
+        if (replicaProperties.isEnabled() && flusher != null && !nightsByCity.isEmpty()) {
+            Map<String, Set<LocalDate>> nights = Map.copyOf(nightsByCity);
+            flusher.schedule(() -> evictNightsNow(nights),
+                    replicaProperties.getMaxLag().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void evictNightsNow(Map<String, Set<LocalDate>> nightsByCity) {
+        nightsByCity.forEach((city, nights) -> {
+            for (String cacheName : SEARCH_CACHES) {
+                Cache cache = cacheManager.getCache(cacheName);
+                if (cache == null) {
+                    continue;
+                }
+                for (LocalDate night : nights) {
+                    if (searchCacheIndex.evictNight(cache, city, night) < 0) {
+                        break; // Not indexed: the whole city went at once
+                    }
+                }
+            }
+        });
+    }
+
+    private List<LocalDate> soldOut(Long hotelId, TreeSet<LocalDate> nights) {
+        if (nights.isEmpty()) {
+            return List.of();
+        }
+        LocalDate from = nights.first();
+        LocalDate to = nights.last().plusDays(1);
+        // The booking just committed on the primary; a replica may not have it yet
+        List<LocalDate> soldOut = ReadYourWrites.onPrimary(() -> roomInventoryRepository.findSoldOutNights(hotelId, from, to));
+        catalogueIndex.updateSoldOut(hotelId, from, to, soldOut);
+        return soldOut.stream().filter(nights::contains).toList();
+    }
+
+    private String cityOf(Long hotelId) {
+        String city = hotelCities.get(hotelId);
+        if (city == null) {
+            city = hotelRepository.findById(hotelId).map(Hotel::getCityKey).orElse(null);
+            if (city != null) {
+                hotelCities.put(hotelId, city);
+            }
+        }
+        return city;
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Entries missed here still expire by TTL
+            log.warn("Hotel search cache invalidation failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.travel.service;
+
+import com.example.travel.config.CacheTierProperties;
+import com.example.travel.config.SearchProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Read-through loading for hotel search caches that keeps cache misses off the database.
+ *
+ * - Single flight: concurrent misses for one key on a node share one query.
+ * - Redis lease (travel.search.loading.redis-lease): across nodes, only the node holding
+ *   a short SET NX lease queries; the others poll the cache until the lease runs out.
+ * - Early refresh: keys this node loaded are recomputed in the background shortly before
+ *   their Redis TTL ends, with probability rising as expiry nears (XFetch: refresh when
+ *   now - delta * beta * ln(random) passes the expiry, delta being the load time).
+ */
+@Component
+@Slf4j
+public class SearchCacheLoader {
+
+    private static final String LEASE_PREFIX = "lease:";
+
+    /**
+     * Delete the lease only while this node still holds it, in one step: a lease that ran
+     * out during a slow load may already belong to another node.
+     */
+    static final RedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0",
+            Long.class);
+
+    private final SearchProperties searchProperties;
+    private final CacheTierProperties cacheTierProperties;
+    private final StringRedisTemplate redisTemplate;
+    private final Executor refresher;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final com.github.benmanes.caffeine.cache.Cache<String, LoadStats> loadStats = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .build();
+
+    @Autowired
+    public SearchCacheLoader(SearchProperties searchProperties,
+                             CacheTierProperties cacheTierProperties,
+                             StringRedisTemplate redisTemplate) {
+        this(searchProperties, cacheTierProperties, redisTemplate,
+                refreshPool(searchProperties.getLoading().getRefreshThreads()));
+    }
+
+    SearchCacheLoader(SearchProperties searchProperties,
+                      CacheTierProperties cacheTierProperties,
+                      StringRedisTemplate redisTemplate,
+                      Executor refresher) {
+        this.searchProperties = searchProperties;
+        this.cacheTierProperties = cacheTierProperties;
+        this.redisTemplate = redisTemplate;
+        this.refresher = refresher;
+    }
+
+    @PreDestroy
+    void stop() {
+        if (refresher instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Return the cached value for the key, loading and caching it on a miss.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Cache cache, String key, Supplier<T> loader) {
+        String flightKey = cache.getName() + "::" + key;
+        Cache.ValueWrapper hit = cache.get(key);
+        if (hit != null) {
+            refreshEarlyIfDue(cache, key, flightKey, loader);
+            return (T) hit.get();
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(flightKey, mine);
+        if (running != null) {
+            Object shared = join(running);
+            // null: the other load gave up (e.g. refresh pool full), so load ourselves
+            return shared != null ? (T) shared : loadAndCache(cache, key, flightKey, loader);
+        }
+        try {
+            // Another leader may have finished between our miss and taking the flight
+            Cache.ValueWrapper late = cache.get(key);
+            T value = late != null ? (T) late.get() : loadWithLease(cache, key, flightKey, loader);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, mine);
+        }
+    }
+
+    private <T> void refreshEarlyIfDue(Cache cache, String key, String flightKey, Supplier<T> loader) {
+        double beta = searchProperties.getLoading().getEarlyRefreshBeta();
+        LoadStats stats = beta > 0 ? loadStats.getIfPresent(flightKey) : null;
+        if (stats == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        double head = stats.loadNanos() * beta * -Math.log(ThreadLocalRandom.current().nextDouble());
+        if (now + head < stats.expiresAtNanos() || now > stats.expiresAtNanos()) {
+            return;
+        }
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(flightKey, mine) != null) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    mine.complete(loadWithLease(cache, key, flightKey, loader));
+                } catch (RuntimeException e) {
+                    mine.complete(null);
+                    log.warn("Early refresh of {} failed: {}", flightKey, e.getMessage());
+                } finally {
+                    inFlight.remove(flightKey, mine);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(flightKey, mine);
+            mine.complete(null);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T loadWithLease(Cache cache, String key, String flightKey, Supplier<T> loader) {
+        SearchProperties.Loading loading = searchProperties.getLoading();
+        if (!loading.isRedisLease()) {
+            return loadAndCache(cache, key, flightKey, loader);
+        }
+        String leaseKey = LEASE_PREFIX + flightKey;
+        Boolean acquired;
+        try {
+            acquired = redisTemplate.opsForValue().setIfAbsent(leaseKey, nodeId, loading.getLeaseTtl());
+        } catch (RuntimeException e) {
+            log.warn("Could not take load lease {}: {}", leaseKey, e.getMessage());
+            return loadAndCache(cache, key, flightKey, loader);
+        }
+        if (Boolean.TRUE.equals(acquired)) {
+            try {
+                return loadAndCache(cache, key, flightKey, loader);
+            } finally {
+                releaseLease(leaseKey);
+            }
+        }
+
+        // Another node is loading: wait for its value, but never past the lease
+        long deadline = System.nanoTime() + loading.getLeaseTtl().toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(loading.getLeasePollInterval().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            Cache.ValueWrapper hit = cache.get(key);
+            if (hit != null) {
+                return (T) hit.get();
+            }
+        }
+        return loadAndCache(cache, key, flightKey, loader);
+    }
+
+    private <T> T loadAndCache(Cache cache, String key, String flightKey, Supplier<T> loader) {
+        long start = System.nanoTime();
+        T value = loader.get();
+        long loaded = System.nanoTime();
+        cache.put(key, value);
+        loadStats.put(flightKey, new LoadStats(loaded - start,
+                loaded + cacheTierProperties.ttlFor(cache.getName()).toNanos()));
+        return value;
+    }
+
+    private void releaseLease(String leaseKey) {
+        try {
+            redisTemplate.execute(RELEASE_LEASE, List.of(leaseKey), nodeId);
+        } catch (RuntimeException e) {
+            log.debug("Could not release load lease {}: {}", leaseKey, e.getMessage());
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private static ExecutorService refreshPool(int threads) {
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(256),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "search-cache-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * How long the last load of a key took and when its Redis entry expires (nanoTime).
+     */
+    private record LoadStats(long loadNanos, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.travel.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free room counter for one hotel night, split across padded cells.
+ * Like LongAdder, each thread starts at a random cell so concurrent bookings
+ * CAS on different cache lines; unlike LongAdder, a take never drives a cell
+ * below zero, so the sum can never go negative.
+ *
+ * A take scans the other cells when its start cell is empty. A room released
+ * into an already scanned cell during that pass can be missed, which may reject
+ * a booking spuriously but never oversells.
+ */
+final class StripedRoomCounter {
+
+    /**
+     * 16 ints = one 64-byte cache line between used cells.
+     */
+    private static final int PADDING = 16;
+
+    private final AtomicIntegerArray cells;
+    private final int stripes;
+
+    StripedRoomCounter(int rooms, int stripes) {
+        this.stripes = stripes;
+        this.cells = new AtomicIntegerArray(stripes * PADDING);
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PADDING, rooms / stripes + (i < rooms % stripes ? 1 : 0));
+        }
+    }
+
+    /**
+     * Take one room if any cell has one.
+     *
+     * @return true if a room was taken
+     */
+    boolean tryTake() {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            int index = ((start + i) % stripes) * PADDING;
+            int rooms = cells.get(index);
+            while (rooms > 0) {
+                if (cells.compareAndSet(index, rooms, rooms - 1)) {
+                    return true;
+                }
+                rooms = cells.get(index);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return one room, e.g. when the booking holding it could not be written.
+     */
+    void release() {
+        cells.incrementAndGet(ThreadLocalRandom.current().nextInt(stripes) * PADDING);
+    }
+
+    int remaining() {
+        int rooms = 0;
+        for (int i = 0; i < stripes; i++) {
+            rooms += cells.get(i * PADDING);
+        }
+        return rooms;
+    }
+}
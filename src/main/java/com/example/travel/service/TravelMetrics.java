@@ -0,0 +1,144 @@
+package com.example.travel.service;
+
+import com.example.travel.config.MetricsProperties;
+import com.example.travel.exception.NoRoomsAvailableException;
+import com.example.travel.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and counters for the search and booking paths, published on /actuator/prometheus.
+ *
+ * - travel.search: search latency by endpoint (page, cursor, reactive) and source (see
+ *   {@link SearchSource}), so a slow p99 can be told apart between cached and queried searches
+ * - travel.search.cities: searches by city and source, a plain counter; city is kept off the
+ *   latency histogram, where every city would multiply its buckets
+ * - travel.booking: booking latency by kind (single, batch), inventory mode and outcome
+ * - travel.booking.rejections: rejected bookings by reason (no_rooms, not_found, conflict,
+ *   invalid, error)
+ *
+ * Pool, Redis command, Hibernate and HTTP metrics come from Spring Boot's auto-configuration.
+ * Meters are registered once per tag combination and reused, so recording does not go
+ * through the registry's lookup on every request.
+ */
+@Component
+public class TravelMetrics {
+
+    public static final String SEARCH = "travel.search";
+    public static final String SEARCH_CITIES = "travel.search.cities";
+    public static final String BOOKING = "travel.booking";
+    public static final String BOOKING_REJECTIONS = "travel.booking.rejections";
+
+    static final String OTHER_CITY = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final MetricsProperties properties;
+    private final Set<String> taggedCities = ConcurrentHashMap.newKeySet();
+    private final Map<String, Timer> searchTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> cityCounters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> bookingTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejectionCounters = new ConcurrentHashMap<>();
+
+    public TravelMetrics(MeterRegistry meterRegistry, MetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    public void recordSearch(String endpoint, String city, SearchSource source, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        searchTimers.computeIfAbsent(endpoint + '|' + source.tag(), key -> Timer.builder(SEARCH)
+                        .description("Hotel search latency")
+                        .tag("endpoint", endpoint)
+                        .tag("source", source.tag())
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(1))
+                        .maximumExpectedValue(Duration.ofSeconds(10))
+                        .register(meterRegistry))
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        String cityTag = cityTag(city);
+        cityCounters.computeIfAbsent(cityTag + '|' + source.tag(), key -> Counter.builder(SEARCH_CITIES)
+                        .description("Hotel searches by city")
+                        .tag("city", cityTag)
+                        .tag("source", source.tag())
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * @param outcome created or rejected for single bookings, replayed for retries answered
+     *                from their Idempotency-Key; processed for batches, whose
+     *                items are counted one by one in {@link #recordRejection}
+     */
+    public void recordBooking(String kind, String mode, String outcome, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        bookingTimers.computeIfAbsent(kind + '|' + mode + '|' + outcome, key -> Timer.builder(BOOKING)
+                        .description("Reservation booking latency")
+                        .tag("kind", kind)
+                        .tag("mode", mode)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(1))
+                        .maximumExpectedValue(Duration.ofSeconds(30))
+                        .register(meterRegistry))
+                .record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Count one rejected booking (a whole single booking, or one item of a batch).
+     */
+    public void recordRejection(RuntimeException rejection) {
+        rejectionCounters.computeIfAbsent(rejectionReason(rejection), reason -> Counter.builder(BOOKING_REJECTIONS)
+                        .description("Rejected reservation bookings")
+                        .tag("reason", reason)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    static String rejectionReason(RuntimeException rejection) {
+        if (rejection instanceof NoRoomsAvailableException) {
+            return "no_rooms";
+        }
+        if (rejection instanceof ResourceNotFoundException) {
+            return "not_found";
+        }
+        if (rejection instanceof ConcurrencyFailureException) {
+            return "conflict";
+        }
+        if (rejection instanceof IllegalArgumentException) {
+            return "invalid";
+        }
+        return "error";
+    }
+
+    private String cityTag(String city) {
+        if (taggedCities.contains(city)) {
+            return city;
+        }
+        if (taggedCities.size() < properties.getMaxCityTags()) {
+            taggedCities.add(city);
+            return city;
+        }
+        return OTHER_CITY;
+    }
+
+    /**
+     * Where a search was answered from: the in-memory catalogue, the search caches, or a
+     * query after a cache miss. Cursor slices are not cached and always count as UNCACHED.
+     */
+    public enum SearchSource {
+        CATALOGUE, CACHE_HIT, CACHE_MISS, UNCACHED;
+
+        String tag() {
+            return name().toLowerCase();
+        }
+    }
+}
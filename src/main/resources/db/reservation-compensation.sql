@@ -0,0 +1,8 @@
+-- Reservations left on another shard by a rolled-back booking whose compensating DELETE
+-- failed; kept on the primary until ShardedReservationRepository removes them. Run at
+-- startup when shards are configured and travel.sharding.initialize-schema is true.
+CREATE TABLE IF NOT EXISTS reservation_compensations (
+    reservation_id BIGINT PRIMARY KEY,
+    shard INT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
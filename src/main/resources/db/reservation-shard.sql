@@ -0,0 +1,16 @@
+-- Reservations table of an additional reservation shard (shard 0 is the primary database,
+-- see init-db.sql). Run at startup when travel.sharding.initialize-schema is true.
+CREATE TABLE IF NOT EXISTS reservations (
+    id BIGINT PRIMARY KEY,
+    hotel_id BIGINT NOT NULL,
+    guest_name VARCHAR(200) NOT NULL,
+    guest_email VARCHAR(200) NOT NULL,
+    check_in DATE NOT NULL,
+    check_out DATE NOT NULL,
+    guests INT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    version BIGINT,
+    INDEX idx_hotel_id (hotel_id),
+    INDEX idx_check_in_out (check_in, check_out),
+    INDEX idx_guest_email (guest_email)
+);
@@ -0,0 +1,35 @@
+package com.example.travel;
+
+import com.example.travel.entity.Hotel;
+
+import java.math.BigDecimal;
+
+/**
+ * Hotels for tests that save to the embedded database. Every required column is filled;
+ * tests override what they assert on before building.
+ */
+public final class TestHotels {
+
+    private TestHotels() {
+    }
+
+    /**
+     * A 4.0-rated hotel at 10000.00 per night with ten rooms.
+     */
+    public static Hotel.HotelBuilder hotel(String city) {
+        return hotel(city, 10);
+    }
+
+    /**
+     * A 4.0-rated hotel at 10000.00 per night with all of its rooms available.
+     */
+    public static Hotel.HotelBuilder hotel(String city, int rooms) {
+        return Hotel.builder()
+                .name("Test Hotel")
+                .city(city)
+                .pricePerNight(new BigDecimal("10000.00"))
+                .rating(4.0)
+                .totalRooms(rooms)
+                .availableRooms(rooms);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.travel.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for AdmissionControlledDataSource.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Connection Admission Tests")
+class AdmissionControlledDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    }
+
+    @Test
+    @DisplayName("Should return the permit when the connection is closed, once")
+    void testGetConnection_ReleasesOnClose() throws SQLException {
+        // Given
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(pool, 1, 0, Duration.ZERO);
+        Connection first = dataSource.getConnection();
+
+        // When
+        first.close();
+        first.close();
+        Connection second = dataSource.getConnection();
+
+        // Then
+        assertThat(second).isNotSameAs(first);
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessage("Connection admission queue is full");
+        verify(pool, times(2)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should hand a returned permit to a waiting caller")
+    void testGetConnection_WaiterAdmitted() throws Exception {
+        // Given
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(pool, 1, 1, Duration.ofSeconds(5));
+        Connection held = dataSource.getConnection();
+        CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        await().atMost(5, TimeUnit.SECONDS).until(() -> dataSource.getWaiting() == 1);
+
+        // When: a second waiter finds the queue full
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessage("Connection admission queue is full");
+        held.close();
+
+        // Then
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a waiter after the acquire timeout")
+    void testGetConnection_Timeout() throws SQLException {
+        // Given
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(pool, 1, 10, Duration.ofMillis(20));
+        dataSource.getConnection();
+
+        // When / Then
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessage("Timed out waiting for connection admission");
+    }
+}
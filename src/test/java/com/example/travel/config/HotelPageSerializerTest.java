@@ -0,0 +1,122 @@
+package com.example.travel.config;
+
+import com.example.travel.dto.HotelResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for HotelPageSerializer.
+ */
+@DisplayName("Hotel Page Serializer Tests")
+class HotelPageSerializerTest {
+
+    private final HotelPageSerializer serializer = new HotelPageSerializer(1024);
+
+    @Test
+    @DisplayName("Should round-trip a page with its paging, sort and hotel fields")
+    void testRoundTrip_PreservesPage() {
+        // Given
+        Page<HotelResponse> page = page(3);
+
+        // When
+        byte[] bytes = serializer.serialize(page);
+        Page<HotelResponse> restored = serializer.deserialize(bytes);
+
+        // Then
+        assertThat(bytes[0]).isEqualTo(HotelPageSerializer.FORMAT_PLAIN);
+        assertThat(restored.getContent()).isEqualTo(page.getContent());
+        assertThat(restored.getNumber()).isEqualTo(2);
+        assertThat(restored.getSize()).isEqualTo(10);
+        assertThat(restored.getTotalElements()).isEqualTo(23);
+        assertThat(restored.getSort()).isEqualTo(Sort.by(Sort.Direction.ASC, "pricePerNight"));
+        assertThat(restored.getContent().get(0).getPricePerNight()).isEqualByComparingTo("15000.50");
+    }
+
+    @Test
+    @DisplayName("Should keep null fields null")
+    void testRoundTrip_NullFields() {
+        // Given
+        HotelResponse sparse = HotelResponse.builder().id(7L).name("Capsule Inn").build();
+        Page<HotelResponse> page = new PageImpl<>(List.of(sparse), PageRequest.of(0, 10), 1);
+
+        // When
+        Page<HotelResponse> restored = serializer.deserialize(serializer.serialize(page));
+
+        // Then
+        assertThat(restored.getContent()).containsExactly(sparse);
+    }
+
+    @Test
+    @DisplayName("Should compress pages above the threshold")
+    void testSerialize_CompressesLargePages() {
+        // Given
+        Page<HotelResponse> page = page(20);
+
+        // When
+        byte[] bytes = serializer.serialize(page);
+        Page<HotelResponse> restored = serializer.deserialize(bytes);
+
+        // Then
+        assertThat(bytes[0]).isEqualTo(HotelPageSerializer.FORMAT_LZ4);
+        assertThat(bytes.length).isLessThan(new HotelPageSerializer(Integer.MAX_VALUE).serialize(page).length);
+        assertThat(restored.getContent()).isEqualTo(page.getContent());
+    }
+
+    @Test
+    @DisplayName("Should treat values in another format as a cache miss")
+    void testDeserialize_ForeignFormatIsMiss() {
+        // Given
+        byte[] json = "{\"@class\":\"org.springframework.data.domain.PageImpl\"}".getBytes(StandardCharsets.UTF_8);
+
+        byte[] previousFormat = {1, 0, 0, 0, 0};
+
+        // When / Then
+        assertThat(serializer.deserialize(json)).isNull();
+        assertThat(serializer.deserialize(previousFormat)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should report a truncated compressed value as a serialization error")
+    void testDeserialize_TruncatedCompressedPage() {
+        // Given
+        byte[] bytes = serializer.serialize(page(20));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+
+        // When / Then
+        assertThatThrownBy(() -> serializer.deserialize(truncated))
+                .isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> serializer.deserialize(new byte[]{HotelPageSerializer.FORMAT_LZ4, 0}))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    private static Page<HotelResponse> page(int hotels) {
+        List<HotelResponse> content = new ArrayList<>();
+        for (int i = 0; i < hotels; i++) {
+            content.add(HotelResponse.builder()
+                    .id((long) i + 1)
+                    .name("Tokyo Grand Hotel " + i)
+                    .city("Tokyo")
+                    .pricePerNight(new BigDecimal("15000.50").add(BigDecimal.valueOf(i)))
+                    .rating(4.5)
+                    .description("Luxury hotel in the heart of Shinjuku with views of Mount Fuji")
+                    .availableRooms(10 + i)
+                    .maxOccupancy(2)
+                    .build());
+        }
+        return new PageImpl<>(content, PageRequest.of(2, 10, Sort.by(Sort.Direction.ASC, "pricePerNight")), 23);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.travel.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing between two embedded H2 databases standing in for a primary and a replica.
+ * Each holds a marker row naming it; the replica's lag is read from a table.
+ */
+@DisplayName("Replica Routing DataSource Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private final String suffix = UUID.randomUUID().toString();
+    private JdbcTemplate primaryDb;
+    private JdbcTemplate replicaDb;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        primaryDb = new JdbcTemplate(h2("jdbc:h2:mem:primary-" + suffix + ";DB_CLOSE_DELAY=-1"));
+        primaryDb.execute("CREATE TABLE marker (name VARCHAR(20))");
+        primaryDb.update("INSERT INTO marker VALUES ('primary')");
+
+        String replicaUrl = "jdbc:h2:mem:replica-" + suffix + ";DB_CLOSE_DELAY=-1";
+        replicaDb = new JdbcTemplate(h2(replicaUrl));
+        replicaDb.execute("CREATE TABLE marker (name VARCHAR(20))");
+        replicaDb.update("INSERT INTO marker VALUES ('replica')");
+        replicaDb.execute("CREATE TABLE replica_lag (seconds INT)");
+        replicaDb.update("INSERT INTO replica_lag VALUES (0)");
+
+        route(replicaUrl);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+        routing.stop();
+        primaryDb.execute("SHUTDOWN");
+        replicaDb.execute("SHUTDOWN");
+    }
+
+    @Test
+    @DisplayName("Should send read-only transactions to a healthy replica and the rest to the primary")
+    void testRouting_ReadOnlyToReplica() {
+        // Not checked yet
+        assertThat(read(true)).isEqualTo("primary");
+
+        routing.checkReplicas();
+
+        assertThat(read(true)).isEqualTo("replica");
+        assertThat(read(false)).isEqualTo("primary");
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM marker", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary while a replica lags or has stopped replicating")
+    void testRouting_LaggingReplica() {
+        replicaDb.update("UPDATE replica_lag SET seconds = 10");
+        routing.checkReplicas();
+        assertThat(read(true)).isEqualTo("primary");
+
+        replicaDb.update("UPDATE replica_lag SET seconds = NULL");
+        routing.checkReplicas();
+        assertThat(read(true)).isEqualTo("primary");
+
+        replicaDb.update("UPDATE replica_lag SET seconds = 1");
+        routing.checkReplicas();
+        assertThat(read(true)).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when a replica is unreachable")
+    void testRouting_UnreachableReplica() {
+        routing.stop();
+        route("jdbc:h2:mem:missing-" + suffix + ";IFEXISTS=TRUE");
+
+        routing.checkReplicas();
+
+        assertThat(read(true)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Should read a recent write from the primary until the replica has caught up")
+    void testRouting_ReadYourWrites() {
+        routing.checkReplicas();
+
+        read(false);
+        assertThat(read(true)).isEqualTo("primary");
+
+        // A write long enough ago for a replica with up to a second of lag
+        ReadYourWrites.setLastWriteMillis(System.currentTimeMillis() - 60_000);
+        assertThat(read(true)).isEqualTo("replica");
+
+        assertThat(ReadYourWrites.onPrimary(() -> read(true))).isEqualTo("primary");
+    }
+
+    private void route(String replicaUrl) {
+        ReplicaProperties.Node node = new ReplicaProperties.Node();
+        node.setUrl(replicaUrl);
+        node.setUsername("sa");
+        node.setPassword("");
+        ReplicaProperties properties = new ReplicaProperties();
+        properties.setEnabled(true);
+        properties.setNodes(List.of(node));
+        properties.setMaxLag(Duration.ofSeconds(5));
+        properties.setCheckInterval(Duration.ofMillis(250));
+        properties.setLagQuery("SELECT seconds AS Seconds_Behind_Source FROM replica_lag");
+
+        // Health checks are run by hand, so the scheduler is not started
+        routing = new ReplicaRoutingDataSource(primaryDb.getDataSource(), properties, null);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    private String read(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    private static JdbcDataSource h2(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.travel.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RequestLogFilter, reading the travel.requests logger's events.
+ */
+@DisplayName("Request Log Filter Tests")
+class RequestLogFilterTest {
+
+    private final Logger requestLog = (Logger) LoggerFactory.getLogger("travel.requests");
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+    private RequestLogProperties properties;
+    private RequestLogFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        events.start();
+        requestLog.addAppender(events);
+        properties = new RequestLogProperties();
+        filter = new RequestLogFilter(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestLog.detachAppender(events);
+    }
+
+    @Test
+    @DisplayName("Should log one summary line with the route and without the query string")
+    void testSummaryLine() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/reservations/42");
+        request.setQueryString("guestEmail=jane@example.com");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/reservations/{id}");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(events.list).singleElement()
+                .extracting(ILoggingEvent::getFormattedMessage).asString()
+                .startsWith("method=GET route=/api/v1/reservations/{id} status=200 duration_ms=")
+                .doesNotContain("jane");
+    }
+
+    @Test
+    @DisplayName("Should log failed requests even when sampled out")
+    void testSampling() throws Exception {
+        properties.setSampleRate(0);
+        MockHttpServletResponse failed = new MockHttpServletResponse();
+        failed.setStatus(503);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/hotels/search"),
+                new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/reservations"), failed, new MockFilterChain());
+
+        assertThat(events.list).singleElement()
+                .extracting(ILoggingEvent::getFormattedMessage).asString()
+                .contains("method=POST", "status=503");
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.travel.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for TwoTierCache and its invalidation bus, with an in-memory map standing in for Redis.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Two-Tier Cache Tests")
+class TwoTierCacheTest {
+
+    private static final String CHANNEL = "travel:cache:invalidation";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ConcurrentMapCacheManager remoteManager;
+    private TwoTierCacheManager cacheManager;
+    private CacheInvalidationBus invalidationBus;
+
+    @BeforeEach
+    void setUp() {
+        remoteManager = new ConcurrentMapCacheManager("hotelSearch");
+        invalidationBus = new CacheInvalidationBus(redisTemplate, CHANNEL);
+        cacheManager = new TwoTierCacheManager(remoteManager, new CacheTierProperties(), invalidationBus);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads from the local copy without asking Redis")
+    void testGet_ServesFromLocalCopy() {
+        // Given
+        ConcurrentMapCache remote = spy(new ConcurrentMapCache("hotelSearch"));
+        remote.put("tokyo", "page");
+        TwoTierCacheManager manager = new TwoTierCacheManager(
+                new SingleCacheManager(remote), new CacheTierProperties(), invalidationBus);
+        Cache cache = manager.getCache("hotelSearch");
+
+        // When
+        Object first = cache.get("tokyo").get();
+        Object second = cache.get("tokyo").get();
+
+        // Then
+        assertThat(first).isEqualTo("page");
+        assertThat(second).isEqualTo("page");
+        verify(remote, times(1)).get("tokyo");
+    }
+
+    @Test
+    @DisplayName("Should fill both tiers from the loader on a miss")
+    void testGetWithLoader_FillsBothTiers() {
+        // Given
+        Cache cache = cacheManager.getCache("hotelSearch");
+
+        // When
+        String value = cache.get("tokyo", () -> "loaded");
+
+        // Then
+        assertThat(value).isEqualTo("loaded");
+        assertThat(remoteManager.getCache("hotelSearch").get("tokyo").get()).isEqualTo("loaded");
+        assertThat(((TwoTierCache) cache).localSize()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should drop both tiers on evict and broadcast it to other nodes")
+    void testEvict_DropsBothTiersAndBroadcasts() {
+        // Given
+        Cache cache = cacheManager.getCache("hotelSearch");
+        cache.put("tokyo", "page");
+
+        // When
+        cache.evict("tokyo");
+
+        // Then
+        assertThat(cache.get("tokyo")).isNull();
+        assertThat(remoteManager.getCache("hotelSearch").get("tokyo")).isNull();
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), message.capture());
+        assertThat(message.getValue()).endsWith("\nhotelSearch\nK\ntokyo");
+    }
+
+    @Test
+    @DisplayName("Should drop only the local copy when another node invalidates an entry")
+    void testRemoteInvalidation_DropsLocalCopyOnly() {
+        // Given
+        Cache cache = cacheManager.getCache("hotelSearch");
+        cache.put("tokyo", "page");
+        MessageListener listener = invalidationBus.listenerFor(cacheManager);
+
+        // When
+        listener.onMessage(message("other-node\nhotelSearch\nK\ntokyo"), null);
+
+        // Then
+        assertThat(((TwoTierCache) cache).localSize()).isZero();
+        assertThat(remoteManager.getCache("hotelSearch").get("tokyo").get()).isEqualTo("page");
+    }
+
+    @Test
+    @DisplayName("Should clear every local copy of a cache when another node clears it")
+    void testRemoteClear_ClearsLocalCopies() {
+        // Given
+        Cache cache = cacheManager.getCache("hotelSearch");
+        cache.put("tokyo", "page");
+        cache.put("paris", "page");
+        MessageListener listener = invalidationBus.listenerFor(cacheManager);
+
+        // When
+        listener.onMessage(message("other-node\nhotelSearch\nC\n"), null);
+
+        // Then
+        assertThat(((TwoTierCache) cache).localSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should evict keys by prefix in both tiers and on other nodes")
+    void testEvictByPrefix_DropsMatchingEntries() {
+        // Given
+        TwoTierCache cache = (TwoTierCache) cacheManager.getCache("hotelSearch");
+        cache.put("tokyo|2026-11-01|2026-11-03", "page");
+        cache.put("tokyo|2026-11-02|2026-11-04", "page");
+        cache.put("tokyo station|2026-11-01|2026-11-03", "page");
+
+        // When
+        cache.evictByPrefix("tokyo|");
+
+        // Then
+        assertThat(cache.localSize()).isEqualTo(1);
+        assertThat(remoteManager.getCache("hotelSearch").get("tokyo|2026-11-01|2026-11-03")).isNull();
+        assertThat(remoteManager.getCache("hotelSearch").get("tokyo station|2026-11-01|2026-11-03")).isNotNull();
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), message.capture());
+        assertThat(message.getValue()).endsWith("\nhotelSearch\nP\ntokyo|");
+    }
+
+    @Test
+    @DisplayName("Should ignore its own broadcasts")
+    void testOwnInvalidation_Ignored() {
+        // Given
+        Cache cache = cacheManager.getCache("hotelSearch");
+        cache.evict("tokyo");
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(anyString(), published.capture());
+        cache.put("tokyo", "page");
+
+        // When
+        invalidationBus.listenerFor(cacheManager).onMessage(message(published.getValue()), null);
+
+        // Then
+        assertThat(((TwoTierCache) cache).localSize()).isEqualTo(1);
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record SingleCacheManager(Cache cache) implements org.springframework.cache.CacheManager {
+
+        @Override
+        public Cache getCache(String name) {
+            return cache.getName().equals(name) ? cache : null;
+        }
+
+        @Override
+        public java.util.Collection<String> getCacheNames() {
+            return java.util.List.of(cache.getName());
+        }
+    }
+}
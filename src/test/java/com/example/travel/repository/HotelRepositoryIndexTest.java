@@ -0,0 +1,185 @@
+package com.example.travel.repository;
+
+import com.example.travel.TestHotels;
+import com.example.travel.dto.HotelResponse;
+import com.example.travel.dto.HotelSearchSort;
+import com.example.travel.entity.Hotel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * City lookups against the embedded H2 database: the normalized city_key must be kept in
+ * sync by the entity and the search predicate must be answered from idx_city_key_price.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Hotel Repository Index Tests")
+class HotelRepositoryIndexTest {
+
+    private static final String SEARCH_SQL = "SELECT h.id FROM hotels h " +
+            "WHERE h.city_key = 'index city' AND h.available_rooms > 0 " +
+            "ORDER BY h.price_per_night, h.id";
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private HotelCityKeyBackfill cityKeyBackfill;
+
+    @Test
+    @DisplayName("Should store the normalized city key on save")
+    void testSave_NormalizesCityKey() {
+        // When
+        Hotel hotel = saveHotel("  Index   CITY ");
+
+        // Then
+        assertThat(hotel.getCityKey()).isEqualTo("index city");
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        assertThat(hotelRepository.findAvailableForStay("index city", checkIn, checkIn.plusDays(1),
+                null, null, null, null, PageRequest.of(0, 10, Sort.by("pricePerNight"))).getContent())
+                .extracting(HotelResponse::getId)
+                .contains(hotel.getId());
+    }
+
+    @Test
+    @DisplayName("Should leave descriptions out of compact results")
+    void testFindAvailableForStayCompact_NoDescription() {
+        // Given
+        Hotel hotel = saveHotel("Index City");
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+
+        // When
+        List<HotelResponse> hotels = hotelRepository.findAvailableForStayCompact("index city", checkIn,
+                checkIn.plusDays(1), null, null, null, null, PageRequest.of(0, 10, Sort.by("pricePerNight"))).getContent();
+
+        // Then
+        assertThat(hotels).filteredOn(response -> response.getId().equals(hotel.getId()))
+                .singleElement()
+                .satisfies(response -> {
+                    assertThat(response.getName()).isEqualTo("Index Hotel");
+                    assertThat(response.getDescription()).isNull();
+                });
+    }
+
+    @Test
+    @DisplayName("Should apply only the filters that are set")
+    void testFindAvailableForStay_Filters() {
+        // Given
+        Hotel hotel = saveHotel("Filter City");
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        LocalDate checkOut = checkIn.plusDays(1);
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("pricePerNight"));
+
+        // When / Then
+        assertThat(hotelRepository.findAvailableForStay("filter city", checkIn, checkOut,
+                2, new BigDecimal("100"), new BigDecimal("120"), 4.0, pageable).getContent())
+                .extracting(HotelResponse::getId)
+                .containsExactly(hotel.getId());
+        assertThat(hotelRepository.findAvailableForStay("filter city", checkIn, checkOut,
+                3, null, null, null, pageable).getContent()).isEmpty();
+        assertThat(hotelRepository.countAvailableForStay("filter city", checkIn, checkOut,
+                null, new BigDecimal("120.01"), null, null)).isZero();
+        assertThat(hotelRepository.countAvailableForStay("filter city", checkIn, checkOut,
+                null, null, null, 4.5)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should read the city key index instead of scanning hotels")
+    void testExplain_UsesCityKeyIndex() {
+        // When
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + SEARCH_SQL, String.class);
+
+        // Then
+        assertThat(plan).containsIgnoringCase("IDX_CITY_KEY_PRICE");
+        assertThat(plan).doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    @DisplayName("Should read the rating order from the city key rating index")
+    void testExplain_RatingOrderUsesIndex() {
+        // When
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT h.id FROM hotels h " +
+                "WHERE h.city_key = 'index city' AND h.available_rooms > 0 " +
+                "ORDER BY h.rating DESC, h.price_per_night, h.id", String.class);
+
+        // Then
+        assertThat(plan).containsIgnoringCase("IDX_CITY_KEY_RATING");
+        assertThat(plan).doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    @DisplayName("Should sort by rating with filters left out")
+    void testFindAvailableForStay_RatingOrder() {
+        // Given
+        Hotel lower = saveHotel("Rating City");
+        Hotel higher = hotelRepository.save(TestHotels.hotel("Rating City")
+                .name("Index Hotel")
+                .pricePerNight(new BigDecimal("150.00"))
+                .rating(4.8)
+                .build());
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+
+        // When
+        List<HotelResponse> hotels = hotelRepository.findAvailableForStay("rating city", checkIn, checkIn.plusDays(1),
+                null, null, null, 4.0, PageRequest.of(0, 10, HotelSearchSort.RATING_DESC.getSort())).getContent();
+
+        // Then
+        assertThat(hotels).extracting(HotelResponse::getId).containsExactly(higher.getId(), lower.getId());
+    }
+
+    @Test
+    @DisplayName("Should scan hotels when the city column is lower-cased")
+    void testExplain_LowerCityScans() {
+        // When
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT h.id FROM hotels h WHERE LOWER(h.city) = 'index city'", String.class);
+
+        // Then
+        assertThat(plan).containsIgnoringCase("tableScan");
+    }
+
+    @Test
+    @DisplayName("Should backfill the city key of hotels stored before the column existed")
+    void testBackfill_PreExistingRowsBecomeSearchable() {
+        // Given: rows as ddl-auto leaves them on MySQL, with city_key defaulted to ''
+        jdbcTemplate.update("INSERT INTO hotels (name, city, city_key, price_per_night, rating, available_rooms) " +
+                "VALUES ('Legacy Hotel', '  Legacy   City ', '', 110.00, 4.1, 5)");
+        jdbcTemplate.update("INSERT INTO hotels (name, city, city_key, price_per_night, rating, available_rooms) " +
+                "VALUES ('Legacy Annex', 'LEGACY CITY', '', 95.00, 3.9, 5)");
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+
+        // When
+        int updated = cityKeyBackfill.backfill();
+
+        // Then
+        assertThat(updated).isGreaterThanOrEqualTo(2);
+        assertThat(cityKeyBackfill.backfill()).isZero();
+        List<HotelResponse> hotels = hotelRepository.findAvailableForStay("legacy city", checkIn, checkIn.plusDays(1),
+                null, null, null, null, PageRequest.of(0, 10, Sort.by("pricePerNight"))).getContent();
+        assertThat(hotels).extracting(HotelResponse::getName).containsExactly("Legacy Annex", "Legacy Hotel");
+    }
+
+    private Hotel saveHotel(String city) {
+        return hotelRepository.save(TestHotels.hotel(city)
+                .name("Index Hotel")
+                .pricePerNight(new BigDecimal("120.00"))
+                .description("Close to the index")
+                .maxOccupancy(2)
+                .build());
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.travel.repository;
+
+import com.example.travel.config.ShardingProperties;
+import com.example.travel.dto.ReservationResponse;
+import com.example.travel.entity.Reservation;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two embedded H2 databases standing in for the primary (shard 0) and one more shard.
+ * With the default resolver, even hotel ids land on shard 0 and odd ones on shard 1.
+ */
+@DisplayName("Sharded Reservation Repository Tests")
+class ShardedReservationRepositoryTest {
+
+    private final String suffix = UUID.randomUUID().toString();
+    private JdbcTemplate primaryDb;
+    private JdbcTemplate shardDb;
+    private ShardedReservationRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        primaryDb = new JdbcTemplate(h2("jdbc:h2:mem:shard0-" + suffix + ";MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        new ResourceDatabasePopulator(new ClassPathResource("db/reservation-shard.sql")).execute(primaryDb.getDataSource());
+
+        String shardUrl = "jdbc:h2:mem:shard1-" + suffix + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        shardDb = new JdbcTemplate(h2(shardUrl));
+
+        ShardingProperties properties = new ShardingProperties();
+        ShardingProperties.Node node = new ShardingProperties.Node();
+        node.setUrl(shardUrl);
+        node.setUsername("sa");
+        node.setPassword("");
+        properties.getShards().add(node);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        repository = new ShardedReservationRepository(properties, primaryDb,
+                beans.getBeanProvider(ReservationShardResolver.class), beans.getBeanProvider(MeterRegistry.class));
+        repository.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.stop();
+        primaryDb.execute("SHUTDOWN");
+        shardDb.execute("SHUTDOWN");
+    }
+
+    @Test
+    @DisplayName("Should write each reservation to its hotel's shard and find it by id")
+    void testSaveAll_RoutesByHotel() {
+        Reservation even = reservation(2L, "even@example.com");
+        Reservation odd = reservation(3L, "odd@example.com");
+
+        repository.saveAll(List.of(even, odd));
+
+        assertThat(SnowflakeIdGenerator.shardOf(even.getId())).isZero();
+        assertThat(SnowflakeIdGenerator.shardOf(odd.getId())).isEqualTo(1);
+        assertThat(primaryDb.queryForObject("SELECT COUNT(*) FROM reservations", Integer.class)).isEqualTo(1);
+        assertThat(shardDb.queryForObject("SELECT COUNT(*) FROM reservations", Integer.class)).isEqualTo(1);
+        assertThat(repository.findById(odd.getId())).get()
+                .extracting(Reservation::getHotelId, Reservation::getGuestEmail, Reservation::getCheckIn)
+                .containsExactly(3L, "odd@example.com", odd.getCheckIn());
+        assertThat(repository.findById(odd.getId() + 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should find a guest's reservations on every shard, newest first")
+    void testFindByGuestEmail() {
+        Reservation first = repository.save(reservation(3L, "guest@example.com"));
+        Reservation second = repository.save(reservation(2L, "guest@example.com"));
+        repository.save(reservation(5L, "other@example.com"));
+
+        assertThat(repository.findByGuestEmail("guest@example.com"))
+                .extracting(Reservation::getId)
+                .containsExactly(second.getId(), first.getId());
+    }
+
+    @Test
+    @DisplayName("Should export the reservations of all shards")
+    void testStreamAllForExport() {
+        Reservation even = repository.save(reservation(2L, "even@example.com"));
+        Reservation odd = repository.save(reservation(3L, "odd@example.com"));
+
+        try (Stream<ReservationResponse> rows = repository.streamAllForExport()) {
+            assertThat(rows.map(ReservationResponse::getId)).containsExactly(even.getId(), odd.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Should remove reservations from other shards when the caller's transaction rolls back")
+    void testSave_RollbackCompensates() {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(primaryDb.getDataSource()));
+
+        transaction.executeWithoutResult(status -> {
+            repository.saveAll(List.of(reservation(2L, "even@example.com"), reservation(3L, "odd@example.com")));
+            status.setRollbackOnly();
+        });
+
+        assertThat(primaryDb.queryForObject("SELECT COUNT(*) FROM reservations", Integer.class)).isZero();
+        assertThat(shardDb.queryForObject("SELECT COUNT(*) FROM reservations", Integer.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should record reservations it could not remove after a rollback and remove them later")
+    void testSave_FailedCompensationIsRetried() {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(primaryDb.getDataSource()));
+
+        transaction.executeWithoutResult(status -> {
+            repository.save(reservation(3L, "odd@example.com"));
+            // The compensating DELETE on shard 1 fails while the table is away
+            shardDb.execute("ALTER TABLE reservations RENAME TO reservations_away");
+            status.setRollbackOnly();
+        });
+
+        assertThat(primaryDb.queryForObject("SELECT COUNT(*) FROM reservation_compensations", Integer.class))
+                .isEqualTo(1);
+
+        shardDb.execute("ALTER TABLE reservations_away RENAME TO reservations");
+        assertThat(repository.retryCompensations()).isEqualTo(1);
+        assertThat(shardDb.queryForObject("SELECT COUNT(*) FROM reservations", Integer.class)).isZero();
+        assertThat(primaryDb.queryForObject("SELECT COUNT(*) FROM reservation_compensations", Integer.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should find reservations from before sharding on the primary and count every shard")
+    void testFindById_LegacyIdFallsBackToPrimary() {
+        // An AUTO_INCREMENT id that decodes to shard 1
+        long legacyId = 70_000L;
+        primaryDb.update("INSERT INTO reservations (id, hotel_id, guest_name, guest_email, check_in, check_out, " +
+                "guests, created_at, version) VALUES (?, 3, 'Legacy', 'legacy@example.com', '2030-06-01', " +
+                "'2030-06-03', 2, CURRENT_TIMESTAMP, 0)", legacyId);
+        repository.save(reservation(3L, "odd@example.com"));
+
+        assertThat(SnowflakeIdGenerator.shardOf(legacyId)).isEqualTo(1);
+        assertThat(repository.findById(legacyId)).get()
+                .extracting(Reservation::getGuestEmail)
+                .isEqualTo("legacy@example.com");
+        assertThat(repository.count()).isEqualTo(2);
+    }
+
+    private static Reservation reservation(long hotelId, String guestEmail) {
+        return Reservation.builder()
+                .hotelId(hotelId)
+                .guestName("Guest " + hotelId)
+                .guestEmail(guestEmail)
+                .checkIn(LocalDate.of(2030, 6, 1))
+                .checkOut(LocalDate.of(2030, 6, 3))
+                .guests(2)
+                .build();
+    }
+
+    private static JdbcDataSource h2(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.travel.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for SnowflakeIdGenerator, on a clock the test moves by hand.
+ */
+@DisplayName("Snowflake Id Generator Tests")
+class SnowflakeIdGeneratorTest {
+
+    private final AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH_MILLIS + 1_000);
+    private final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(5, clock::get);
+
+    @Test
+    @DisplayName("Should encode the shard in the id")
+    void testShardOf() {
+        assertThat(SnowflakeIdGenerator.shardOf(generator.nextId(0))).isZero();
+        assertThat(SnowflakeIdGenerator.shardOf(generator.nextId(7))).isEqualTo(7);
+        assertThat(SnowflakeIdGenerator.shardOf(generator.nextId(SnowflakeIdGenerator.MAX_SHARDS - 1)))
+                .isEqualTo(SnowflakeIdGenerator.MAX_SHARDS - 1);
+        assertThatThrownBy(() -> generator.nextId(SnowflakeIdGenerator.MAX_SHARDS))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should keep ids unique and increasing past a full millisecond and a clock step back")
+    void testNextId_Increasing() {
+        Set<Long> ids = new HashSet<>();
+        long previous = 0;
+        // More ids than fit in one millisecond's sequence
+        for (int i = 0; i < 3000; i++) {
+            long id = generator.nextId(1);
+            assertThat(id).isGreaterThan(previous);
+            ids.add(id);
+            previous = id;
+        }
+        clock.addAndGet(-500);
+        long afterStepBack = generator.nextId(1);
+
+        assertThat(ids).hasSize(3000);
+        assertThat(afterStepBack).isGreaterThan(previous);
+        assertThat(SnowflakeIdGenerator.shardOf(afterStepBack)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject worker ids that do not fit the layout")
+    void testWorkerId_OutOfRange() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKERS))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.travel.service;
+
+import com.example.travel.TestHotels;
+import com.example.travel.dto.ExportFormat;
+import com.example.travel.entity.Hotel;
+import com.example.travel.entity.Reservation;
+import com.example.travel.repository.HotelRepository;
+import com.example.travel.repository.ShardedReservationRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streaming exports against the embedded H2 database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Export Service Tests")
+class ExportServiceTest {
+
+    private final String city = "Export City " + UUID.randomUUID();
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private ShardedReservationRepository reservationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Hotel hotel;
+
+    @BeforeEach
+    void setUp() {
+        hotel = hotelRepository.save(TestHotels.hotel(city)
+                .name("Export \"Grand\", Annex")
+                .pricePerNight(new BigDecimal("120.50"))
+                .rating(4.2)
+                .description("Line one\nline two")
+                .maxOccupancy(3)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line")
+    void testExportHotels_Ndjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportHotels(ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize((int) count);
+        List<JsonNode> exported = new ArrayList<>();
+        for (String line : lines) {
+            exported.add(objectMapper.readTree(line));
+        }
+        JsonNode row = exported.stream()
+                .filter(node -> node.get("id").asLong() == hotel.getId())
+                .findFirst()
+                .orElseThrow();
+        assertThat(row.get("name").asText()).isEqualTo("Export \"Grand\", Annex");
+        assertThat(row.get("description").asText()).isEqualTo("Line one\nline two");
+        assertThat(row.get("maxOccupancy").asInt()).isEqualTo(3);
+        // Rows come out in id order
+        assertThat(exported).extracting(node -> node.get("id").asLong()).isSorted();
+    }
+
+    @Test
+    @DisplayName("Should write a header row and quote fields that need it")
+    void testExportHotels_Csv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportHotels(ExportFormat.CSV, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv).startsWith("id,supplierRef,name,city,pricePerNight,rating,description,totalRooms,availableRooms,maxOccupancy\r\n");
+        assertThat(csv).contains(hotel.getId() + ",,\"Export \"\"Grand\"\", Annex\"," + city
+                + ",120.50,4.2,\"Line one\nline two\",10,10,3\r\n");
+        assertThat(csv.split("\r\n")).hasSize((int) count + 1);
+    }
+
+    @Test
+    @DisplayName("Should export reservations")
+    void testExportReservations() throws Exception {
+        Reservation reservation = reservationRepository.save(Reservation.builder()
+                .hotelId(hotel.getId())
+                .guestName("Export Guest")
+                .guestEmail("export@example.com")
+                .checkIn(LocalDate.of(2030, 5, 1))
+                .checkOut(LocalDate.of(2030, 5, 3))
+                .guests(2)
+                .build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportReservations(ExportFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .startsWith("id,hotelId,guestName,guestEmail,checkIn,checkOut,guests,createdAt\r\n")
+                .contains(reservation.getId() + "," + hotel.getId()
+                        + ",Export Guest,export@example.com,2030-05-01,2030-05-03,2,");
+    }
+
+    @Test
+    @DisplayName("Should leave null fields empty")
+    void testCsvField() {
+        assertThat(ExportService.csvField(null)).isEmpty();
+        assertThat(ExportService.csvField(new BigDecimal("1E+3"))).isEqualTo("1000");
+        assertThat(ExportService.csvField("plain")).isEqualTo("plain");
+        assertThat(ExportService.csvField("a\rb")).isEqualTo("\"a\rb\"");
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.travel.service;
+
+import com.example.travel.config.SearchProperties;
+import com.example.travel.dto.HotelExportRow;
+import com.example.travel.dto.HotelResponse;
+import com.example.travel.dto.HotelSearchSort;
+import com.example.travel.entity.RoomInventoryId;
+import com.example.travel.repository.HotelRepository;
+import com.example.travel.repository.RoomInventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for HotelCatalogueIndex.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Hotel Catalogue Index Tests")
+class HotelCatalogueIndexTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(10);
+    private static final LocalDate CHECK_OUT = CHECK_IN.plusDays(2);
+
+    @Mock
+    private HotelRepository hotelRepository;
+
+    @Mock
+    private RoomInventoryRepository roomInventoryRepository;
+
+    private HotelCatalogueIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new HotelCatalogueIndex(new SearchProperties(), hotelRepository, roomInventoryRepository,
+                mock(PlatformTransactionManager.class));
+        // In catalogue order: price, then id
+        when(hotelRepository.streamAllForCatalogue()).thenAnswer(invocation -> Stream.of(
+                hotel(4L, "Tokyo", "50.00", 0, 4.0, 2), // stop-sell
+                hotel(6L, "Osaka", "80.00", 5, 4.0, 2),
+                hotel(2L, " TOKYO", "100.00", 5, 4.0, 2),
+                hotel(3L, "Tokyo", "100.00", 5, 4.8, null),
+                hotel(5L, "Tokyo", "200.00", 5, 3.7, 2),
+                hotel(1L, "Tokyo", "300.00", 5, 4.5, 4)));
+        when(roomInventoryRepository.findSoldOutFrom(any(LocalDate.class)))
+                .thenReturn(List.of(new RoomInventoryId(5L, CHECK_IN.plusDays(1))));
+    }
+
+    @Test
+    @DisplayName("Should list available hotels of a city by price and id, with the full total")
+    void testSearch_OrderAndTotal() {
+        // Given
+        index.reload();
+
+        // When
+        Page<HotelResponse> first = index.search("tokyo", CHECK_IN, CHECK_OUT, HotelSearchFilter.NONE, PageRequest.of(0, 2), false);
+        Page<HotelResponse> second = index.search("tokyo", CHECK_IN, CHECK_OUT, HotelSearchFilter.NONE, PageRequest.of(1, 2), true);
+
+        // Then
+        assertThat(index.isReady()).isTrue();
+        assertThat(first.getContent()).extracting(HotelResponse::getId).containsExactly(2L, 3L);
+        assertThat(first.getContent().get(0).getPricePerNight()).isEqualByComparingTo("100.00");
+        assertThat(first.getContent().get(0).getDescription()).isEqualTo("Hotel 2");
+        assertThat(first.getTotalElements()).isEqualTo(3);
+        assertThat(second.getContent()).extracting(HotelResponse::getId).containsExactly(1L);
+        assertThat(second.getContent().get(0).getDescription()).isNull();
+        assertThat(index.count("tokyo", CHECK_IN, CHECK_OUT, HotelSearchFilter.NONE)).isEqualTo(3);
+        assertThat(index.count("tokyo", CHECK_IN, CHECK_IN.plusDays(1), HotelSearchFilter.NONE)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should seek past a (price, id) position")
+    void testSearchAfter_Ties() {
+        // Given
+        index.reload();
+
+        // When
+        Slice<HotelResponse> start = index.searchAfter("tokyo", CHECK_IN, CHECK_OUT, HotelSearchFilter.NONE,
+                HotelSearchCursor.START.price(), HotelSearchCursor.START.id(), 1, false);
+        Slice<HotelResponse> next = index.searchAfter("tokyo", CHECK_IN, CHECK_OUT, HotelSearchFilter.NONE,
+                new BigDecimal("100.00"), 2L, 5, false);
+
+        // Then
+        assertThat(start.getContent()).extracting(HotelResponse::getId).containsExactly(2L);
+        assertThat(start.hasNext()).isTrue();
+        assertThat(next.getContent()).extracting(HotelResponse::getId).containsExactly(3L, 1L);
+        assertThat(next.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should apply sold-out updates for a range of nights")
+    void testUpdateSoldOut() {
+        // Given
+        index.reload();
+
+        // When
+        index.updateSoldOut(1L, CHECK_IN, CHECK_OUT, List.of(CHECK_IN));
+        index.updateSoldOut(5L, CHECK_IN, CHECK_OUT, List.of());
+
+        // Then
+        assertThat(index.search("tokyo", CHECK_IN, CHECK_OUT, HotelSearchFilter.NONE, PageRequest.of(0, 10), false).getContent())
+                .extracting(HotelResponse::getId)
+                .containsExactly(2L, 3L, 5L);
+    }
+
+    @Test
+    @DisplayName("Should intersect price, rating and capacity filters")
+    void testSearch_Filters() {
+        // Given
+        index.reload();
+        HotelSearchFilter filter = new HotelSearchFilter(3, new BigDecimal("100"), new BigDecimal("300"), 4.5,
+                HotelSearchSort.PRICE_ASC);
+
+        // When
+        Page<HotelResponse> page = index.search("tokyo", CHECK_IN, CHECK_IN.plusDays(1), filter,
+                PageRequest.of(0, 10), false);
+
+        // Then: 2 sleeps too few, 5 is rated too low; 3 has no recorded capacity
+        assertThat(page.getContent()).extracting(HotelResponse::getId).containsExactly(3L, 1L);
+        assertThat(page.getContent().get(1).getMaxOccupancy()).isEqualTo(4);
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(index.count("tokyo", CHECK_IN, CHECK_IN.plusDays(1),
+                new HotelSearchFilter(null, null, new BigDecimal("199.99"), null, HotelSearchSort.PRICE_ASC)))
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should order by price descending and by rating")
+    void testSearch_Sorts() {
+        // Given
+        index.reload();
+        HotelSearchFilter byPriceDesc = new HotelSearchFilter(null, null, null, null, HotelSearchSort.PRICE_DESC);
+        HotelSearchFilter byRating = new HotelSearchFilter(null, null, null, null, HotelSearchSort.RATING_DESC);
+
+        // When
+        Page<HotelResponse> priceDesc = index.search("tokyo", CHECK_IN, CHECK_IN.plusDays(1), byPriceDesc,
+                PageRequest.of(0, 10), false);
+        Page<HotelResponse> rating = index.search("tokyo", CHECK_IN, CHECK_IN.plusDays(1), byRating,
+                PageRequest.of(1, 2), false);
+
+        // Then
+        assertThat(priceDesc.getContent()).extracting(HotelResponse::getId).containsExactly(1L, 5L, 3L, 2L);
+        assertThat(rating.getContent()).extracting(HotelResponse::getId).containsExactly(2L, 5L);
+        assertThat(rating.getTotalElements()).isEqualTo(4);
+    }
+
+    private static HotelExportRow hotel(Long id, String city, String price, int rooms, double rating, Integer maxOccupancy) {
+        return HotelExportRow.builder()
+                .id(id)
+                .name("Hotel " + id)
+                .city(city)
+                .pricePerNight(new BigDecimal(price))
+                .rating(rating)
+                .maxOccupancy(maxOccupancy)
+                .description("Hotel " + id)
+                .totalRooms(rooms)
+                .availableRooms(rooms)
+                .build();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.travel.service;
+
+import com.example.travel.TestHotels;
+import com.example.travel.config.ImportProperties;
+import com.example.travel.dto.ExportFormat;
+import com.example.travel.dto.HotelImportRequest;
+import com.example.travel.dto.HotelImportStatus;
+import com.example.travel.entity.Hotel;
+import com.example.travel.repository.HotelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Feed imports against the embedded H2 database (MySQL mode). H2 runs the VALUES() form
+ * of the upsert; MySQL gets the same statement with a row alias.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Hotel Import Service Tests")
+class HotelImportServiceTest {
+
+    // Every test imports hotels of its own
+    private final String city = "Import City " + UUID.randomUUID();
+    private final String ref = UUID.randomUUID().toString();
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private HotelImportService hotelImportService;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private ImportProperties importProperties;
+
+    @BeforeEach
+    void setUp() {
+        importProperties.setDirectory(directory);
+        importProperties.setBatchSize(2);
+    }
+
+    @Test
+    @DisplayName("Should insert CSV rows, then update them by supplierRef on the next import")
+    void testImport_CsvUpsert() throws IOException {
+        write("feed.csv",
+                "supplierRef,name,city,pricePerNight,rating,description,totalRooms,availableRooms,maxOccupancy",
+                ref + "-1,Import One," + city + ",100.00,4.0,\"Two\nlines\",10,10,2",
+                ref + "-2,Import Two," + city + ",200.00,4.5,,20,20,",
+                ref + "-3,Import Three," + city + ",-5,4.0,,10,10,2",
+                ref + "-4,Import Four," + city + ",120.00,4.1,,10,10,3");
+
+        HotelImportStatus status = importAndWait("feed.csv", ExportFormat.CSV);
+
+        assertThat(status.getState()).isEqualTo(HotelImportStatus.State.COMPLETED);
+        assertThat(status.getRowsRead()).isEqualTo(4);
+        assertThat(status.getRowsImported()).isEqualTo(3);
+        assertThat(status.getRowsRejected()).isEqualTo(1);
+        // The quoted line break moves the bad row to line 5
+        assertThat(status.getErrors()).containsExactly("line 5: pricePerNight must be positive with at most 2 decimals");
+        assertThat(status.getBytesRead()).isEqualTo(status.getTotalBytes());
+        assertThat(status.getCitiesInvalidated()).isEqualTo(1);
+
+        List<Hotel> hotels = hotelsInCity();
+        assertThat(hotels).extracting(Hotel::getName).containsExactly("Import One", "Import Two", "Import Four");
+        assertThat(hotels.get(0).getDescription()).isEqualTo("Two\nlines");
+        assertThat(hotels.get(1).getMaxOccupancy()).isNull();
+
+        write("update.csv",
+                "supplierRef,name,city,pricePerNight,rating",
+                ref + "-1,Import One," + city + ",100.00,4.0",
+                ref + "-2,Import Two Renamed," + city + ",180.00,4.6");
+
+        assertThat(importAndWait("update.csv", ExportFormat.CSV).getRowsImported()).isEqualTo(2);
+        Hotel updated = hotelRepository.findById(hotels.get(1).getId()).orElseThrow();
+        assertThat(updated.getName()).isEqualTo("Import Two Renamed");
+        assertThat(updated.getPricePerNight()).isEqualByComparingTo("180.00");
+        // Columns the update feed leaves out keep their values
+        assertThat(updated.getTotalRooms()).isEqualTo(20);
+        assertThat(updated.getAvailableRooms()).isEqualTo(20);
+        assertThat(updated.getSupplierRef()).isEqualTo(ref + "-2");
+        assertThat(hotelRepository.findById(hotels.get(0).getId()).orElseThrow().getDescription())
+                .isEqualTo("Two\nlines");
+        assertThat(hotelsInCity()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Should update hotels by id from NDJSON, moving them between cities")
+    void testImport_NdjsonById() throws IOException {
+        Hotel existing = hotelRepository.save(TestHotels.hotel("Old " + city, 5)
+                .name("Import Existing")
+                .pricePerNight(new BigDecimal("90.00"))
+                .rating(3.0)
+                .build());
+        write("feed.ndjson",
+                "{\"id\":" + existing.getId() + ",\"name\":\"Import Moved\",\"city\":\"" + city +
+                        "\",\"pricePerNight\":95.5,\"rating\":3.5,\"totalRooms\":5,\"availableRooms\":4}",
+                "",
+                "{\"supplierRef\":\"" + ref + "\",\"name\":\"Import New\",\"city\":\"" + city +
+                        "\",\"pricePerNight\":150,\"rating\":4.0,\"unknown\":true}",
+                "{not json}");
+
+        HotelImportStatus status = importAndWait("feed.ndjson", ExportFormat.NDJSON);
+
+        assertThat(status.getState()).isEqualTo(HotelImportStatus.State.COMPLETED);
+        assertThat(status.getRowsImported()).isEqualTo(2);
+        assertThat(status.getRowsRejected()).isEqualTo(1);
+        assertThat(status.getErrors()).singleElement().asString().startsWith("line 4: invalid JSON");
+        // The city the hotel left and the one it joined
+        assertThat(status.getCitiesInvalidated()).isEqualTo(2);
+
+        Hotel moved = hotelRepository.findById(existing.getId()).orElseThrow();
+        assertThat(moved.getName()).isEqualTo("Import Moved");
+        assertThat(moved.getCityKey()).isEqualTo(city.toLowerCase());
+        assertThat(moved.getAvailableRooms()).isEqualTo(4);
+        assertThat(hotelsInCity()).extracting(Hotel::getName).containsExactly("Import Moved", "Import New");
+    }
+
+    @Test
+    @DisplayName("Should fail an import whose CSV header lacks required columns")
+    void testImport_BadHeader() throws IOException {
+        write("bad.csv", "supplierRef,name", ref + ",Import Bad");
+
+        HotelImportStatus status = importAndWait("bad.csv", ExportFormat.CSV);
+
+        assertThat(status.getState()).isEqualTo(HotelImportStatus.State.FAILED);
+        assertThat(status.getErrors()).containsExactly("CSV header has no city column");
+    }
+
+    @Test
+    @DisplayName("Should only read files inside the import directory")
+    void testImport_OutsideDirectory() {
+        assertThatThrownBy(() -> hotelImportService.startImport(request("../secret.csv", ExportFormat.CSV)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("inside the import directory");
+        assertThatThrownBy(() -> hotelImportService.startImport(request("missing.csv", ExportFormat.CSV)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Import file not found");
+    }
+
+    private HotelImportStatus importAndWait(String file, ExportFormat format) {
+        String id = hotelImportService.startImport(request(file, format)).getId();
+        await().atMost(Duration.ofSeconds(10)).until(() ->
+                hotelImportService.getStatus(id).getState() != HotelImportStatus.State.RUNNING);
+        return hotelImportService.getStatus(id);
+    }
+
+    private List<Hotel> hotelsInCity() {
+        return hotelRepository.findAll().stream()
+                .filter(hotel -> hotel.getCity().equals(city))
+                // Batches are written in parallel, so ids do not follow the file order
+                .sorted(Comparator.comparing(Hotel::getSupplierRef, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    private void write(String file, String... lines) throws IOException {
+        Files.writeString(directory.resolve(file), String.join("\n", lines) + "\n");
+    }
+
+    private static HotelImportRequest request(String file, ExportFormat format) {
+        return HotelImportRequest.builder().file(file).format(format).build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.travel.service;
+
+import com.example.travel.TestHotels;
+import com.example.travel.dto.HotelResponse;
+import com.example.travel.dto.HotelSearchRequest;
+import com.example.travel.dto.HotelSearchSlice;
+import com.example.travel.entity.Hotel;
+import com.example.travel.repository.HotelRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset pagination against the embedded H2 database: paging through a city with
+ * price ties must return every available hotel exactly once, in (price, id) order.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Hotel Search Cursor Tests")
+class HotelSearchCursorTest {
+
+    private static final String CITY = "Cursorville";
+
+    @Autowired
+    private HotelSearchService hotelSearchService;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Test
+    @DisplayName("Should page through ties in price without gaps or repeats")
+    void testSearchHotelsByCursor_PagesThroughTies() {
+        // Given
+        List<Long> expected = new ArrayList<>();
+        for (String price : new String[]{"100.00", "100.00", "100.00", "200.00", "300.00"}) {
+            expected.add(saveHotel(price, 5).getId());
+        }
+        saveHotel("150.00", 0); // stop-sell, never listed
+        LocalDate checkIn = LocalDate.now().plusDays(20);
+        HotelSearchRequest request = HotelSearchRequest.builder()
+                .city(CITY.toUpperCase())
+                .checkIn(checkIn)
+                .checkOut(checkIn.plusDays(2))
+                .guests(2)
+                .size(2)
+                .build();
+
+        // When
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int slices = 0;
+        do {
+            HotelSearchSlice slice = hotelSearchService.searchHotelsByCursor(request, cursor, slices == 0);
+            if (slices == 0) {
+                assertThat(slice.getApproximateTotal()).isEqualTo(5L);
+            }
+            slice.getContent().stream().map(HotelResponse::getId).forEach(seen::add);
+            cursor = slice.getNextCursor();
+            slices++;
+        } while (cursor != null);
+
+        // Then
+        assertThat(seen).containsExactlyElementsOf(expected);
+        assertThat(slices).isEqualTo(3);
+    }
+
+    private Hotel saveHotel(String price, int rooms) {
+        return hotelRepository.save(TestHotels.hotel(CITY, rooms)
+                .name("Cursor Hotel")
+                .pricePerNight(new BigDecimal(price))
+                .build());
+    }
+}
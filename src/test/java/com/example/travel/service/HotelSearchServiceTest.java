@@ -1,19 +1,27 @@
 package com.example.travel.service;
 
+import com.example.travel.config.CacheTierProperties;
+import com.example.travel.config.SearchCacheIndex;
+import com.example.travel.config.MetricsProperties;
+import com.example.travel.config.SearchProperties;
 import com.example.travel.dto.HotelResponse;
 import com.example.travel.dto.HotelSearchRequest;
-import com.example.travel.entity.Hotel;
+import com.example.travel.dto.HotelSearchSlice;
+import com.example.travel.dto.HotelSearchSort;
 import com.example.travel.repository.HotelRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -23,7 +31,11 @@ import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,33 +50,43 @@ class HotelSearchServiceTest {
     @Mock
     private HotelRepository hotelRepository;
 
-    @InjectMocks
+    private SearchProperties searchProperties;
+
     private HotelSearchService hotelSearchService;
 
-    private Hotel testHotel1;
-    private Hotel testHotel2;
+    private SimpleMeterRegistry meterRegistry;
+
+    private HotelResponse testHotel1;
+    private HotelResponse testHotel2;
 
     @BeforeEach
     void setUp() {
-        testHotel1 = Hotel.builder()
+        searchProperties = new SearchProperties();
+        searchProperties.setShareCityResults(false);
+        meterRegistry = new SimpleMeterRegistry();
+        hotelSearchService = new HotelSearchService(hotelRepository, new ConcurrentMapCacheManager(), searchProperties,
+                new SearchCacheLoader(searchProperties, new CacheTierProperties(), null, Runnable::run),
+                new SearchCacheIndex(null, new CacheTierProperties()),
+                new HotelCatalogueIndex(searchProperties, hotelRepository, null, null),
+                new TravelMetrics(meterRegistry, new MetricsProperties()));
+
+        testHotel1 = HotelResponse.builder()
                 .id(1L)
                 .name("Grand Hotel Tokyo")
                 .city("Tokyo")
                 .pricePerNight(new BigDecimal("15000.00"))
                 .rating(4.5)
                 .description("Luxury hotel in downtown Tokyo")
-                .totalRooms(100)
                 .availableRooms(50)
                 .build();
 
-        testHotel2 = Hotel.builder()
+        testHotel2 = HotelResponse.builder()
                 .id(2L)
                 .name("Business Inn Tokyo")
                 .city("Tokyo")
                 .pricePerNight(new BigDecimal("8000.00"))
                 .rating(4.0)
                 .description("Affordable business hotel")
-                .totalRooms(80)
                 .availableRooms(30)
                 .build();
     }
@@ -82,10 +104,10 @@ class HotelSearchServiceTest {
                 .size(20)
                 .build();
 
-        List<Hotel> hotels = Arrays.asList(testHotel2, testHotel1); // Sorted by price
-        Page<Hotel> hotelPage = new PageImpl<>(hotels);
+        List<HotelResponse> hotels = Arrays.asList(testHotel2, testHotel1); // Sorted by price
+        Page<HotelResponse> hotelPage = new PageImpl<>(hotels);
 
-        when(hotelRepository.findByCityIgnoreCaseAndAvailableRoomsGreaterThan(anyString(), any(Pageable.class)))
+        when(hotelRepository.findAvailableForStay(anyString(), any(LocalDate.class), any(LocalDate.class), any(), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(hotelPage);
 
         // When
@@ -97,7 +119,36 @@ class HotelSearchServiceTest {
         assertThat(result.getContent().get(0).getName()).isEqualTo("Business Inn Tokyo");
         assertThat(result.getContent().get(1).getName()).isEqualTo("Grand Hotel Tokyo");
 
-        verify(hotelRepository).findByCityIgnoreCaseAndAvailableRoomsGreaterThan(anyString(), any(Pageable.class));
+        verify(hotelRepository).findAvailableForStay(
+                "tokyo", request.getCheckIn(), request.getCheckOut(), 2, null, null, null, PageRequest.of(0, 20, HotelSearchService.PRICE_ORDER));
+    }
+
+    @Test
+    @DisplayName("Should time searches per city and cache hit or miss")
+    void testSearchHotels_Metrics() {
+        // Given
+        HotelSearchRequest request = HotelSearchRequest.builder()
+                .city("Tokyo")
+                .checkIn(LocalDate.now().plusDays(1))
+                .checkOut(LocalDate.now().plusDays(3))
+                .guests(2)
+                .page(0)
+                .size(20)
+                .build();
+        when(hotelRepository.findAvailableForStay(anyString(), any(LocalDate.class), any(LocalDate.class), any(), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testHotel1)));
+
+        // When
+        hotelSearchService.searchHotels(request);
+        hotelSearchService.searchHotels(request);
+
+        // Then
+        assertThat(meterRegistry.get(TravelMetrics.SEARCH).tags("endpoint", "page", "source", "cache_miss").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(TravelMetrics.SEARCH).tags("endpoint", "page", "source", "cache_hit").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(TravelMetrics.SEARCH_CITIES).tags("city", "tokyo", "source", "cache_hit").counter().count())
+                .isEqualTo(1);
     }
 
     @Test
@@ -152,8 +203,8 @@ class HotelSearchServiceTest {
                 .size(20)
                 .build();
 
-        Page<Hotel> emptyPage = Page.empty();
-        when(hotelRepository.findByCityIgnoreCaseAndAvailableRoomsGreaterThan(anyString(), any(Pageable.class)))
+        Page<HotelResponse> emptyPage = Page.empty();
+        when(hotelRepository.findAvailableForStay(anyString(), any(LocalDate.class), any(LocalDate.class), any(), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(emptyPage);
 
         // When
@@ -164,4 +215,218 @@ class HotelSearchServiceTest {
         assertThat(result.getContent()).isEmpty();
         assertThat(result.getTotalElements()).isZero();
     }
+
+    @Test
+    @DisplayName("Should share one cached page between case and whitespace variants of a city")
+    void testSearchHotels_NormalizedCityKey() {
+        // Given
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        LocalDate checkOut = LocalDate.now().plusDays(3);
+        when(hotelRepository.findAvailableForStay(anyString(), any(LocalDate.class), any(LocalDate.class), any(), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testHotel2, testHotel1)));
+
+        // When
+        hotelSearchService.searchHotels(request("Tokyo", checkIn, checkOut, 0, 20));
+        hotelSearchService.searchHotels(request("  TOKYO ", checkIn, checkOut, 0, 20));
+        Page<HotelResponse> result = hotelSearchService.searchHotels(request("tokyo", checkIn, checkOut, 0, 20));
+
+        // Then
+        assertThat(result.getContent()).hasSize(2);
+        verify(hotelRepository, times(1)).findAvailableForStay(
+                eq("tokyo"), eq(checkIn), eq(checkOut), any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should cut every page size and number from one shared city list")
+    void testSearchHotels_SharedCityResults() {
+        // Given
+        searchProperties.setShareCityResults(true);
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        LocalDate checkOut = LocalDate.now().plusDays(3);
+        PageRequest shared = PageRequest.of(0, searchProperties.getSharedResultsLimit(), HotelSearchService.PRICE_ORDER);
+        when(hotelRepository.findAvailableForStay("tokyo", checkIn, checkOut, null, null, null, null, shared))
+                .thenReturn(new PageImpl<>(List.of(testHotel2, testHotel1), shared, 2));
+
+        // When
+        Page<HotelResponse> first = hotelSearchService.searchHotels(request("Tokyo", checkIn, checkOut, 0, 1));
+        Page<HotelResponse> second = hotelSearchService.searchHotels(request("Tokyo", checkIn, checkOut, 1, 1));
+        Page<HotelResponse> all = hotelSearchService.searchHotels(request("Tokyo", checkIn, checkOut, 0, 20));
+
+        // Then
+        assertThat(first.getContent()).extracting(HotelResponse::getId).containsExactly(2L);
+        assertThat(second.getContent()).extracting(HotelResponse::getId).containsExactly(1L);
+        assertThat(second.getTotalElements()).isEqualTo(2);
+        assertThat(all.getContent()).extracting(HotelResponse::getId).containsExactly(2L, 1L);
+        verify(hotelRepository, times(1)).findAvailableForStay(
+                anyString(), any(LocalDate.class), any(LocalDate.class), any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should query pages past the shared city list on their own")
+    void testSearchHotels_PageBeyondSharedList() {
+        // Given
+        searchProperties.setShareCityResults(true);
+        searchProperties.setSharedResultsLimit(1);
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        LocalDate checkOut = LocalDate.now().plusDays(3);
+        PageRequest shared = PageRequest.of(0, 1, HotelSearchService.PRICE_ORDER);
+        PageRequest second = PageRequest.of(1, 1, HotelSearchService.PRICE_ORDER);
+        when(hotelRepository.findAvailableForStay("tokyo", checkIn, checkOut, null, null, null, null, shared))
+                .thenReturn(new PageImpl<>(List.of(testHotel2), shared, 2));
+        when(hotelRepository.findAvailableForStay("tokyo", checkIn, checkOut, null, null, null, null, second))
+                .thenReturn(new PageImpl<>(List.of(testHotel1), second, 2));
+
+        // When
+        Page<HotelResponse> result = hotelSearchService.searchHotels(request("Tokyo", checkIn, checkOut, 1, 1));
+
+        // Then
+        assertThat(result.getContent()).extracting(HotelResponse::getId).containsExactly(1L);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should query and cache compact results apart from full ones")
+    void testSearchHotels_Compact() {
+        // Given
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        LocalDate checkOut = LocalDate.now().plusDays(3);
+        HotelResponse compactHotel = HotelResponse.builder().id(2L).name("Business Inn Tokyo").build();
+        when(hotelRepository.findAvailableForStay(anyString(), any(LocalDate.class), any(LocalDate.class), any(), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testHotel2)));
+        when(hotelRepository.findAvailableForStayCompact(anyString(), any(LocalDate.class), any(LocalDate.class), any(), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(compactHotel)));
+        HotelSearchRequest compact = request("Tokyo", checkIn, checkOut, 0, 20);
+        compact.setCompact(true);
+
+        // When
+        Page<HotelResponse> full = hotelSearchService.searchHotels(request("Tokyo", checkIn, checkOut, 0, 20));
+        hotelSearchService.searchHotels(compact);
+        Page<HotelResponse> result = hotelSearchService.searchHotels(compact);
+
+        // Then
+        assertThat(full.getContent().get(0).getDescription()).isEqualTo("Affordable business hotel");
+        assertThat(result.getContent().get(0).getDescription()).isNull();
+        verify(hotelRepository, times(1)).findAvailableForStay(
+                anyString(), any(LocalDate.class), any(LocalDate.class), any(), any(), any(), any(), any(Pageable.class));
+        verify(hotelRepository, times(1)).findAvailableForStayCompact(
+                anyString(), any(LocalDate.class), any(LocalDate.class), any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should filter and re-sort a complete shared city list in memory")
+    void testSearchHotels_FilterSharedCityResults() {
+        // Given
+        searchProperties.setShareCityResults(true);
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        LocalDate checkOut = LocalDate.now().plusDays(3);
+        PageRequest shared = PageRequest.of(0, searchProperties.getSharedResultsLimit(), HotelSearchService.PRICE_ORDER);
+        when(hotelRepository.findAvailableForStay("tokyo", checkIn, checkOut, null, null, null, null, shared))
+                .thenReturn(new PageImpl<>(List.of(testHotel2, testHotel1), shared, 2));
+        HotelSearchRequest byRating = request("Tokyo", checkIn, checkOut, 0, 20);
+        byRating.setSort(HotelSearchSort.RATING_DESC);
+        HotelSearchRequest expensive = request("Tokyo", checkIn, checkOut, 0, 20);
+        expensive.setMinPrice(new BigDecimal("10000"));
+
+        // When
+        Page<HotelResponse> rated = hotelSearchService.searchHotels(byRating);
+        Page<HotelResponse> filtered = hotelSearchService.searchHotels(expensive);
+
+        // Then
+        assertThat(rated.getContent()).extracting(HotelResponse::getId).containsExactly(1L, 2L);
+        assertThat(filtered.getContent()).extracting(HotelResponse::getId).containsExactly(1L);
+        assertThat(filtered.getTotalElements()).isEqualTo(1);
+        verify(hotelRepository, times(1)).findAvailableForStay(
+                anyString(), any(LocalDate.class), any(LocalDate.class), any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should throw exception when the minimum price exceeds the maximum price")
+    void testSearchHotels_InvalidPriceRange() {
+        // Given
+        HotelSearchRequest request = request("Tokyo", LocalDate.now().plusDays(1), LocalDate.now().plusDays(3), 0, 20);
+        request.setMinPrice(new BigDecimal("300"));
+        request.setMaxPrice(new BigDecimal("100"));
+
+        // When & Then
+        assertThatThrownBy(() -> hotelSearchService.searchHotels(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Minimum price must not exceed maximum price");
+    }
+
+    @Test
+    @DisplayName("Should normalize city names for cache keys")
+    void testNormalizeCity() {
+        assertThat(HotelSearchKeys.normalizeCity("  New \t York ")).isEqualTo("new york");
+        assertThat(HotelSearchKeys.normalizeCity("TOKYO")).isEqualTo("tokyo");
+        String canonical = "tokyo";
+        assertThat(HotelSearchKeys.normalizeCity(canonical)).isSameAs(canonical);
+    }
+
+    @Test
+    @DisplayName("Should return a cursor to the last hotel of a full slice")
+    void testSearchHotelsByCursor_NextCursor() {
+        // Given
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        LocalDate checkOut = LocalDate.now().plusDays(3);
+        when(hotelRepository.findAvailableForStayAfter("tokyo", checkIn, checkOut, null, null, null, null,
+                HotelSearchCursor.START.price(), HotelSearchCursor.START.id(), PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(testHotel2), PageRequest.of(0, 1), true));
+
+        // When
+        HotelSearchSlice slice = hotelSearchService.searchHotelsByCursor(request("Tokyo", checkIn, checkOut, 0, 1), null, false);
+
+        // Then
+        assertThat(slice.getContent()).extracting(HotelResponse::getId).containsExactly(2L);
+        assertThat(slice.isHasNext()).isTrue();
+        assertThat(HotelSearchCursor.decode(slice.getNextCursor()))
+                .isEqualTo(new HotelSearchCursor(new BigDecimal("8000.00"), 2L));
+        assertThat(slice.getApproximateTotal()).isNull();
+        verify(hotelRepository, never()).countAvailableForStay(anyString(), any(LocalDate.class), any(LocalDate.class),
+                any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should serve the approximate total from cache")
+    void testSearchHotelsByCursor_CachedTotal() {
+        // Given
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        LocalDate checkOut = LocalDate.now().plusDays(3);
+        when(hotelRepository.findAvailableForStayAfter(anyString(), any(LocalDate.class), any(LocalDate.class),
+                any(), any(), any(), any(), any(BigDecimal.class), anyLong(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(testHotel2, testHotel1)));
+        when(hotelRepository.countAvailableForStay("tokyo", checkIn, checkOut, null, null, null, null)).thenReturn(2L);
+
+        // When
+        hotelSearchService.searchHotelsByCursor(request("Tokyo", checkIn, checkOut, 0, 20), null, true);
+        HotelSearchSlice slice = hotelSearchService.searchHotelsByCursor(request("tokyo", checkIn, checkOut, 0, 20), null, true);
+
+        // Then
+        assertThat(slice.getApproximateTotal()).isEqualTo(2L);
+        assertThat(slice.isHasNext()).isFalse();
+        assertThat(slice.getNextCursor()).isNull();
+        verify(hotelRepository, times(1)).countAvailableForStay("tokyo", checkIn, checkOut, null, null, null, null);
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor it did not issue")
+    void testSearchHotelsByCursor_InvalidCursor() {
+        // Given
+        HotelSearchRequest request = request("Tokyo", LocalDate.now().plusDays(1), LocalDate.now().plusDays(3), 0, 20);
+
+        // When & Then
+        assertThatThrownBy(() -> hotelSearchService.searchHotelsByCursor(request, "not-a-cursor", false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private static HotelSearchRequest request(String city, LocalDate checkIn, LocalDate checkOut, int page, int size) {
+        return HotelSearchRequest.builder()
+                .city(city)
+                .checkIn(checkIn)
+                .checkOut(checkOut)
+                .guests(1)
+                .page(page)
+                .size(size)
+                .build();
+    }
 }
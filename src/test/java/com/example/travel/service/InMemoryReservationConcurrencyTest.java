@@ -0,0 +1,14 @@
+package com.example.travel.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs the concurrent booking stress test in IN_MEMORY admission mode:
+ * striped counters admit the bookings and the write-behind flush must leave
+ * reservations and room_inventory exactly where the database mode would.
+ */
+@TestPropertySource(properties = "travel.inventory.mode=in-memory")
+@DisplayName("In-Memory Reservation Concurrency Tests")
+class InMemoryReservationConcurrencyTest extends ReservationConcurrencyTest {
+}
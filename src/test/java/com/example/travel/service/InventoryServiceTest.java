@@ -0,0 +1,106 @@
+package com.example.travel.service;
+
+import com.example.travel.entity.Reservation;
+import com.example.travel.entity.RoomInventory;
+import com.example.travel.repository.RoomInventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InventoryService.
+ * Tests per-night room allocation rules.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Inventory Service Tests")
+class InventoryServiceTest {
+
+    @Mock
+    private RoomInventoryRepository roomInventoryRepository;
+
+    @InjectMocks
+    private InventoryService inventoryService;
+
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    @BeforeEach
+    void setUp() {
+        checkIn = LocalDate.now().plusDays(1);
+        checkOut = checkIn.plusDays(2);
+    }
+
+    @Test
+    @DisplayName("Should take one room on every night of the stay")
+    void testReserveRoom_Success() {
+        // Given
+        when(roomInventoryRepository.takeRoom(1L, checkIn, checkOut)).thenReturn(2);
+
+        // When
+        boolean reserved = inventoryService.reserveRoom(1L, checkIn, checkOut);
+
+        // Then
+        assertThat(reserved).isTrue();
+        verify(roomInventoryRepository).seedNight(1L, checkIn);
+        verify(roomInventoryRepository).seedNight(1L, checkIn.plusDays(1));
+    }
+
+    @Test
+    @DisplayName("Should report failure when any night is sold out")
+    void testReserveRoom_NightSoldOut() {
+        // Given
+        when(roomInventoryRepository.takeRoom(1L, checkIn, checkOut)).thenReturn(1);
+
+        // When
+        boolean reserved = inventoryService.reserveRoom(1L, checkIn, checkOut);
+
+        // Then
+        assertThat(reserved).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should admit batch stays in order against the locked nights")
+    void testReserveRoomsLocked_AdmitsUntilSoldOut() {
+        // Given
+        RoomInventory firstNight = new RoomInventory(1L, checkIn, 2);
+        RoomInventory secondNight = new RoomInventory(1L, checkIn.plusDays(1), 1);
+        when(roomInventoryRepository.lockStay(1L, checkIn, checkOut)).thenReturn(List.of(firstNight, secondNight));
+        Reservation twoNights = Reservation.builder().hotelId(1L).checkIn(checkIn).checkOut(checkOut).build();
+        Reservation sameStay = Reservation.builder().hotelId(1L).checkIn(checkIn).checkOut(checkOut).build();
+        Reservation firstNightOnly = Reservation.builder().hotelId(1L).checkIn(checkIn).checkOut(checkIn.plusDays(1)).build();
+
+        // When
+        boolean[] reserved = inventoryService.reserveRoomsLocked(1L, List.of(twoNights, sameStay, firstNightOnly));
+
+        // Then
+        assertThat(reserved).containsExactly(true, false, true);
+        assertThat(firstNight.getAvailableRooms()).isZero();
+        assertThat(secondNight.getAvailableRooms()).isZero();
+        verify(roomInventoryRepository, times(2)).seedNight(eq(1L), any(LocalDate.class)); // Each night seeded once
+    }
+
+    @Test
+    @DisplayName("Should reject stays longer than the supported maximum")
+    void testReserveRoom_StayTooLong() {
+        // When & Then
+        assertThatThrownBy(() -> inventoryService.reserveRoom(1L, checkIn, checkIn.plusDays(InventoryService.MAX_STAY_NIGHTS + 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("nights are not supported");
+
+        verify(roomInventoryRepository, never()).seedNight(anyLong(), any(LocalDate.class));
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.travel.service;
+
+import com.example.travel.TestHotels;
+import com.example.travel.dto.HotelSearchRequest;
+import com.example.travel.dto.HotelSearchSort;
+import com.example.travel.entity.Hotel;
+import com.example.travel.entity.RoomInventory;
+import com.example.travel.repository.HotelRepository;
+import com.example.travel.repository.RoomInventoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The R2DBC search path against the embedded H2 database, which the JDBC side writes to.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Reactive Hotel Search Service Tests")
+class ReactiveHotelSearchServiceTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(40);
+
+    // Every test gets hotels in a city of its own
+    private final String city = "Reactive City " + UUID.randomUUID();
+
+    @Autowired
+    private ReactiveHotelSearchService reactiveHotelSearchService;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private RoomInventoryRepository roomInventoryRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Hotel cheap;
+    private Hotel soldOut;
+    private Hotel premium;
+
+    @BeforeEach
+    void setUp() {
+        cheap = saveHotel("Reactive Budget", "80.00", 3.5, 2);
+        soldOut = saveHotel("Reactive Full", "90.00", 4.0, 2);
+        premium = saveHotel("Reactive Premium", "300.00", 4.8, 4);
+        roomInventoryRepository.save(RoomInventory.builder()
+                .hotelId(soldOut.getId())
+                .stayDate(CHECK_IN.plusDays(1))
+                .availableRooms(0)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should stream available hotels in price order, leaving out sold-out ones")
+    void testSearchHotels_PriceOrder() {
+        StepVerifier.create(reactiveHotelSearchService.searchHotels(request(HotelSearchSort.PRICE_ASC)))
+                .assertNext(hotel -> {
+                    assertThat(hotel.getId()).isEqualTo(cheap.getId());
+                    assertThat(hotel.getPricePerNight()).isEqualByComparingTo("80.00");
+                    assertThat(hotel.getMaxOccupancy()).isEqualTo(2);
+                })
+                .assertNext(hotel -> assertThat(hotel.getId()).isEqualTo(premium.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should record the search latency under the reactive endpoint")
+    void testSearchHotels_RecordsLatency() {
+        long before = reactiveSearches();
+
+        StepVerifier.create(reactiveHotelSearchService.searchHotels(request(HotelSearchSort.PRICE_ASC)))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        assertThat(reactiveSearches()).isEqualTo(before + 1);
+    }
+
+    @Test
+    @DisplayName("Should apply filters, order and compact results in SQL")
+    void testSearchHotels_FiltersAndSort() {
+        HotelSearchRequest request = request(HotelSearchSort.RATING_DESC);
+        request.setGuests(3);
+        request.setCompact(true);
+
+        StepVerifier.create(reactiveHotelSearchService.searchHotels(request))
+                .assertNext(hotel -> {
+                    assertThat(hotel.getId()).isEqualTo(premium.getId());
+                    assertThat(hotel.getDescription()).isNull();
+                })
+                .verifyComplete();
+
+        request.setMinRating(4.9);
+        StepVerifier.create(reactiveHotelSearchService.searchHotels(request))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid stay before subscribing")
+    void testSearchHotels_InvalidDateRange() {
+        HotelSearchRequest request = request(HotelSearchSort.PRICE_ASC);
+        request.setCheckOut(CHECK_IN);
+
+        assertThatThrownBy(() -> reactiveHotelSearchService.searchHotels(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Check-out date must be after check-in date");
+    }
+
+    private long reactiveSearches() {
+        return meterRegistry.find(TravelMetrics.SEARCH)
+                .tags("endpoint", "reactive", "source", "uncached")
+                .timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+
+    private Hotel saveHotel(String name, String price, double rating, int maxOccupancy) {
+        return hotelRepository.save(TestHotels.hotel(city)
+                .name(name)
+                .pricePerNight(new BigDecimal(price))
+                .rating(rating)
+                .description(name + " description")
+                .maxOccupancy(maxOccupancy)
+                .build());
+    }
+
+    private HotelSearchRequest request(HotelSearchSort sort) {
+        return HotelSearchRequest.builder()
+                .city(city)
+                .checkIn(CHECK_IN)
+                .checkOut(CHECK_IN.plusDays(2))
+                .guests(1)
+                .page(0)
+                .size(20)
+                .sort(sort)
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.travel.service;
+
+import com.example.travel.TestHotels;
+import com.example.travel.dto.BatchReservationResponse;
+import com.example.travel.dto.ReservationRequest;
+import com.example.travel.entity.Hotel;
+import com.example.travel.entity.RoomInventory;
+import com.example.travel.entity.RoomInventoryId;
+import com.example.travel.repository.HotelRepository;
+import com.example.travel.repository.RoomInventoryRepository;
+import com.example.travel.repository.ShardedReservationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stress test for concurrent bookings against the embedded H2 database.
+ * Many threads race for the last rooms of the same hotel and stay; the guarded
+ * inventory UPDATE must admit exactly the allotment and reject everyone else.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Reservation Concurrency Tests")
+class ReservationConcurrencyTest {
+
+    private static final int ALLOTMENT = 5;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS = 64;
+    private static final int BATCHES = 8;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private ShardedReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomInventoryRepository roomInventoryRepository;
+
+    @Test
+    @DisplayName("Should never overbook a night under concurrent reservations")
+    void testCreateReservation_NoOverbooking() throws Exception {
+        // Given
+        Hotel hotel = saveHotel("Flash Sale Hotel");
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        LocalDate checkOut = checkIn.plusDays(2);
+        long reservationsBefore = reservationRepository.count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < ATTEMPTS; i++) {
+            ReservationRequest request = ReservationRequest.builder()
+                    .hotelId(hotel.getId())
+                    .guestName("Guest " + i)
+                    .guestEmail("guest" + i + "@example.com")
+                    .checkIn(checkIn)
+                    .checkOut(checkOut)
+                    .guests(1)
+                    .build();
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    reservationService.createReservation(request);
+                    accepted.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS); // Propagates any unexpected failure
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(accepted.get()).isEqualTo(ALLOTMENT);
+        assertThat(rejected.get()).isEqualTo(ATTEMPTS - ALLOTMENT);
+        assertThat(reservationRepository.count() - reservationsBefore).isEqualTo(ALLOTMENT);
+        assertSoldOut(hotel, checkIn, checkOut);
+    }
+
+    @Test
+    @DisplayName("Should never overbook or deadlock under concurrent batches")
+    void testCreateReservations_NoOverbooking() throws Exception {
+        // Given
+        Hotel first = saveHotel("Group Hotel A");
+        Hotel second = saveHotel("Group Hotel B");
+        LocalDate checkIn = LocalDate.now().plusDays(20);
+        LocalDate checkOut = checkIn.plusDays(3);
+        long reservationsBefore = reservationRepository.count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BatchReservationResponse>> futures = new ArrayList<>();
+
+        // When - every batch books both hotels, half of them in reverse order
+        for (int i = 0; i < BATCHES; i++) {
+            List<ReservationRequest> batch = new ArrayList<>();
+            for (int j = 0; j < 4; j++) {
+                Hotel hotel = (i + j) % 2 == 0 ? first : second;
+                batch.add(ReservationRequest.builder()
+                        .hotelId(hotel.getId())
+                        .guestName("Group " + i + " Guest " + j)
+                        .guestEmail("group" + i + "." + j + "@example.com")
+                        .checkIn(checkIn)
+                        .checkOut(checkOut)
+                        .guests(2)
+                        .build());
+            }
+            futures.add(executor.submit(() -> {
+                start.await();
+                return reservationService.createReservations(batch);
+            }));
+        }
+        start.countDown();
+        int created = 0;
+        for (Future<BatchReservationResponse> future : futures) {
+            created += future.get(60, TimeUnit.SECONDS).getCreated();
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(created).isEqualTo(2 * ALLOTMENT);
+        assertThat(reservationRepository.count() - reservationsBefore).isEqualTo(2 * ALLOTMENT);
+        assertSoldOut(first, checkIn, checkOut);
+        assertSoldOut(second, checkIn, checkOut);
+    }
+
+    private Hotel saveHotel(String name) {
+        return hotelRepository.save(TestHotels.hotel("Tokyo", ALLOTMENT)
+                .name(name)
+                .build());
+    }
+
+    private void assertSoldOut(Hotel hotel, LocalDate checkIn, LocalDate checkOut) {
+        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+            RoomInventory inventory = roomInventoryRepository.findById(new RoomInventoryId(hotel.getId(), night))
+                    .orElseThrow();
+            assertThat(inventory.getAvailableRooms()).isZero();
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.travel.service;
+
+import com.example.travel.TestHotels;
+import com.example.travel.config.IdempotencyProperties;
+import com.example.travel.config.InventoryProperties;
+import com.example.travel.dto.ReservationRequest;
+import com.example.travel.dto.ReservationResponse;
+import com.example.travel.entity.Hotel;
+import com.example.travel.entity.RoomInventoryId;
+import com.example.travel.exception.IdempotencyKeyConflictException;
+import com.example.travel.exception.NoRoomsAvailableException;
+import com.example.travel.repository.HotelRepository;
+import com.example.travel.repository.IdempotencyKeyRepository;
+import com.example.travel.repository.RoomInventoryRepository;
+import com.example.travel.repository.ShardedReservationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Idempotency-Key handling of single bookings against the embedded H2 database:
+ * retries on the same node, on another node (a second IdempotencyKeyStore sharing
+ * the database) and concurrent retries must all book once.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Reservation Idempotency Tests")
+class ReservationIdempotencyTest {
+
+    private static final int ALLOTMENT = 5;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private RoomInventoryRepository roomInventoryRepository;
+
+    @SpyBean
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private IdempotencyProperties idempotencyProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InventoryProperties inventoryProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ShardedReservationRepository reservationRepository;
+
+    @Test
+    @DisplayName("Should book once and answer a retry on the same node from memory")
+    void testCreateReservation_RetrySameNode() {
+        // Given
+        Hotel hotel = saveHotel(ALLOTMENT);
+        ReservationRequest request = request(hotel, 10);
+        String key = UUID.randomUUID().toString();
+
+        // When
+        ReservationResponse first = reservationService.createReservation(request, key);
+        ReservationResponse retry = reservationService.createReservation(request, key);
+
+        // Then
+        assertThat(retry).isEqualTo(first);
+        assertThat(availableRooms(hotel, request.getCheckIn())).isEqualTo(ALLOTMENT - 1);
+        verify(idempotencyKeyRepository, times(1)).claim(eq(key), any(), any());
+        verify(idempotencyKeyRepository, times(0)).findById(key);
+    }
+
+    @Test
+    @DisplayName("Should answer a retry on another node with the stored response")
+    void testCreateReservation_RetryOtherNode() {
+        // Given
+        Hotel hotel = saveHotel(ALLOTMENT);
+        ReservationRequest request = request(hotel, 20);
+        String key = UUID.randomUUID().toString();
+        ReservationResponse first = reservationService.createReservation(request, key);
+        IdempotencyKeyStore otherNode = new IdempotencyKeyStore(idempotencyProperties, idempotencyKeyRepository,
+                objectMapper, inventoryProperties, reservationRepository, transactionManager);
+
+        // When
+        IdempotencyKeyStore.Result retry = otherNode.execute(key, request, reservationId -> {
+            throw new AssertionError("A retry must not book again");
+        }, reservationId -> Optional.empty());
+
+        // Then
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.response()).isEqualTo(first);
+        assertThat(availableRooms(hotel, request.getCheckIn())).isEqualTo(ALLOTMENT - 1);
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for another request, or still in progress elsewhere")
+    void testCreateReservation_KeyConflicts() {
+        // Given
+        Hotel hotel = saveHotel(ALLOTMENT);
+        ReservationRequest request = request(hotel, 30);
+        String key = UUID.randomUUID().toString();
+        reservationService.createReservation(request, key);
+        String pendingKey = UUID.randomUUID().toString();
+        idempotencyKeyRepository.claim(pendingKey, IdempotencyKeyStore.fingerprint(request), LocalDateTime.now());
+
+        // When & Then
+        assertThatThrownBy(() -> reservationService.createReservation(request(hotel, 31), key))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("different reservation request");
+        assertThatThrownBy(() -> reservationService.createReservation(request, pendingKey))
+                .isInstanceOf(IdempotencyKeyConflictException.class);
+        assertThat(availableRooms(hotel, request.getCheckIn())).isEqualTo(ALLOTMENT - 1);
+    }
+
+    @Test
+    @DisplayName("Should take over a key left without a response past its lease")
+    void testCreateReservation_ExpiredLeaseIsTakenOver() {
+        // Given
+        Hotel hotel = saveHotel(ALLOTMENT);
+        ReservationRequest request = request(hotel, 35);
+        String key = UUID.randomUUID().toString();
+        idempotencyKeyRepository.claim(key, IdempotencyKeyStore.fingerprint(request),
+                LocalDateTime.now().minus(idempotencyProperties.getLease()).minusSeconds(1));
+
+        // When
+        ReservationResponse response = reservationService.createReservation(request, key);
+
+        // Then
+        assertThat(availableRooms(hotel, request.getCheckIn())).isEqualTo(ALLOTMENT - 1);
+        assertThat(idempotencyKeyRepository.findById(key).orElseThrow().getReservationId())
+                .isEqualTo(response.getId());
+    }
+
+    @Test
+    @DisplayName("Should replay a booking that committed before its node could store the response")
+    void testCreateReservation_ExpiredLeaseWithBookingIsReplayed() {
+        // Given: the node booked under the recorded id, then died before completing the key
+        Hotel hotel = saveHotel(ALLOTMENT);
+        ReservationRequest request = request(hotel, 37);
+        String key = UUID.randomUUID().toString();
+        ReservationResponse booked = reservationService.createReservation(request);
+        idempotencyKeyRepository.claim(key, IdempotencyKeyStore.fingerprint(request),
+                LocalDateTime.now().minus(idempotencyProperties.getLease()).minusSeconds(1));
+        idempotencyKeyRepository.assignReservation(key, booked.getId());
+
+        // When
+        ReservationResponse retry = reservationService.createReservation(request, key);
+
+        // Then
+        assertThat(retry.getId()).isEqualTo(booked.getId());
+        assertThat(availableRooms(hotel, request.getCheckIn())).isEqualTo(ALLOTMENT - 1);
+        assertThat(idempotencyKeyRepository.findById(key).orElseThrow().getResponse()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should release the key of a rejected booking so it can be retried")
+    void testCreateReservation_RejectedReleasesKey() {
+        // Given
+        Hotel hotel = saveHotel(0);
+        ReservationRequest request = request(hotel, 40);
+        String key = UUID.randomUUID().toString();
+
+        // When
+        assertThatThrownBy(() -> reservationService.createReservation(request, key))
+                .isInstanceOf(NoRoomsAvailableException.class);
+
+        // Then
+        assertThat(idempotencyKeyRepository.findById(key)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should book once for concurrent retries of the same key")
+    void testCreateReservation_ConcurrentRetries() throws Exception {
+        // Given
+        Hotel hotel = saveHotel(ALLOTMENT);
+        ReservationRequest request = request(hotel, 50);
+        String key = UUID.randomUUID().toString();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ReservationResponse>> futures = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 16; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return reservationService.createReservation(request, key);
+            }));
+        }
+        start.countDown();
+        List<Long> ids = new ArrayList<>();
+        for (Future<ReservationResponse> future : futures) {
+            ids.add(future.get(60, TimeUnit.SECONDS).getId());
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(ids).containsOnly(ids.get(0));
+        assertThat(availableRooms(hotel, request.getCheckIn())).isEqualTo(ALLOTMENT - 1);
+    }
+
+    private Hotel saveHotel(int rooms) {
+        return hotelRepository.save(TestHotels.hotel("Osaka", rooms)
+                .name("Retry Hotel")
+                .build());
+    }
+
+    private static ReservationRequest request(Hotel hotel, int daysAhead) {
+        LocalDate checkIn = LocalDate.now().plusDays(daysAhead);
+        return ReservationRequest.builder()
+                .hotelId(hotel.getId())
+                .guestName("Hanako Sato")
+                .guestEmail("hanako@example.com")
+                .checkIn(checkIn)
+                .checkOut(checkIn.plusDays(2))
+                .guests(2)
+                .build();
+    }
+
+    private int availableRooms(Hotel hotel, LocalDate night) {
+        return roomInventoryRepository.findById(new RoomInventoryId(hotel.getId(), night))
+                .orElseThrow()
+                .getAvailableRooms();
+    }
+}
@@ -1,28 +1,36 @@
 package com.example.travel.service;
 
+import com.example.travel.config.InventoryProperties;
+import com.example.travel.config.MetricsProperties;
+import com.example.travel.config.ReadYourWrites;
+import com.example.travel.dto.BatchReservationResponse;
+import com.example.travel.dto.BatchReservationResult;
 import com.example.travel.dto.ReservationRequest;
 import com.example.travel.dto.ReservationResponse;
-import com.example.travel.entity.Hotel;
 import com.example.travel.entity.Reservation;
+import com.example.travel.exception.NoRoomsAvailableException;
 import com.example.travel.exception.ResourceNotFoundException;
-import com.example.travel.repository.HotelRepository;
-import com.example.travel.repository.ReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Optional;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -34,29 +42,29 @@ import static org.mockito.Mockito.*;
 class ReservationServiceTest {
 
     @Mock
-    private ReservationRepository reservationRepository;
+    private ReservationWriter reservationWriter;
 
     @Mock
-    private HotelRepository hotelRepository;
+    private InventoryProperties inventoryProperties;
+
+    @Mock
+    private InMemoryInventory inMemoryInventory;
+
+    @Mock
+    private ReservationWriteBehindQueue writeBehindQueue;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private TravelMetrics travelMetrics = new TravelMetrics(meterRegistry, new MetricsProperties());
 
     @InjectMocks
     private ReservationService reservationService;
 
-    private Hotel testHotel;
     private ReservationRequest validRequest;
 
     @BeforeEach
     void setUp() {
-        testHotel = Hotel.builder()
-                .id(1L)
-                .name("Grand Hotel Tokyo")
-                .city("Tokyo")
-                .pricePerNight(new BigDecimal("15000.00"))
-                .rating(4.5)
-                .totalRooms(100)
-                .availableRooms(50)
-                .build();
-
         validRequest = ReservationRequest.builder()
                 .hotelId(1L)
                 .guestName("John Doe")
@@ -67,22 +75,16 @@ class ReservationServiceTest {
                 .build();
     }
 
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+    }
+
     @Test
     @DisplayName("Should successfully create reservation")
     void testCreateReservation_Success() {
         // Given
-        Reservation savedReservation = Reservation.builder()
-                .id(1L)
-                .hotelId(validRequest.getHotelId())
-                .guestName(validRequest.getGuestName())
-                .guestEmail(validRequest.getGuestEmail())
-                .checkIn(validRequest.getCheckIn())
-                .checkOut(validRequest.getCheckOut())
-                .guests(validRequest.getGuests())
-                .build();
-
-        when(hotelRepository.findById(anyLong())).thenReturn(Optional.of(testHotel));
-        when(reservationRepository.save(any(Reservation.class))).thenReturn(savedReservation);
+        when(reservationWriter.book(any(Reservation.class))).thenAnswer(invocation -> withId(invocation.getArgument(0)));
 
         // When
         ReservationResponse response = reservationService.createReservation(validRequest);
@@ -93,39 +95,37 @@ class ReservationServiceTest {
         assertThat(response.getGuestName()).isEqualTo("John Doe");
         assertThat(response.getHotelId()).isEqualTo(1L);
 
-        verify(hotelRepository).findById(1L);
-        verify(reservationRepository).save(any(Reservation.class));
-        verify(hotelRepository).save(testHotel);
-        assertThat(testHotel.getAvailableRooms()).isEqualTo(49); // Decreased by 1
+        verify(reservationWriter).book(any(Reservation.class));
+        verifyNoInteractions(inMemoryInventory, writeBehindQueue);
     }
 
     @Test
     @DisplayName("Should throw exception when hotel not found")
     void testCreateReservation_HotelNotFound() {
         // Given
-        when(hotelRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(reservationWriter.book(any(Reservation.class)))
+                .thenThrow(new ResourceNotFoundException("Hotel not found with id: 1"));
 
         // When & Then
         assertThatThrownBy(() -> reservationService.createReservation(validRequest))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Hotel not found with id: 1");
-
-        verify(reservationRepository, never()).save(any(Reservation.class));
     }
 
     @Test
     @DisplayName("Should throw exception when no rooms available")
     void testCreateReservation_NoRoomsAvailable() {
         // Given
-        testHotel.setAvailableRooms(0);
-        when(hotelRepository.findById(anyLong())).thenReturn(Optional.of(testHotel));
+        when(reservationWriter.book(any(Reservation.class))).thenThrow(new NoRoomsAvailableException());
 
         // When & Then
         assertThatThrownBy(() -> reservationService.createReservation(validRequest))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("No rooms available at this hotel");
-
-        verify(reservationRepository, never()).save(any(Reservation.class));
+        assertThat(meterRegistry.get(TravelMetrics.BOOKING_REJECTIONS).tag("reason", "no_rooms").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(TravelMetrics.BOOKING).tags("kind", "single", "outcome", "rejected").timer().count())
+                .isEqualTo(1);
     }
 
     @Test
@@ -140,7 +140,92 @@ class ReservationServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Check-out date must be after check-in date");
 
-        verify(hotelRepository, never()).findById(anyLong());
-        verify(reservationRepository, never()).save(any(Reservation.class));
+        verifyNoInteractions(reservationWriter, inMemoryInventory, writeBehindQueue);
+    }
+
+    @Test
+    @DisplayName("Should admit in memory and return the written reservation in in-memory mode")
+    void testCreateReservation_InMemorySuccess() {
+        // Given
+        InventoryHold hold = new InventoryHold(List.of());
+        when(inventoryProperties.isInMemory()).thenReturn(true);
+        when(inMemoryInventory.tryReserve(1L, validRequest.getCheckIn(), validRequest.getCheckOut())).thenReturn(hold);
+        when(writeBehindQueue.submit(any(Reservation.class), eq(hold)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(withId(invocation.getArgument(0))));
+        when(writeBehindQueue.await(any(), anyLong()))
+                .thenAnswer(invocation -> invocation.<CompletableFuture<Reservation>>getArgument(0).join());
+
+        // When
+        ReservationResponse response = reservationService.createReservation(validRequest);
+
+        // Then
+        assertThat(response.getId()).isEqualTo(1L);
+        verify(reservationWriter, never()).book(any(Reservation.class));
+        // Written on the write-behind thread, but marked for this request's cookie
+        assertThat(ReadYourWrites.wrote()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject without queueing when in-memory counters are sold out")
+    void testCreateReservation_InMemorySoldOut() {
+        // Given
+        when(inventoryProperties.isInMemory()).thenReturn(true);
+        when(inMemoryInventory.tryReserve(anyLong(), any(LocalDate.class), any(LocalDate.class))).thenReturn(null);
+
+        // When & Then
+        assertThatThrownBy(() -> reservationService.createReservation(validRequest))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No rooms available at this hotel");
+
+        verifyNoInteractions(writeBehindQueue);
+    }
+
+    @Test
+    @DisplayName("Should return a result per batch item in request order")
+    void testCreateReservations_MixedResults() {
+        // Given
+        ReservationRequest invalidDates = ReservationRequest.builder()
+                .hotelId(2L)
+                .guestName("Jane Doe")
+                .guestEmail("jane.doe@example.com")
+                .checkIn(LocalDate.now().plusDays(5))
+                .checkOut(LocalDate.now().plusDays(3))
+                .guests(1)
+                .build();
+        ReservationRequest soldOut = ReservationRequest.builder()
+                .hotelId(3L)
+                .guestName("Max Mustermann")
+                .guestEmail("max@example.com")
+                .checkIn(LocalDate.now().plusDays(1))
+                .checkOut(LocalDate.now().plusDays(2))
+                .guests(1)
+                .build();
+        when(reservationWriter.bookAll(anyList())).thenAnswer(invocation -> {
+            List<Reservation> reservations = invocation.getArgument(0);
+            return List.of(
+                    new ReservationWriter.BookingOutcome(withId(reservations.get(0)), null),
+                    new ReservationWriter.BookingOutcome(reservations.get(1),
+                            new IllegalArgumentException("No rooms available at this hotel")));
+        });
+
+        // When
+        BatchReservationResponse response = reservationService.createReservations(
+                List.of(validRequest, invalidDates, soldOut));
+
+        // Then
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(BatchReservationResult::getStatus).containsExactly(
+                BatchReservationResult.Status.CREATED,
+                BatchReservationResult.Status.REJECTED,
+                BatchReservationResult.Status.REJECTED);
+        assertThat(response.getResults().get(0).getReservation().getId()).isEqualTo(1L);
+        assertThat(response.getResults().get(1).getError()).contains("Check-out date must be after check-in date");
+        assertThat(response.getResults().get(2).getError()).contains("No rooms available at this hotel");
+    }
+
+    private Reservation withId(Reservation reservation) {
+        reservation.setId(1L);
+        return reservation;
     }
 }
@@ -0,0 +1,189 @@
+package com.example.travel.service;
+
+import com.example.travel.entity.Reservation;
+import com.example.travel.exception.NoRoomsAvailableException;
+import com.example.travel.exception.ResourceNotFoundException;
+import com.example.travel.repository.HotelRepository;
+import com.example.travel.repository.RoomInventoryRepository;
+import com.example.travel.repository.ShardedReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReservationWriter.
+ * Tests the transactional booking and write-behind batch paths.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Reservation Writer Tests")
+class ReservationWriterTest {
+
+    @Mock
+    private ShardedReservationRepository reservationRepository;
+
+    @Mock
+    private HotelRepository hotelRepository;
+
+    @Mock
+    private RoomInventoryRepository roomInventoryRepository;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ReservationWriter reservationWriter;
+
+    private Reservation reservation;
+
+    @BeforeEach
+    void setUp() {
+        reservation = Reservation.builder()
+                .hotelId(1L)
+                .guestName("John Doe")
+                .guestEmail("john.doe@example.com")
+                .checkIn(LocalDate.now().plusDays(1))
+                .checkOut(LocalDate.now().plusDays(3))
+                .guests(2)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should take the rooms and save the reservation")
+    void testBook_Success() {
+        // Given
+        when(inventoryService.reserveRoom(1L, reservation.getCheckIn(), reservation.getCheckOut())).thenReturn(true);
+        when(reservationRepository.save(reservation)).thenReturn(reservation);
+
+        // When
+        Reservation saved = reservationWriter.book(reservation);
+
+        // Then
+        assertThat(saved).isSameAs(reservation);
+        verify(hotelRepository, never()).existsById(anyLong()); // No hotel lookup on the hot path
+        verify(eventPublisher).publishEvent(
+                new AvailabilityChangedEvent(1L, reservation.getCheckIn(), reservation.getCheckOut()));
+    }
+
+    @Test
+    @DisplayName("Should throw exception when hotel not found")
+    void testBook_HotelNotFound() {
+        // Given
+        when(inventoryService.reserveRoom(anyLong(), any(LocalDate.class), any(LocalDate.class))).thenReturn(false);
+        when(hotelRepository.existsById(1L)).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> reservationWriter.book(reservation))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Hotel not found with id: 1");
+
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    @DisplayName("Should throw exception when no rooms available")
+    void testBook_NoRoomsAvailable() {
+        // Given
+        when(inventoryService.reserveRoom(anyLong(), any(LocalDate.class), any(LocalDate.class))).thenReturn(false);
+        when(hotelRepository.existsById(1L)).thenReturn(true);
+
+        // When & Then
+        assertThatThrownBy(() -> reservationWriter.book(reservation))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No rooms available at this hotel");
+
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    @DisplayName("Should aggregate admitted bookings into one inventory update per night")
+    void testWriteAdmitted_AggregatesNights() {
+        // Given
+        Reservation sameStay = Reservation.builder()
+                .hotelId(1L)
+                .guestName("Jane Doe")
+                .guestEmail("jane.doe@example.com")
+                .checkIn(reservation.getCheckIn())
+                .checkOut(reservation.getCheckOut())
+                .guests(1)
+                .build();
+        when(roomInventoryRepository.takeRooms(eq(1L), any(LocalDate.class), eq(2))).thenReturn(1);
+
+        // When
+        List<ReservationWriter.BookingOutcome> outcomes = reservationWriter.writeAdmitted(List.of(reservation, sameStay));
+
+        // Then
+        assertThat(outcomes).extracting(ReservationWriter.BookingOutcome::rejection).containsOnlyNulls();
+        verify(reservationRepository).saveAll(List.of(reservation, sameStay));
+        verify(roomInventoryRepository).takeRooms(1L, reservation.getCheckIn(), 2);
+        verify(roomInventoryRepository).takeRooms(1L, reservation.getCheckIn().plusDays(1), 2);
+        verify(roomInventoryRepository, times(2)).seedNight(eq(1L), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Should reject only the stays on a night the database has fewer rooms for")
+    void testWriteAdmitted_InventoryBehind() {
+        // Given
+        LocalDate firstNight = reservation.getCheckIn();
+        LocalDate shortNight = firstNight.plusDays(1);
+        Reservation otherHotel = Reservation.builder()
+                .hotelId(2L)
+                .guestName("Jane Doe")
+                .guestEmail("jane.doe@example.com")
+                .checkIn(reservation.getCheckIn())
+                .checkOut(reservation.getCheckOut())
+                .guests(1)
+                .build();
+        when(roomInventoryRepository.takeRooms(anyLong(), any(LocalDate.class), eq(1))).thenReturn(1);
+        when(roomInventoryRepository.takeRooms(1L, shortNight, 1)).thenReturn(0);
+
+        // When
+        List<ReservationWriter.BookingOutcome> outcomes = reservationWriter.writeAdmitted(List.of(reservation, otherHotel));
+
+        // Then
+        assertThat(outcomes.get(0).rejection()).isInstanceOf(NoRoomsAvailableException.class);
+        assertThat(outcomes.get(1).rejection()).isNull();
+        verify(roomInventoryRepository).returnRooms(1L, firstNight, 1);
+        verify(reservationRepository).saveAll(List.of(otherHotel));
+    }
+
+    @Test
+    @DisplayName("Should book batch items independently and keep request order")
+    void testBookAll_IndependentItems() {
+        // Given
+        Reservation unknownHotel = Reservation.builder()
+                .hotelId(99L)
+                .guestName("Jane Doe")
+                .guestEmail("jane.doe@example.com")
+                .checkIn(reservation.getCheckIn())
+                .checkOut(reservation.getCheckOut())
+                .guests(1)
+                .build();
+        when(inventoryService.reserveRoomsLocked(1L, List.of(reservation))).thenReturn(new boolean[]{true});
+        when(inventoryService.reserveRoomsLocked(99L, List.of(unknownHotel))).thenReturn(new boolean[]{false});
+        when(hotelRepository.existsById(99L)).thenReturn(false);
+
+        // When
+        List<ReservationWriter.BookingOutcome> outcomes = reservationWriter.bookAll(List.of(unknownHotel, reservation));
+
+        // Then
+        assertThat(outcomes.get(0).rejection()).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(outcomes.get(1).rejection()).isNull();
+        verify(reservationRepository).saveAll(List.of(reservation));
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.travel.service;
+
+import com.example.travel.config.CacheTierProperties;
+import com.example.travel.config.RedisConfig;
+import com.example.travel.config.ReplicaProperties;
+import com.example.travel.config.SearchCacheIndex;
+import com.example.travel.config.SearchProperties;
+import com.example.travel.entity.Hotel;
+import com.example.travel.repository.HotelRepository;
+import com.example.travel.repository.RoomInventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SearchCacheInvalidator.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Search Cache Invalidator Tests")
+class SearchCacheInvalidatorTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.of(2026, 11, 1);
+    private static final LocalDate CHECK_OUT = LocalDate.of(2026, 11, 3);
+
+    @Mock
+    private HotelRepository hotelRepository;
+
+    @Mock
+    private RoomInventoryRepository roomInventoryRepository;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private SearchCacheInvalidator invalidator;
+    private final ReplicaProperties replicaProperties = new ReplicaProperties();
+    private final SearchCacheIndex searchCacheIndex = new SearchCacheIndex(null, new CacheTierProperties());
+
+    @BeforeEach
+    void setUp() {
+        SearchProperties properties = new SearchProperties();
+        properties.setInvalidationDelay(Duration.ofSeconds(10)); // flushed by hand below
+        cacheManager = new ConcurrentMapCacheManager(
+                RedisConfig.HOTEL_SEARCH_CACHE, RedisConfig.HOTEL_SEARCH_CITY_CACHE);
+        invalidator = new SearchCacheInvalidator(properties, replicaProperties, cacheManager, hotelRepository, roomInventoryRepository,
+                new HotelCatalogueIndex(properties, hotelRepository, roomInventoryRepository, null), searchCacheIndex);
+
+        put(RedisConfig.HOTEL_SEARCH_CACHE, "tokyo|2026-11-01|2026-11-03|0|20", "page");
+        put(RedisConfig.HOTEL_SEARCH_CITY_CACHE, "tokyo|2026-11-02|2026-11-05", "list");
+        put(RedisConfig.HOTEL_SEARCH_CACHE, "tokyo|2026-11-02|2026-11-04|0|20", "page");
+        put(RedisConfig.HOTEL_SEARCH_CACHE, "paris|2026-11-01|2026-11-03|0|20", "page");
+    }
+
+    @Test
+    @DisplayName("Should evict the city's entries covering a booked night that sells out")
+    void testFlush_SoldOutNightEvictsStays() {
+        // Given
+        when(roomInventoryRepository.findSoldOutNights(1L, CHECK_IN, CHECK_OUT)).thenReturn(List.of(CHECK_IN));
+        when(hotelRepository.findById(1L)).thenReturn(Optional.of(Hotel.builder().id(1L).city("Tokyo").cityKey("tokyo").build()));
+
+        // When
+        invalidator.onAvailabilityChanged(new AvailabilityChangedEvent(1L, CHECK_IN, CHECK_OUT));
+        invalidator.flush();
+
+        // Then
+        assertThat(cache(RedisConfig.HOTEL_SEARCH_CACHE).get("tokyo|2026-11-01|2026-11-03|0|20")).isNull();
+        assertThat(cache(RedisConfig.HOTEL_SEARCH_CITY_CACHE).get("tokyo|2026-11-02|2026-11-05")).isNotNull();
+        assertThat(cache(RedisConfig.HOTEL_SEARCH_CACHE).get("tokyo|2026-11-02|2026-11-04|0|20")).isNotNull();
+        assertThat(cache(RedisConfig.HOTEL_SEARCH_CACHE).get("paris|2026-11-01|2026-11-03|0|20")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should look the city up again after hotels changed")
+    void testEvictCities_ForgetsHotelCities() {
+        // Given
+        when(roomInventoryRepository.findSoldOutNights(1L, CHECK_IN, CHECK_OUT)).thenReturn(List.of(CHECK_IN));
+        when(hotelRepository.findById(1L))
+                .thenReturn(Optional.of(Hotel.builder().id(1L).city("Tokyo").cityKey("tokyo").build()))
+                .thenReturn(Optional.of(Hotel.builder().id(1L).city("Paris").cityKey("paris").build()));
+        invalidator.onAvailabilityChanged(new AvailabilityChangedEvent(1L, CHECK_IN, CHECK_OUT));
+        invalidator.flush();
+
+        // When
+        invalidator.evictCities(List.of("tokyo", "paris"));
+        put(RedisConfig.HOTEL_SEARCH_CACHE, "paris|2026-11-01|2026-11-03|0|20", "page");
+        invalidator.onAvailabilityChanged(new AvailabilityChangedEvent(1L, CHECK_IN, CHECK_OUT));
+        invalidator.flush();
+
+        // Then
+        assertThat(cache(RedisConfig.HOTEL_SEARCH_CACHE).get("paris|2026-11-01|2026-11-03|0|20")).isNull();
+        verify(hotelRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should keep entries when the booking left rooms on every night")
+    void testFlush_RoomsLeftKeepsEntries() {
+        // Given
+        when(roomInventoryRepository.findSoldOutNights(1L, CHECK_IN, CHECK_OUT)).thenReturn(List.of());
+
+        // When
+        invalidator.onAvailabilityChanged(new AvailabilityChangedEvent(1L, CHECK_IN, CHECK_OUT));
+        invalidator.flush();
+
+        // Then
+        assertThat(cache(RedisConfig.HOTEL_SEARCH_CACHE).get("tokyo|2026-11-01|2026-11-03|0|20")).isNotNull();
+        verify(hotelRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should coalesce bookings of one hotel into a single sold-out check")
+    void testFlush_CoalescesPerHotel() {
+        // Given
+        LocalDate lastNight = CHECK_OUT.plusDays(1);
+        when(roomInventoryRepository.findSoldOutNights(1L, CHECK_IN, lastNight.plusDays(1))).thenReturn(List.of());
+
+        // When
+        invalidator.onAvailabilityChanged(new AvailabilityChangedEvent(1L, CHECK_IN, CHECK_OUT));
+        invalidator.onAvailabilityChanged(new AvailabilityChangedEvent(1L, CHECK_OUT, lastNight.plusDays(1)));
+        invalidator.flush();
+        invalidator.flush();
+
+        // Then
+        verify(roomInventoryRepository, times(1)).findSoldOutNights(1L, CHECK_IN, lastNight.plusDays(1));
+    }
+
+    @Test
+    @DisplayName("Should evict again once replicas have caught up")
+    void testEvictCities_RepeatedAfterReplicaLag() {
+        // Given
+        replicaProperties.setEnabled(true);
+        replicaProperties.setMaxLag(Duration.ofMillis(50));
+        invalidator.start();
+
+        // When
+        invalidator.evictCities(List.of("tokyo"));
+        // Cached again from a replica that had not applied the booking yet
+        cache(RedisConfig.HOTEL_SEARCH_CACHE).put("tokyo|2026-11-01|2026-11-03|0|20", "stale page");
+
+        // Then
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThat(cache(RedisConfig.HOTEL_SEARCH_CACHE).get("tokyo|2026-11-01|2026-11-03|0|20")).isNull());
+        assertThat(cache(RedisConfig.HOTEL_SEARCH_CACHE).get("paris|2026-11-01|2026-11-03|0|20")).isNotNull();
+        invalidator.stop();
+    }
+
+    private void put(String cacheName, String key, String value) {
+        String[] parts = key.split("\\|");
+        cache(cacheName).put(key, value);
+        searchCacheIndex.add(cache(cacheName), key, parts[0], LocalDate.parse(parts[1]), LocalDate.parse(parts[2]));
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+}
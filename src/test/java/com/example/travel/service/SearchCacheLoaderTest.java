@@ -0,0 +1,164 @@
+package com.example.travel.service;
+
+import com.example.travel.config.CacheTierProperties;
+import com.example.travel.config.SearchProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SearchCacheLoader.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Search Cache Loader Tests")
+class SearchCacheLoaderTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private SearchProperties searchProperties;
+    private Cache cache;
+    private SearchCacheLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        searchProperties = new SearchProperties();
+        searchProperties.getLoading().setEarlyRefreshBeta(0);
+        cache = new ConcurrentMapCache("hotelSearch");
+        loader = new SearchCacheLoader(searchProperties, new CacheTierProperties(), redisTemplate, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Should run one query for concurrent misses on the same key")
+    void testGet_ConcurrentMissesShareOneLoad() throws Exception {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return loader.get(cache, "tokyo", () -> {
+                    loads.incrementAndGet();
+                    sleep(200);
+                    return "page";
+                });
+            }));
+        }
+        start.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertThat(result.get()).isEqualTo("page");
+        }
+        executor.shutdown();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should wait for the value when another node holds the load lease")
+    void testGet_LeaseHeldElsewhereWaitsForValue() {
+        // Given
+        searchProperties.getLoading().setRedisLease(true);
+        searchProperties.getLoading().setLeasePollInterval(Duration.ofMillis(10));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        new Thread(() -> {
+            sleep(50);
+            cache.put("tokyo", "loaded elsewhere");
+        }).start();
+
+        // When
+        String value = loader.get(cache, "tokyo", () -> "loaded here");
+
+        // Then
+        assertThat(value).isEqualTo("loaded elsewhere");
+    }
+
+    @Test
+    @DisplayName("Should load and release the lease when it gets it")
+    void testGet_LeaseAcquiredLoadsAndReleases() {
+        // Given
+        searchProperties.getLoading().setRedisLease(true);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        AtomicReference<String> leaseOwner = new AtomicReference<>();
+        when(valueOperations.setIfAbsent(eq("lease:hotelSearch::tokyo"), anyString(), any(Duration.class)))
+                .thenAnswer(invocation -> leaseOwner.compareAndSet(null, invocation.getArgument(1)));
+
+        // When
+        String value = loader.get(cache, "tokyo", () -> "loaded here");
+
+        // Then
+        assertThat(value).isEqualTo("loaded here");
+        assertThat(cache.get("tokyo").get()).isEqualTo("loaded here");
+        verify(redisTemplate).execute(SearchCacheLoader.RELEASE_LEASE, List.of("lease:hotelSearch::tokyo"), leaseOwner.get());
+    }
+
+    @Test
+    @DisplayName("Should refresh a hot entry in the background before it expires")
+    void testGet_EarlyRefresh() {
+        // Given: a beta this large makes every hit fall inside the refresh window
+        searchProperties.getLoading().setEarlyRefreshBeta(1e15);
+        AtomicInteger loads = new AtomicInteger();
+        loader.get(cache, "tokyo", () -> "v" + loads.incrementAndGet());
+
+        // When
+        String served = loader.get(cache, "tokyo", () -> "v" + loads.incrementAndGet());
+
+        // Then
+        assertThat(served).isEqualTo("v1");
+        assertThat(cache.get("tokyo").get()).isEqualTo("v2");
+    }
+
+    @Test
+    @DisplayName("Should serve hits without reloading when early refresh is off")
+    void testGet_NoEarlyRefreshWhenDisabled() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        loader.get(cache, "tokyo", () -> "v" + loads.incrementAndGet());
+
+        // When
+        loader.get(cache, "tokyo", () -> "v" + loads.incrementAndGet());
+
+        // Then
+        assertThat(loads).hasValue(1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.travel.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for StripedRoomCounter.
+ */
+@DisplayName("Striped Room Counter Tests")
+class StripedRoomCounterTest {
+
+    @Test
+    @DisplayName("Should spread rooms over stripes and take every one of them")
+    void testTryTake_DrainsAllStripes() {
+        // Given
+        StripedRoomCounter counter = new StripedRoomCounter(5, 4);
+
+        // When
+        int taken = 0;
+        while (counter.tryTake()) {
+            taken++;
+        }
+
+        // Then
+        assertThat(taken).isEqualTo(5);
+        assertThat(counter.remaining()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should make released rooms bookable again")
+    void testRelease_ReturnsRoom() {
+        // Given
+        StripedRoomCounter counter = new StripedRoomCounter(1, 8);
+        assertThat(counter.tryTake()).isTrue();
+
+        // When
+        counter.release();
+
+        // Then
+        assertThat(counter.remaining()).isEqualTo(1);
+        assertThat(counter.tryTake()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should never hand out more rooms than it holds under contention")
+    void testTryTake_NoOversellUnderContention() throws InterruptedException {
+        // Given
+        StripedRoomCounter counter = new StripedRoomCounter(1_000, 8);
+        AtomicInteger taken = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 500; j++) {
+                    if (counter.tryTake()) {
+                        taken.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        assertThat(taken.get()).isEqualTo(1_000);
+        assertThat(counter.remaining()).isZero();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.travel.service;
+
+import com.example.travel.config.MetricsProperties;
+import com.example.travel.exception.NoRoomsAvailableException;
+import com.example.travel.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TravelMetrics.
+ */
+@DisplayName("Travel Metrics Tests")
+class TravelMetricsTest {
+
+    @Test
+    @DisplayName("Should name the reason of a rejected booking")
+    void testRejectionReason() {
+        assertThat(TravelMetrics.rejectionReason(new NoRoomsAvailableException())).isEqualTo("no_rooms");
+        assertThat(TravelMetrics.rejectionReason(new ResourceNotFoundException("Hotel not found"))).isEqualTo("not_found");
+        assertThat(TravelMetrics.rejectionReason(new OptimisticLockingFailureException("stale"))).isEqualTo("conflict");
+        assertThat(TravelMetrics.rejectionReason(new IllegalArgumentException("bad dates"))).isEqualTo("invalid");
+        assertThat(TravelMetrics.rejectionReason(new IllegalStateException("behind"))).isEqualTo("error");
+    }
+
+    @Test
+    @DisplayName("Should count cities past the limit as other and keep city off the latency timer")
+    void testRecordSearch_CityTagLimit() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MetricsProperties properties = new MetricsProperties();
+        properties.setMaxCityTags(2);
+        TravelMetrics metrics = new TravelMetrics(meterRegistry, properties);
+
+        for (String city : new String[]{"tokyo", "kyoto", "osaka", "tokyo", "nagoya"}) {
+            metrics.recordSearch("page", city, TravelMetrics.SearchSource.CACHE_HIT, System.nanoTime());
+        }
+
+        assertThat(meterRegistry.get(TravelMetrics.SEARCH_CITIES).tag("city", "tokyo").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(TravelMetrics.SEARCH_CITIES).tag("city", "kyoto").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(TravelMetrics.SEARCH_CITIES).tag("city", TravelMetrics.OTHER_CITY).counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(TravelMetrics.SEARCH).timers()).hasSize(1);
+        assertThat(meterRegistry.get(TravelMetrics.SEARCH).timer().getId().getTag("city")).isNull();
+        assertThat(meterRegistry.get(TravelMetrics.SEARCH).timer().count()).isEqualTo(5);
+    }
+}